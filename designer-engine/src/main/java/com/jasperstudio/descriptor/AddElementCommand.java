@@ -0,0 +1,37 @@
+package com.jasperstudio.descriptor;
+
+import com.jasperstudio.model.BandModel;
+import com.jasperstudio.model.ElementModel;
+import com.jasperstudio.model.JasperDesignModel;
+import net.sf.jasperreports.engine.JRElementGroup;
+
+public class AddElementCommand implements Command {
+
+    private final JasperDesignModel design;
+    private final BandModel band;
+    private final JRElementGroup container;
+    private final ElementModel element;
+
+    public AddElementCommand(JasperDesignModel design, BandModel band, JRElementGroup container,
+            ElementModel element) {
+        this.design = design;
+        this.band = band;
+        this.container = container;
+        this.element = element;
+    }
+
+    @Override
+    public void execute() {
+        design.addElement(band, container, element);
+    }
+
+    @Override
+    public void undo() {
+        design.removeElement(band, container, element);
+    }
+
+    @Override
+    public String getName() {
+        return "Add Element";
+    }
+}
@@ -0,0 +1,56 @@
+package com.jasperstudio.descriptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Several commands that are executed, undone and redone as one history entry,
+ * e.g. moving or deleting every selected element.
+ * <p>
+ * Children run in the order given and are undone in reverse.
+ */
+public class CompoundCommand implements Command {
+
+    private final String name;
+    private final List<Command> commands;
+
+    public CompoundCommand(String name, List<? extends Command> commands) {
+        this.name = name;
+        this.commands = new ArrayList<>(commands);
+    }
+
+    public List<Command> getCommands() {
+        return Collections.unmodifiableList(commands);
+    }
+
+    public boolean isEmpty() {
+        return commands.isEmpty();
+    }
+
+    @Override
+    public void execute() {
+        for (Command command : commands) {
+            command.execute();
+        }
+    }
+
+    @Override
+    public void undo() {
+        for (int i = commands.size() - 1; i >= 0; i--) {
+            commands.get(i).undo();
+        }
+    }
+
+    @Override
+    public void redo() {
+        for (Command command : commands) {
+            command.redo();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
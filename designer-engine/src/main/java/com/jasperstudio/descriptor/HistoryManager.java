@@ -2,10 +2,22 @@ package com.jasperstudio.descriptor;
 
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Stack;
 
 /**
  * Manages the stack of executed commands for Undo/Redo functionality.
+ * <p>
+ * Commands executed inside a transaction are collected instead of being
+ * pushed one by one; {@link #commit()} pushes them as a single
+ * {@link CompoundCommand} and only then updates the undo/redo state, and
+ * {@link #rollback()} undoes them. Transactions nest: an inner transaction
+ * adds its commands to the enclosing one, and only the outermost commit
+ * creates a history entry.
  */
 public class HistoryManager {
 
@@ -15,18 +27,73 @@ public class HistoryManager {
     private final BooleanProperty canUndo = new SimpleBooleanProperty(false);
     private final BooleanProperty canRedo = new SimpleBooleanProperty(false);
 
+    // Commands of the open transaction, and where each nested level started
+    private final List<Command> transaction = new ArrayList<>();
+    private final Deque<Integer> transactionStarts = new ArrayDeque<>();
+    private String transactionName;
+
     /**
      * Executes a new command and pushes it onto the history stack.
-     * Clears the redo stack.
+     * Clears the redo stack. Inside a transaction the command is executed
+     * and kept for the transaction's entry.
      */
     public void execute(Command cmd) {
         cmd.execute();
-        undoStack.push(cmd);
-        redoStack.clear();
-        updateProperties();
+        if (isInTransaction()) {
+            transaction.add(cmd);
+            return;
+        }
+        push(cmd);
+    }
+
+    /**
+     * Starts collecting commands into one history entry.
+     *
+     * @param name name of the entry, e.g. "Paste Elements"; ignored for a
+     *             nested transaction
+     */
+    public void beginTransaction(String name) {
+        if (transactionStarts.isEmpty()) {
+            transactionName = name;
+        }
+        transactionStarts.push(transaction.size());
+    }
+
+    /**
+     * Ends the innermost transaction, keeping its commands. Ending the
+     * outermost one pushes everything executed since it began as one entry.
+     */
+    public void commit() {
+        if (transactionStarts.isEmpty())
+            throw new IllegalStateException("No transaction to commit");
+        transactionStarts.pop();
+        if (isInTransaction() || transaction.isEmpty())
+            return;
+        CompoundCommand entry = new CompoundCommand(transactionName, transaction);
+        transaction.clear();
+        push(entry);
+    }
+
+    /**
+     * Ends the innermost transaction, undoing its commands in reverse order.
+     * Commands of enclosing transactions are kept.
+     */
+    public void rollback() {
+        if (transactionStarts.isEmpty())
+            throw new IllegalStateException("No transaction to roll back");
+        int start = transactionStarts.pop();
+        for (int i = transaction.size() - 1; i >= start; i--) {
+            transaction.remove(i).undo();
+        }
+    }
+
+    public boolean isInTransaction() {
+        return !transactionStarts.isEmpty();
     }
 
     public void undo() {
+        if (isInTransaction())
+            throw new IllegalStateException("Cannot undo during a transaction");
         if (undoStack.isEmpty())
             return;
         Command cmd = undoStack.pop();
@@ -36,6 +103,8 @@ public class HistoryManager {
     }
 
     public void redo() {
+        if (isInTransaction())
+            throw new IllegalStateException("Cannot redo during a transaction");
         if (redoStack.isEmpty())
             return;
         Command cmd = redoStack.pop();
@@ -44,6 +113,12 @@ public class HistoryManager {
         updateProperties();
     }
 
+    private void push(Command cmd) {
+        undoStack.push(cmd);
+        redoStack.clear();
+        updateProperties();
+    }
+
     private void updateProperties() {
         canUndo.set(!undoStack.isEmpty());
         canRedo.set(!redoStack.isEmpty());
@@ -0,0 +1,41 @@
+package com.jasperstudio.descriptor;
+
+import com.jasperstudio.model.BandModel;
+import com.jasperstudio.model.ElementModel;
+import com.jasperstudio.model.JasperDesignModel;
+import net.sf.jasperreports.engine.JRElementGroup;
+
+/**
+ * Removes an element from its band or frame. Undo adds it back on top of
+ * its container.
+ */
+public class RemoveElementCommand implements Command {
+
+    private final JasperDesignModel design;
+    private final BandModel band;
+    private final JRElementGroup container;
+    private final ElementModel element;
+
+    public RemoveElementCommand(JasperDesignModel design, BandModel band, JRElementGroup container,
+            ElementModel element) {
+        this.design = design;
+        this.band = band;
+        this.container = container;
+        this.element = element;
+    }
+
+    @Override
+    public void execute() {
+        design.removeElement(band, container, element);
+    }
+
+    @Override
+    public void undo() {
+        design.addElement(band, container, element);
+    }
+
+    @Override
+    public String getName() {
+        return "Delete Element";
+    }
+}
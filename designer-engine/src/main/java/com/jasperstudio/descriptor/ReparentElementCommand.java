@@ -0,0 +1,45 @@
+package com.jasperstudio.descriptor;
+
+import com.jasperstudio.model.BandModel;
+import com.jasperstudio.model.ElementModel;
+import com.jasperstudio.model.JasperDesignModel;
+import net.sf.jasperreports.engine.JRElementGroup;
+
+/**
+ * Moves an element to another band or frame. Undo moves it back on top of
+ * its former container.
+ */
+public class ReparentElementCommand implements Command {
+
+    private final JasperDesignModel design;
+    private final ElementModel element;
+    private final BandModel fromBand;
+    private final JRElementGroup from;
+    private final BandModel toBand;
+    private final JRElementGroup to;
+
+    public ReparentElementCommand(JasperDesignModel design, ElementModel element, BandModel fromBand,
+            JRElementGroup from, BandModel toBand, JRElementGroup to) {
+        this.design = design;
+        this.element = element;
+        this.fromBand = fromBand;
+        this.from = from;
+        this.toBand = toBand;
+        this.to = to;
+    }
+
+    @Override
+    public void execute() {
+        design.moveElement(element, fromBand, from, toBand, to);
+    }
+
+    @Override
+    public void undo() {
+        design.moveElement(element, toBand, to, fromBand, from);
+    }
+
+    @Override
+    public String getName() {
+        return "Move Element";
+    }
+}
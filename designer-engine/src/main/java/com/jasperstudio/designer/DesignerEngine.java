@@ -18,6 +18,13 @@ public class DesignerEngine {
         DESIGN, SOURCE, PREVIEW
     }
 
+    /**
+     * Edge or centre line the selected elements are lined up on.
+     */
+    public enum Alignment {
+        LEFT, CENTER, RIGHT, TOP, MIDDLE, BOTTOM
+    }
+
     private static final Logger logger = LoggerFactory.getLogger(DesignerEngine.class);
 
     private final javafx.collections.ObservableList<com.jasperstudio.descriptor.LogEntry> errorLogs = javafx.collections.FXCollections
@@ -61,14 +68,104 @@ public class DesignerEngine {
             false);
     private final javafx.beans.property.BooleanProperty showErrorsForElements = new javafx.beans.property.SimpleBooleanProperty(
             false);
+    // Canvas Properties
+    private final javafx.beans.property.BooleanProperty virtualizedCanvas = new javafx.beans.property.SimpleBooleanProperty(
+            true);
+    private final javafx.beans.property.BooleanProperty immediateCanvas = new javafx.beans.property.SimpleBooleanProperty(
+            false);
+    private final DoubleProperty levelOfDetailZoom = new SimpleDoubleProperty(0.5);
+    // Preview Properties
+    private final javafx.beans.property.BooleanProperty previewVirtualized = new javafx.beans.property.SimpleBooleanProperty(
+            false);
+    private final javafx.beans.property.IntegerProperty previewPageBudget = new javafx.beans.property.SimpleIntegerProperty(
+            100);
+    private final ObjectProperty<com.jasperstudio.adapter.DataAdapter> previewDataAdapter = new SimpleObjectProperty<>();
+    private final javafx.beans.property.IntegerProperty previewRowLimit = new javafx.beans.property.SimpleIntegerProperty(
+            100);
+    private final ObjectProperty<com.jasperstudio.integration.DataSampler.Mode> previewSampleMode = new SimpleObjectProperty<>(
+            com.jasperstudio.integration.DataSampler.Mode.FIRST_ROWS);
 
     private final com.jasperstudio.model.JrxmlService jrxmlService = new com.jasperstudio.model.JrxmlService();
     private final com.jasperstudio.descriptor.HistoryManager historyManager = new com.jasperstudio.descriptor.HistoryManager();
 
+    // Shared by all open editors so the memory bound applies application-wide.
+    // Set -Djasperstudio.compiledCacheDir=<dir> to also keep .jasper files on disk.
+    private static final com.jasperstudio.integration.CompiledReportCache REPORT_CACHE = createReportCache();
+
+    private static com.jasperstudio.integration.CompiledReportCache createReportCache() {
+        String dir = System.getProperty("jasperstudio.compiledCacheDir");
+        java.nio.file.Path diskDir = (dir == null || dir.isBlank()) ? null : java.nio.file.Paths.get(dir);
+        return new com.jasperstudio.integration.CompiledReportCache(16, diskDir);
+    }
+
     public void executeCommand(com.jasperstudio.descriptor.Command cmd) {
         historyManager.execute(cmd);
     }
 
+    /**
+     * Runs the action as one transaction: the commands it executes become a
+     * single undo entry, and the design's change listeners (canvas, outline,
+     * properties) are called once, when it commits. If the action throws, the
+     * commands it executed are rolled back.
+     */
+    public void runTransaction(String name, Runnable action) {
+        JasperDesignModel design = getDesign();
+        historyManager.beginTransaction(name);
+        if (design != null)
+            design.beginUpdate();
+        try {
+            action.run();
+            historyManager.commit();
+        } catch (RuntimeException | Error e) {
+            historyManager.rollback();
+            throw e;
+        } finally {
+            if (design != null)
+                design.endUpdate();
+        }
+    }
+
+    /**
+     * Undoes the last history entry as one update of the design, so a bulk
+     * operation is taken back with a single notification of its observers.
+     */
+    public void undo() {
+        runUpdate(historyManager::undo);
+    }
+
+    /**
+     * Redoes the last undone history entry as one update of the design.
+     */
+    public void redo() {
+        runUpdate(historyManager::redo);
+    }
+
+    private void runUpdate(Runnable action) {
+        JasperDesignModel design = getDesign();
+        if (design != null)
+            design.beginUpdate();
+        try {
+            action.run();
+        } finally {
+            if (design != null)
+                design.endUpdate();
+        }
+    }
+
+    /**
+     * Compiles the given design, reusing a cached report when the design content
+     * has not changed since it was last compiled.
+     */
+    public net.sf.jasperreports.engine.JasperReport compileReport(
+            net.sf.jasperreports.engine.design.JasperDesign design)
+            throws net.sf.jasperreports.engine.JRException {
+        return REPORT_CACHE.compile(design);
+    }
+
+    public com.jasperstudio.integration.CompiledReportCache getReportCache() {
+        return REPORT_CACHE;
+    }
+
     public com.jasperstudio.descriptor.HistoryManager getHistoryManager() {
         return historyManager;
     }
@@ -112,6 +209,20 @@ public class DesignerEngine {
     }
 
     public DesignerEngine() {
+        // The primary selected element is the single selection the panels show
+        selectionModel.primaryProperty().addListener((obs, oldVal, primary) -> {
+            if (primary != null) {
+                selection.set(primary);
+            } else if (selection.get() instanceof com.jasperstudio.model.ElementModel) {
+                selection.set(null);
+            }
+        });
+        currentDesign.addListener((obs, oldVal, newVal) -> {
+            if (oldVal != null)
+                oldVal.removeDesignChangeListener(selectionPruner);
+            if (newVal != null)
+                newVal.addDesignChangeListener(selectionPruner);
+        });
         newDesign();
     }
 
@@ -191,7 +302,7 @@ public class DesignerEngine {
 
             createBand(jd, type);
             if (getDesign() != null) {
-                getDesign().sync();
+                getDesign().refreshBand(type);
                 // Select the new band
                 com.jasperstudio.model.BandModel newBand = getDesign().getBand(type);
                 if (newBand != null) {
@@ -247,7 +358,7 @@ public class DesignerEngine {
                 break;
         }
         if (getDesign() != null)
-            getDesign().sync();
+            getDesign().refreshBand(type);
     }
 
     public void openDesign(java.io.File file) throws Exception {
@@ -362,9 +473,110 @@ public class DesignerEngine {
         return showErrorsForElements;
     }
 
+    // Canvas Property Accessors
+
+    /**
+     * When set, the design canvas only creates nodes for elements near the
+     * visible area and recycles them while scrolling.
+     */
+    public javafx.beans.property.BooleanProperty virtualizedCanvasProperty() {
+        return virtualizedCanvas;
+    }
+
+    /**
+     * When set, the design canvas draws band contents onto one canvas per band
+     * instead of creating a node per element. Takes precedence over
+     * {@link #virtualizedCanvasProperty()}.
+     */
+    public javafx.beans.property.BooleanProperty immediateCanvasProperty() {
+        return immediateCanvas;
+    }
+
+    /**
+     * Zoom below which the canvas draws simplified elements: text as plain
+     * boxes, images and components as bare placeholders, frames as outlines.
+     * 0 always draws full detail.
+     */
+    public DoubleProperty levelOfDetailZoomProperty() {
+        return levelOfDetailZoom;
+    }
+
+    // Preview Property Accessors
+
+    /**
+     * When set, Preview fills through a swap-file virtualizer so only
+     * {@link #previewPageBudgetProperty()} pages stay on the heap.
+     */
+    public javafx.beans.property.BooleanProperty previewVirtualizedProperty() {
+        return previewVirtualized;
+    }
+
+    /**
+     * Number of filled pages a virtualized preview keeps in memory.
+     */
+    public javafx.beans.property.IntegerProperty previewPageBudgetProperty() {
+        return previewPageBudget;
+    }
+
+    /**
+     * Data adapter Preview fills from; {@code null} fills a single empty record.
+     */
+    public ObjectProperty<com.jasperstudio.adapter.DataAdapter> previewDataAdapterProperty() {
+        return previewDataAdapter;
+    }
+
+    /**
+     * Maximum number of rows Preview reads, 0 for no limit.
+     */
+    public javafx.beans.property.IntegerProperty previewRowLimitProperty() {
+        return previewRowLimit;
+    }
+
+    public ObjectProperty<com.jasperstudio.integration.DataSampler.Mode> previewSampleModeProperty() {
+        return previewSampleMode;
+    }
+
+    /**
+     * Starts an asynchronous preview fill from the selected data adapter,
+     * honouring the preview row limit and sample mode.
+     */
+    public com.jasperstudio.integration.FillSession startPreviewFill(
+            net.sf.jasperreports.engine.JasperReport report, java.util.Map<String, Object> parameters,
+            com.jasperstudio.integration.FillSession.Listener listener) throws Exception {
+        return PreviewFillLauncher.start(report, parameters, previewDataAdapter.get(), previewRowLimit.get(),
+                previewSampleMode.get(), listener);
+    }
+
+    /**
+     * Starts an asynchronous fill of all rows from the selected data adapter,
+     * for export. The preview row limit does not apply.
+     */
+    public com.jasperstudio.integration.FillSession startExportFill(
+            net.sf.jasperreports.engine.JasperReport report, java.util.Map<String, Object> parameters,
+            com.jasperstudio.integration.FillSession.Listener listener) throws Exception {
+        return PreviewFillLauncher.start(report, parameters, previewDataAdapter.get(), 0,
+                com.jasperstudio.integration.DataSampler.Mode.FIRST_ROWS, listener);
+    }
+
     // Selection State
     private final javafx.beans.property.ObjectProperty<Object> selection = new javafx.beans.property.SimpleObjectProperty<>();
+    private final SelectionModel selectionModel = new SelectionModel();
+
+    // Drops selected elements that undo or a band deletion took out of the design
+    private final com.jasperstudio.model.DesignChangeListener selectionPruner = event -> {
+        if (selectionModel.isEmpty())
+            return;
+        switch (event.getType()) {
+            case ELEMENT_REMOVED, BAND_CHANGED -> selectionModel.retain(e -> locate(e.getElement()) != null);
+            default -> {
+            }
+        }
+    };
 
+    /**
+     * The selected object: a band, the report or, if elements are selected,
+     * the primary one of {@link #getSelectionModel()}.
+     */
     public javafx.beans.property.ObjectProperty<Object> selectionProperty() {
         return selection;
     }
@@ -373,6 +585,13 @@ public class DesignerEngine {
         return selection.get();
     }
 
+    /**
+     * All selected elements; bulk operations act on these.
+     */
+    public SelectionModel getSelectionModel() {
+        return selectionModel;
+    }
+
     // Helper for ElementModel specific access if needed, but safer to check type
     public com.jasperstudio.model.ElementModel getSelectedElement() {
         if (selection.get() instanceof com.jasperstudio.model.ElementModel) {
@@ -382,11 +601,20 @@ public class DesignerEngine {
     }
 
     public void setSelection(Object item) {
-        this.selection.set(item);
+        if (item instanceof com.jasperstudio.model.ElementModel model) {
+            if (selectionModel.size() != 1 || !selectionModel.contains(model)) {
+                selectionModel.select(model);
+            }
+            this.selection.set(item);
+        } else {
+            this.selection.set(item);
+            selectionModel.clear();
+        }
     }
 
     public void clearSelection() {
         this.selection.set(null);
+        selectionModel.clear();
     }
 
     public javafx.collections.ObservableList<com.jasperstudio.descriptor.LogEntry> getErrorLogs() {
@@ -556,18 +784,15 @@ public class DesignerEngine {
                 jrElement.setY((int) y);
                 jrElement.setUUID(java.util.UUID.randomUUID());
 
-                com.jasperstudio.model.ElementModel model = new com.jasperstudio.model.ElementModel(jrElement);
+                com.jasperstudio.model.ElementModel model = com.jasperstudio.model.ElementModel.of(jrElement);
 
-                if (parentContainer != null
+                com.jasperstudio.model.ElementLocation location = parentContainer != null
+                        ? locate(parentContainer.getElement())
+                        : null;
+                if (location != null
                         && parentContainer.getElement() instanceof net.sf.jasperreports.engine.design.JRDesignFrame) {
-                    ((net.sf.jasperreports.engine.design.JRDesignFrame) parentContainer.getElement())
-                            .addElement(jrElement);
-                    // Note: We need to register this new model with the adapter or ensure the UI
-                    // refreshes
-                    // For Phase 1, we rely on the implementation plan's verification steps which
-                    // implies visual updates.
-                    // The Canvas will need to be smart enough to observe frame children or we force
-                    // a refresh.
+                    getDesign().addElement(location.band(),
+                            (net.sf.jasperreports.engine.design.JRDesignFrame) parentContainer.getElement(), model);
                 } else {
                     getDesign().addElement(model);
                 }
@@ -654,9 +879,9 @@ public class DesignerEngine {
             jrElement.setY((int) y);
             jrElement.setUUID(java.util.UUID.randomUUID());
 
-            com.jasperstudio.model.ElementModel model = new com.jasperstudio.model.ElementModel(jrElement);
+            com.jasperstudio.model.ElementModel model = com.jasperstudio.model.ElementModel.of(jrElement);
             if (band != null) {
-                band.addElement(model);
+                getDesign().addElement(band, band.getBand(), model);
                 // Auto-resize band if element exceeds height
                 int requiredHeight = jrElement.getY() + jrElement.getHeight();
                 if (requiredHeight > band.getHeight()) {
@@ -673,26 +898,29 @@ public class DesignerEngine {
             return;
 
         // Find current parent band
-        com.jasperstudio.model.BandModel currentBand = null;
-        for (com.jasperstudio.model.BandModel b : getDesign().getBands()) {
-            if (b.getElements().contains(element)) {
-                currentBand = b;
-                break;
+        com.jasperstudio.model.ElementLocation location = locate(element.getElement());
+        com.jasperstudio.model.BandModel currentBand = location != null && !location.inFrame() ? location.band()
+                : null;
+
+        runTransaction("Move Element", () -> {
+            if (currentBand != null && currentBand != targetBand) {
+                executeCommand(new com.jasperstudio.descriptor.ReparentElementCommand(getDesign(), element,
+                        currentBand, currentBand.getBand(), targetBand, targetBand.getBand()));
             }
-        }
-
-        if (currentBand != null && currentBand != targetBand) {
-            currentBand.removeElement(element);
-            targetBand.addElement(element);
-        }
 
-        // Update Y and check resize even if same band (moved within band)
-        element.setY(newY);
+            // Update Y and check resize even if same band (moved within band)
+            int x = (int) element.getX();
+            int y = (int) element.getY();
+            if (y != newY) {
+                executeCommand(new com.jasperstudio.descriptor.MoveElementCommand(element, x, y, x, newY));
+            }
 
-        int requiredHeight = newY + (int) element.getHeight();
-        if (requiredHeight > targetBand.getHeight()) {
-            targetBand.setHeight(requiredHeight);
-        }
+            int requiredHeight = newY + (int) element.getHeight();
+            if (requiredHeight > targetBand.getHeight()) {
+                executeCommand(new com.jasperstudio.descriptor.ChangePropertyCommand<>("Band Height",
+                        targetBand.getHeight(), requiredHeight, targetBand::setHeight));
+            }
+        });
     }
 
     /**
@@ -705,20 +933,9 @@ public class DesignerEngine {
 
         net.sf.jasperreports.engine.design.JRDesignElement selectedJR = selectedModel.getElement();
 
-        // Find Parent
-        net.sf.jasperreports.engine.JRElementGroup parentGroup = null;
-        net.sf.jasperreports.engine.design.JRDesignBand title = (net.sf.jasperreports.engine.design.JRDesignBand) getDesign()
-                .getDesign().getTitle();
-
-        // Check if directly in Title
-        if (title.getChildren().contains(selectedJR)) {
-            parentGroup = title;
-        } else {
-            // Recursive search in Frames
-            parentGroup = findParentFrame(title, selectedJR);
-        }
-
-        if (parentGroup == null) {
+        // Find Parent (a band or a frame within one)
+        com.jasperstudio.model.ElementLocation location = locate(selectedJR);
+        if (location == null) {
             logger.warn("Could not find parent for selection: {}", selectedJR);
             return;
         }
@@ -731,124 +948,228 @@ public class DesignerEngine {
             newFrame.setWidth(selectedJR.getWidth());
             newFrame.setHeight(selectedJR.getHeight());
             newFrame.setUUID(java.util.UUID.randomUUID());
+            com.jasperstudio.model.FrameModel frameModel = new com.jasperstudio.model.FrameModel(newFrame);
+
+            // Add the frame next to the element, then move the element into it
+            com.jasperstudio.model.JasperDesignModel design = getDesign();
+            int x = (int) selectedModel.getX();
+            int y = (int) selectedModel.getY();
+            runTransaction("Group", () -> {
+                executeCommand(new com.jasperstudio.descriptor.AddElementCommand(design, location.band(),
+                        location.container(), frameModel));
+                executeCommand(new com.jasperstudio.descriptor.MoveElementCommand(selectedModel, x, y, 0, 0));
+                executeCommand(new com.jasperstudio.descriptor.ReparentElementCommand(design, selectedModel,
+                        location.band(), location.container(), location.band(), newFrame));
+            });
+
+            setSelection(frameModel);
+        } catch (Exception e) {
+            logger.error("Failed to group selection", e);
+        }
+    }
 
-            // Move element
-            if (parentGroup instanceof net.sf.jasperreports.engine.design.JRDesignElementGroup) {
-                ((net.sf.jasperreports.engine.design.JRDesignElementGroup) parentGroup).removeElement(selectedJR);
-                ((net.sf.jasperreports.engine.design.JRDesignElementGroup) parentGroup).addElement(newFrame);
-            } else if (parentGroup instanceof net.sf.jasperreports.engine.design.JRDesignFrame) {
-                ((net.sf.jasperreports.engine.design.JRDesignFrame) parentGroup).removeElement(selectedJR);
-                ((net.sf.jasperreports.engine.design.JRDesignFrame) parentGroup).addElement(newFrame);
-            }
+    /**
+     * Looks up the band and direct container of an element in the parent
+     * index, without walking the design.
+     */
+    private com.jasperstudio.model.ElementLocation locate(net.sf.jasperreports.engine.design.JRDesignElement target) {
+        if (getDesign() == null || target == null)
+            return null;
+        return getDesign().locate(target);
+    }
 
-            selectedJR.setX(0);
-            selectedJR.setY(0);
-            newFrame.addElement(selectedJR);
+    public void deleteSelection() {
+        if (getDesign() == null || selectionModel.isEmpty())
+            return;
 
-            // Update Model Wrapper if Top-Level
-            if (parentGroup == title) {
-                // Remove old model from observable list (ReportCanvas handles removal now)
-                getDesign().getElements().remove(selectedModel);
-                // Add new model
-                getDesign().addElement(new com.jasperstudio.model.ElementModel(newFrame));
+        // Locations are captured before anything is removed
+        java.util.List<com.jasperstudio.model.ElementModel> selected = getSelectedRoots();
+        java.util.Map<net.sf.jasperreports.engine.JRElementGroup, java.util.Map<Object, Integer>> stacking = new java.util.IdentityHashMap<>();
+        java.util.List<java.util.Map.Entry<Integer, com.jasperstudio.descriptor.Command>> removals = new java.util.ArrayList<>(
+                selected.size());
+        for (com.jasperstudio.model.ElementModel element : selected) {
+            com.jasperstudio.model.ElementLocation location = locate(element.getElement());
+            if (location != null) {
+                removals.add(java.util.Map.entry(stackIndex(stacking, location.container(), element.getElement()),
+                        new com.jasperstudio.descriptor.RemoveElementCommand(getDesign(), location.band(),
+                                location.container(), element)));
             } else {
-                // Nested change: Force Refresh
-                com.jasperstudio.model.JasperDesignModel d = getDesign();
-                setDesign(null);
-                setDesign(d);
+                logger.warn("Could not find parent band for selection to delete: {}", element);
             }
+        }
+        // Remove the topmost first, so undo re-adds them in their original stacking order
+        removals.sort(java.util.Map.Entry.comparingByKey(java.util.Comparator.reverseOrder()));
 
-            // Select the new frame (Best effort)
-            if (parentGroup == title) {
-                for (com.jasperstudio.model.ElementModel em : getDesign().getElements()) {
-                    if (em.getElement() == newFrame) {
-                        setSelection(em);
-                        break;
-                    }
-                }
-            } else {
-                clearSelection();
+        clearSelection();
+        executeBatch(removals.size() == 1 ? "Delete Element" : "Delete Elements",
+                removals.stream().map(java.util.Map.Entry::getValue).toList());
+        logger.info("Deleted {} selected element(s)", removals.size());
+    }
+
+    /**
+     * Position of a child in its container, indexing each container once.
+     */
+    private static int stackIndex(
+            java.util.Map<net.sf.jasperreports.engine.JRElementGroup, java.util.Map<Object, Integer>> stacking,
+            net.sf.jasperreports.engine.JRElementGroup container, Object child) {
+        java.util.Map<Object, Integer> positions = stacking.computeIfAbsent(container, group -> {
+            java.util.Map<Object, Integer> indices = new java.util.IdentityHashMap<>();
+            java.util.List<net.sf.jasperreports.engine.JRChild> children = group.getChildren();
+            for (int i = 0; i < children.size(); i++) {
+                indices.put(children.get(i), i);
             }
+            return indices;
+        });
+        return positions.getOrDefault(child, 0);
+    }
 
-        } catch (Exception e) {
-            logger.error("Failed to group selection", e);
+    /**
+     * Selects every element placed directly in a band.
+     */
+    public void selectAll() {
+        if (getDesign() == null)
+            return;
+        java.util.List<com.jasperstudio.model.ElementModel> all = new java.util.ArrayList<>();
+        for (com.jasperstudio.model.BandModel band : getDesign().getBands()) {
+            all.addAll(band.getElements());
         }
+        if (all.isEmpty())
+            return;
+        selectionModel.setAll(all);
     }
 
-    private net.sf.jasperreports.engine.JRElementGroup findParentFrame(
-            net.sf.jasperreports.engine.JRElementGroup container,
-            net.sf.jasperreports.engine.design.JRDesignElement target) {
-
-        for (net.sf.jasperreports.engine.JRChild child : container.getChildren()) {
-            if (child instanceof net.sf.jasperreports.engine.design.JRDesignFrame) {
-                net.sf.jasperreports.engine.design.JRDesignFrame frame = (net.sf.jasperreports.engine.design.JRDesignFrame) child;
-                if (frame.getChildren().contains(target)) {
-                    return frame;
-                }
-                // Recurse
-                net.sf.jasperreports.engine.JRElementGroup found = findParentFrame(frame, target);
-                if (found != null)
-                    return found;
-            }
+    /**
+     * Moves every selected element by the given offset as one undoable step.
+     */
+    public void moveSelection(int deltaX, int deltaY) {
+        if (deltaX == 0 && deltaY == 0)
+            return;
+        java.util.List<com.jasperstudio.descriptor.Command> moves = new java.util.ArrayList<>(selectionModel.size());
+        for (com.jasperstudio.model.ElementModel element : getSelectedRoots()) {
+            int x = (int) element.getX();
+            int y = (int) element.getY();
+            moves.add(new com.jasperstudio.descriptor.MoveElementCommand(element, x, y, x + deltaX, y + deltaY));
         }
-        return null;
+        executeBatch(moves.size() == 1 ? "Move Element" : "Move Elements", moves);
     }
 
-    public void deleteSelection() {
-        com.jasperstudio.model.ElementModel selected = getSelectedElement();
-        if (selected == null)
+    /**
+     * Lines the selected elements up on an edge or centre line of the primary
+     * selected element, as one undoable step.
+     */
+    public void alignSelection(Alignment alignment) {
+        com.jasperstudio.model.ElementModel anchor = selectionModel.getPrimary();
+        if (anchor == null || selectionModel.size() < 2)
             return;
 
-        if (getDesign() == null)
-            return;
+        java.util.List<com.jasperstudio.descriptor.Command> moves = new java.util.ArrayList<>(selectionModel.size());
+        for (com.jasperstudio.model.ElementModel element : selectionModel.getElements()) {
+            if (element == anchor)
+                continue;
+            int x = (int) element.getX();
+            int y = (int) element.getY();
+            int newX = switch (alignment) {
+                case LEFT -> (int) anchor.getX();
+                case CENTER -> (int) Math.round(anchor.getX() + (anchor.getWidth() - element.getWidth()) / 2);
+                case RIGHT -> (int) (anchor.getX() + anchor.getWidth() - element.getWidth());
+                default -> x;
+            };
+            int newY = switch (alignment) {
+                case TOP -> (int) anchor.getY();
+                case MIDDLE -> (int) Math.round(anchor.getY() + (anchor.getHeight() - element.getHeight()) / 2);
+                case BOTTOM -> (int) (anchor.getY() + anchor.getHeight() - element.getHeight());
+                default -> y;
+            };
+            if (newX != x || newY != y) {
+                moves.add(new com.jasperstudio.descriptor.MoveElementCommand(element, x, y, newX, newY));
+            }
+        }
+        executeBatch("Align Elements", moves);
+    }
 
-        boolean removed = false;
+    /**
+     * Gives the selected elements the width and/or height of the primary
+     * selected element, as one undoable step.
+     */
+    public void matchSelectionSize(boolean matchWidth, boolean matchHeight) {
+        com.jasperstudio.model.ElementModel anchor = selectionModel.getPrimary();
+        if (anchor == null || selectionModel.size() < 2 || (!matchWidth && !matchHeight))
+            return;
 
-        // 1. Check Bands
-        for (com.jasperstudio.model.BandModel band : getDesign().getBands()) {
-            if (band.getElements().contains(selected)) {
-                band.removeElement(selected);
-                removed = true;
-                break;
+        java.util.List<com.jasperstudio.descriptor.Command> resizes = new java.util.ArrayList<>(
+                selectionModel.size());
+        for (com.jasperstudio.model.ElementModel element : selectionModel.getElements()) {
+            if (element == anchor)
+                continue;
+            int x = (int) element.getX();
+            int y = (int) element.getY();
+            int w = (int) element.getWidth();
+            int h = (int) element.getHeight();
+            int newW = matchWidth ? (int) anchor.getWidth() : w;
+            int newH = matchHeight ? (int) anchor.getHeight() : h;
+            if (newW != w || newH != h) {
+                resizes.add(new com.jasperstudio.descriptor.ResizeElementCommand(element, x, y, w, h, x, y, newW,
+                        newH));
             }
         }
+        executeBatch("Match Size", resizes);
+    }
 
-        // 2. Check Recursive Frames
-        if (!removed) {
-            net.sf.jasperreports.engine.JRElementGroup parent = findParentFrame(getDesign().getDesign().getTitle(),
-                    selected.getElement());
-            if (parent instanceof net.sf.jasperreports.engine.design.JRDesignElementGroup) {
-                ((net.sf.jasperreports.engine.design.JRDesignElementGroup) parent).removeElement(selected.getElement());
-                removed = true;
-                // Force sync/refresh for now as we don't have deep model events yet
-                getDesign().sync();
-            } else if (parent instanceof net.sf.jasperreports.engine.design.JRDesignFrame) {
-                ((net.sf.jasperreports.engine.design.JRDesignFrame) parent).removeElement(selected.getElement());
-                removed = true;
-                getDesign().sync();
+    /**
+     * The selected elements without those inside a selected frame, which
+     * move, copy and delete along with the frame.
+     */
+    public java.util.List<com.jasperstudio.model.ElementModel> getSelectedRoots() {
+        java.util.Set<net.sf.jasperreports.engine.JRElementGroup> selectedFrames = java.util.Collections
+                .newSetFromMap(new java.util.IdentityHashMap<>());
+        for (com.jasperstudio.model.ElementModel element : selectionModel.getElements()) {
+            if (element.getElement() instanceof net.sf.jasperreports.engine.design.JRDesignFrame frame) {
+                selectedFrames.add(frame);
             }
         }
 
-        if (removed) {
-            clearSelection();
-            logger.info("Deleted selection: {}", selected);
-        } else {
-            logger.warn("Could not find parent band for selection to delete: {}", selected);
+        java.util.List<com.jasperstudio.model.ElementModel> roots = new java.util.ArrayList<>(selectionModel.size());
+        for (com.jasperstudio.model.ElementModel element : selectionModel.getElements()) {
+            boolean nested = false;
+            com.jasperstudio.model.ElementLocation location = selectedFrames.isEmpty() ? null
+                    : locate(element.getElement());
+            while (!nested && location != null
+                    && location.container() instanceof net.sf.jasperreports.engine.design.JRDesignFrame frame) {
+                nested = selectedFrames.contains(frame);
+                location = locate(frame);
+            }
+            if (!nested) {
+                roots.add(element);
+            }
         }
+        return roots;
     }
 
-    public void selectAll() {
-        logger.info("Select All triggered (Multi-selection not yet supported)");
+    /**
+     * Runs the commands in one transaction, so a bulk operation is undone in
+     * a single step and observers hear about it once.
+     */
+    private void executeBatch(String name, java.util.List<com.jasperstudio.descriptor.Command> commands) {
+        if (commands.isEmpty())
+            return;
+        runTransaction(name, () -> {
+            for (com.jasperstudio.descriptor.Command command : commands) {
+                historyManager.execute(command);
+            }
+        });
     }
 
     public void copy() {
-        com.jasperstudio.model.ElementModel selected = getSelectedElement();
-        if (selected == null)
+        if (selectionModel.isEmpty())
             return;
 
         try {
-            this.internalClipboard = jrxmlService.serializeElement(selected.getElement());
-            logger.info("Copied element to clipboard");
+            java.util.List<net.sf.jasperreports.engine.design.JRDesignElement> elements = new java.util.ArrayList<>();
+            for (com.jasperstudio.model.ElementModel element : getSelectedRoots()) {
+                elements.add(element.getElement());
+            }
+            this.internalClipboard = jrxmlService.serializeElements(elements);
+            logger.info("Copied {} element(s) to clipboard", elements.size());
         } catch (Exception e) {
             logError("Failed to copy element", e);
         }
@@ -859,59 +1180,74 @@ public class DesignerEngine {
         deleteSelection();
     }
 
+    /**
+     * Gives a pasted element, and everything inside it if it is a frame, new
+     * UUIDs, so the copies never share a UUID with the originals.
+     */
+    private static void assignNewUuids(net.sf.jasperreports.engine.design.JRDesignElement element) {
+        element.setUUID(java.util.UUID.randomUUID());
+        if (element instanceof net.sf.jasperreports.engine.design.JRDesignFrame frame) {
+            for (net.sf.jasperreports.engine.JRChild child : frame.getChildren()) {
+                if (child instanceof net.sf.jasperreports.engine.design.JRDesignElement nested) {
+                    assignNewUuids(nested);
+                }
+            }
+        }
+    }
+
     public void paste() {
-        if (this.internalClipboard == null)
+        if (this.internalClipboard == null || getDesign() == null)
             return;
 
         try {
-            net.sf.jasperreports.engine.design.JRDesignElement newElement = jrxmlService
-                    .deserializeElement(this.internalClipboard);
-            if (newElement != null) {
-                // Offset
-                newElement.setX(newElement.getX() + 10);
-                newElement.setY(newElement.getY() + 10);
-                newElement.setUUID(java.util.UUID.randomUUID());
-
-                // Add to current band or parent of original selection?
-                // Logic: If selection exists, try to add to its parent. Else add to Detail or
-                // Title.
-                // Simple logic: Add to Detail if exists, else Title.
-                // Better: Get currently selected band? We don't track "selected band"
-                // explicitly well yet,
-                // but we can default to Title or find the band of the currently selected
-                // element.
-
-                com.jasperstudio.model.BandModel targetBand = null;
-                com.jasperstudio.model.ElementModel selected = getSelectedElement();
-
-                if (selected != null) {
-                    // Find generic parent band of selection
-                    for (com.jasperstudio.model.BandModel b : getDesign().getBands()) {
-                        if (b.getElements().contains(selected)) {
-                            targetBand = b;
-                            break;
-                        }
-                    }
-                }
+            java.util.List<net.sf.jasperreports.engine.design.JRDesignElement> newElements = jrxmlService
+                    .deserializeElements(this.internalClipboard);
+            if (newElements.isEmpty())
+                return;
+
+            // Paste into the band of the current selection, else Detail or Title
+            com.jasperstudio.model.BandModel targetBand = null;
+            com.jasperstudio.model.ElementModel selected = getSelectedElement();
 
-                if (targetBand == null) {
-                    // Default to Detail or Title
-                    if (getDesign().getBand("Detail") != null)
-                        targetBand = getDesign().getBand("Detail");
-                    else
-                        targetBand = getDesign().getBand("Title");
+            if (selected != null) {
+                com.jasperstudio.model.ElementLocation location = locate(selected.getElement());
+                if (location != null) {
+                    targetBand = location.band();
                 }
+            }
 
-                if (targetBand != null) {
-                    com.jasperstudio.model.ElementModel model = new com.jasperstudio.model.ElementModel(newElement);
-                    targetBand.addElement(model);
-                    // Ensure band height accommodates
-                    if (newElement.getY() + newElement.getHeight() > targetBand.getHeight()) {
-                        targetBand.setHeight(newElement.getY() + newElement.getHeight());
-                    }
-                    setSelection(model);
-                    logger.info("Pasted element");
+            if (targetBand == null) {
+                if (getDesign().getBand("Detail") != null)
+                    targetBand = getDesign().getBand("Detail");
+                else
+                    targetBand = getDesign().getBand("Title");
+            }
+
+            if (targetBand != null) {
+                java.util.List<com.jasperstudio.descriptor.Command> additions = new java.util.ArrayList<>();
+                java.util.List<com.jasperstudio.model.ElementModel> pasted = new java.util.ArrayList<>();
+                int requiredHeight = targetBand.getHeight();
+                for (net.sf.jasperreports.engine.design.JRDesignElement newElement : newElements) {
+                    // Offset
+                    newElement.setX(newElement.getX() + 10);
+                    newElement.setY(newElement.getY() + 10);
+                    assignNewUuids(newElement);
+
+                    com.jasperstudio.model.ElementModel model = com.jasperstudio.model.ElementModel.of(newElement);
+                    additions.add(new com.jasperstudio.descriptor.AddElementCommand(getDesign(), targetBand,
+                            targetBand.getBand(), model));
+                    pasted.add(model);
+                    requiredHeight = Math.max(requiredHeight, newElement.getY() + newElement.getHeight());
+                }
+                // Ensure band height accommodates
+                if (requiredHeight > targetBand.getHeight()) {
+                    com.jasperstudio.model.BandModel band = targetBand;
+                    additions.add(new com.jasperstudio.descriptor.ChangePropertyCommand<>("Band Height",
+                            band.getHeight(), requiredHeight, band::setHeight));
                 }
+                executeBatch(pasted.size() == 1 ? "Paste Element" : "Paste Elements", additions);
+                selectionModel.setAll(pasted);
+                logger.info("Pasted {} element(s)", pasted.size());
             }
         } catch (Exception e) {
             logError("Failed to paste element", e);
@@ -0,0 +1,178 @@
+package com.jasperstudio.designer;
+
+import com.jasperstudio.adapter.CsvDataAdapter;
+import com.jasperstudio.adapter.DataAdapter;
+import com.jasperstudio.adapter.JdbcDataAdapter;
+import com.jasperstudio.adapter.JsonDataAdapter;
+import com.jasperstudio.integration.DataSampler;
+import com.jasperstudio.integration.FillSession;
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JREmptyDataSource;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JRQuery;
+import net.sf.jasperreports.engine.JRQueryChunk;
+import net.sf.jasperreports.engine.JRResultSetDataSource;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.data.JRCsvDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Starts preview fills against a {@link DataAdapter}, optionally limited to a
+ * number of rows.
+ * <p>
+ * With {@link DataSampler.Mode#FIRST_ROWS} the filler stops after the limit
+ * ({@link JRParameter#REPORT_MAX_COUNT}), so only that many rows are read. With
+ * {@link DataSampler.Mode#RANDOM_SAMPLE} the source is scanned once and a
+ * bounded sample is filled instead. Connections and files opened here are
+ * closed when the fill ends.
+ */
+class PreviewFillLauncher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PreviewFillLauncher.class);
+
+    private PreviewFillLauncher() {
+    }
+
+    /**
+     * @param adapter  data adapter to fill from, or {@code null} for a single
+     *                 empty record
+     * @param rowLimit maximum number of rows, or 0 for no limit
+     */
+    static FillSession start(JasperReport report, Map<String, Object> parameters, DataAdapter adapter,
+            int rowLimit, DataSampler.Mode mode, FillSession.Listener listener) throws Exception {
+        boolean sample = rowLimit > 0 && mode == DataSampler.Mode.RANDOM_SAMPLE;
+        if (rowLimit > 0 && !sample) {
+            parameters.put(JRParameter.REPORT_MAX_COUNT, rowLimit);
+        }
+
+        List<AutoCloseable> resources = new ArrayList<>();
+        try {
+            if (adapter instanceof JdbcDataAdapter jdbc) {
+                Connection connection = jdbc.getConnection();
+                resources.add(connection);
+                if (sample) {
+                    String sql = plainSql(report.getQuery());
+                    if (sql != null) {
+                        JRDataSource sampled = sampleQuery(connection, sql, report, rowLimit);
+                        closeAll(resources);
+                        return FillSession.start(report, parameters, sampled, listener);
+                    }
+                    // Parameterized queries are only run by the filler; fall back to a row cap
+                    logger.info("Query uses parameters, previewing the first {} rows instead of a sample", rowLimit);
+                    parameters.put(JRParameter.REPORT_MAX_COUNT, rowLimit);
+                }
+                return FillSession.start(report, parameters, connection, closing(listener, resources));
+            }
+
+            JRDataSource dataSource;
+            if (adapter instanceof CsvDataAdapter csv) {
+                JRCsvDataSource csvSource = csv.createDataSource();
+                resources.add(csvSource::close);
+                dataSource = csvSource;
+            } else if (adapter instanceof JsonDataAdapter json) {
+                JRQuery query = report.getQuery();
+                dataSource = json.createDataSource(query != null ? query.getText() : null);
+            } else {
+                if (adapter != null) {
+                    logger.warn("Unsupported data adapter type {}, previewing without data", adapter.getType());
+                }
+                dataSource = new JREmptyDataSource();
+            }
+
+            if (sample) {
+                dataSource = DataSampler.randomSample(dataSource, report.getFields(), rowLimit, new Random());
+                closeAll(resources);
+            }
+            return FillSession.start(report, parameters, dataSource, closing(listener, resources));
+        } catch (Exception e) {
+            closeAll(resources);
+            throw e;
+        }
+    }
+
+    private static JRDataSource sampleQuery(Connection connection, String sql, JasperReport report, int rowLimit)
+            throws Exception {
+        try (Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(500);
+            try (ResultSet resultSet = statement.executeQuery(sql)) {
+                return DataSampler.randomSample(new JRResultSetDataSource(resultSet), report.getFields(), rowLimit,
+                        new Random());
+            }
+        }
+    }
+
+    /**
+     * Returns the query text if it contains no parameter chunks, otherwise
+     * {@code null}.
+     */
+    private static String plainSql(JRQuery query) {
+        if (query == null || query.getChunks() == null) {
+            return null;
+        }
+        StringBuilder sql = new StringBuilder();
+        for (JRQueryChunk chunk : query.getChunks()) {
+            if (chunk.getType() != JRQueryChunk.TYPE_TEXT) {
+                return null;
+            }
+            sql.append(chunk.getText());
+        }
+        return sql.toString().isBlank() ? null : sql.toString();
+    }
+
+    private static FillSession.Listener closing(FillSession.Listener delegate, List<AutoCloseable> resources) {
+        if (resources.isEmpty()) {
+            return delegate;
+        }
+        return new FillSession.Listener() {
+            @Override
+            public void pageGenerated(JasperPrint print, int pageIndex) {
+                delegate.pageGenerated(print, pageIndex);
+            }
+
+            @Override
+            public void pageUpdated(JasperPrint print, int pageIndex) {
+                delegate.pageUpdated(print, pageIndex);
+            }
+
+            @Override
+            public void finished(JasperPrint print) {
+                closeAll(resources);
+                delegate.finished(print);
+            }
+
+            @Override
+            public void cancelled() {
+                closeAll(resources);
+                delegate.cancelled();
+            }
+
+            @Override
+            public void failed(Throwable error) {
+                closeAll(resources);
+                delegate.failed(error);
+            }
+        };
+    }
+
+    private static void closeAll(List<AutoCloseable> resources) {
+        for (AutoCloseable resource : resources) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                logger.debug("Failed to close preview data resource", e);
+            }
+        }
+        resources.clear();
+    }
+}
@@ -0,0 +1,143 @@
+package com.jasperstudio.designer;
+
+import com.jasperstudio.model.ElementModel;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The elements selected in the designer, in selection order.
+ * <p>
+ * Every method changes the list with a single list change, so selecting all
+ * elements of a large design notifies listeners once rather than once per
+ * element. Membership is kept in an identity set, making {@link #contains}
+ * O(1). The last selected element is the primary one; it is what the
+ * properties panel shows and what alignment and size matching refer to.
+ */
+public class SelectionModel {
+
+    private final ObservableList<ElementModel> elements = FXCollections.observableArrayList();
+    private final ObservableList<ElementModel> readOnlyElements = FXCollections.unmodifiableObservableList(elements);
+    private final Set<ElementModel> members = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final ReadOnlyObjectWrapper<ElementModel> primary = new ReadOnlyObjectWrapper<>();
+
+    public ObservableList<ElementModel> getElements() {
+        return readOnlyElements;
+    }
+
+    public ReadOnlyObjectProperty<ElementModel> primaryProperty() {
+        return primary.getReadOnlyProperty();
+    }
+
+    public ElementModel getPrimary() {
+        return primary.get();
+    }
+
+    public boolean contains(ElementModel element) {
+        return members.contains(element);
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    public boolean isEmpty() {
+        return elements.isEmpty();
+    }
+
+    /**
+     * Replaces the selection with a single element.
+     */
+    public void select(ElementModel element) {
+        setAll(List.of(element));
+    }
+
+    /**
+     * Replaces the selection; duplicates are dropped and the last element
+     * becomes the primary one.
+     */
+    public void setAll(Collection<? extends ElementModel> selected) {
+        Set<ElementModel> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ElementModel> unique = new ArrayList<>(selected.size());
+        for (ElementModel element : selected) {
+            if (element != null && seen.add(element)) {
+                unique.add(element);
+            }
+        }
+        members.clear();
+        members.addAll(seen);
+        elements.setAll(unique);
+        updatePrimary();
+    }
+
+    /**
+     * Adds an element and makes it the primary one.
+     */
+    public void add(ElementModel element) {
+        if (members.add(element)) {
+            elements.add(element);
+        } else if (element != getPrimary()) {
+            List<ElementModel> reordered = new ArrayList<>(elements);
+            reordered.remove(element);
+            reordered.add(element);
+            elements.setAll(reordered);
+        }
+        updatePrimary();
+    }
+
+    public void remove(ElementModel element) {
+        if (members.remove(element)) {
+            elements.remove(element);
+            updatePrimary();
+        }
+    }
+
+    /**
+     * Removes the element if selected and adds it otherwise, as for a
+     * modifier click.
+     */
+    public void toggle(ElementModel element) {
+        if (contains(element)) {
+            remove(element);
+        } else {
+            add(element);
+        }
+    }
+
+    /**
+     * Drops the elements the filter rejects, e.g. those no longer in the
+     * design, with one change.
+     */
+    public void retain(Predicate<ElementModel> filter) {
+        List<ElementModel> kept = new ArrayList<>(elements.size());
+        for (ElementModel element : elements) {
+            if (filter.test(element)) {
+                kept.add(element);
+            }
+        }
+        if (kept.size() != elements.size()) {
+            setAll(kept);
+        }
+    }
+
+    public void clear() {
+        if (!elements.isEmpty()) {
+            members.clear();
+            elements.clear();
+        }
+        updatePrimary();
+    }
+
+    private void updatePrimary() {
+        primary.set(elements.isEmpty() ? null : elements.get(elements.size() - 1));
+    }
+}
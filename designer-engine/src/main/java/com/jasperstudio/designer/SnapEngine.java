@@ -0,0 +1,183 @@
+package com.jasperstudio.designer;
+
+import com.jasperstudio.model.BandModel;
+import com.jasperstudio.model.ElementModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Alignment snapping for one drag gesture inside a band.
+ * <p>
+ * On creation the left, centre and right x positions and the top, middle and
+ * bottom y positions of the band's other elements (snap to geometry) and of
+ * the band itself (snap to guides) are sorted once. Each {@link #snap} call
+ * then binary-searches those arrays for the nearest candidate of the moving
+ * element's three edges on each axis, so a drag event costs O(log n)
+ * regardless of how many elements the band holds.
+ */
+public class SnapEngine {
+
+    /**
+     * An alignment line to draw, in band coordinates. A vertical guide sits at
+     * x = {@code position} and runs from {@code start} to {@code end} in y.
+     */
+    public record Guide(boolean vertical, double position, double start, double end) {
+    }
+
+    /**
+     * Snapped position. An axis with no candidate in tolerance keeps the
+     * requested value and reports {@code false}, so the caller can fall back
+     * to the grid.
+     */
+    public record Snap(double x, boolean snappedX, double y, boolean snappedY, List<Guide> guides) {
+    }
+
+    /**
+     * Sorted edge positions with the extent, on the other axis, of the
+     * element each came from.
+     */
+    private static final class EdgeArray {
+        final double[] positions;
+        final double[] spanStart;
+        final double[] spanEnd;
+
+        EdgeArray(List<double[]> edges) {
+            double[][] sorted = edges.toArray(new double[0][]);
+            Arrays.sort(sorted, (a, b) -> Double.compare(a[0], b[0]));
+            positions = new double[sorted.length];
+            spanStart = new double[sorted.length];
+            spanEnd = new double[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                positions[i] = sorted[i][0];
+                spanStart[i] = sorted[i][1];
+                spanEnd[i] = sorted[i][2];
+            }
+        }
+
+        /**
+         * @return index of the position closest to value, or -1 if the array
+         *         is empty
+         */
+        int nearest(double value) {
+            if (positions.length == 0) {
+                return -1;
+            }
+            int i = Arrays.binarySearch(positions, value);
+            if (i >= 0) {
+                return i;
+            }
+            int insertion = -i - 1;
+            if (insertion == 0) {
+                return 0;
+            }
+            if (insertion == positions.length) {
+                return positions.length - 1;
+            }
+            return value - positions[insertion - 1] <= positions[insertion] - value ? insertion - 1 : insertion;
+        }
+    }
+
+    private final EdgeArray xEdges;
+    private final EdgeArray yEdges;
+    private final double tolerance;
+
+    /**
+     * @param band       band the elements move in
+     * @param moving     elements being dragged; they never snap to themselves
+     * @param bandWidth  width of the band in design units
+     * @param toGeometry snap to the edges and centres of other elements
+     * @param toGuides   snap to the band's edges and centre lines
+     * @param tolerance  maximum snap distance in design units
+     */
+    public SnapEngine(BandModel band, Collection<ElementModel> moving, double bandWidth, boolean toGeometry,
+            boolean toGuides, double tolerance) {
+        this.tolerance = tolerance;
+        Set<ElementModel> skip = Collections.newSetFromMap(new IdentityHashMap<>());
+        skip.addAll(moving);
+
+        List<double[]> xs = new ArrayList<>();
+        List<double[]> ys = new ArrayList<>();
+        if (toGeometry) {
+            for (ElementModel e : band.getElements()) {
+                if (skip.contains(e)) {
+                    continue;
+                }
+                double left = e.getX();
+                double top = e.getY();
+                double right = left + e.getWidth();
+                double bottom = top + e.getHeight();
+                xs.add(new double[] { left, top, bottom });
+                xs.add(new double[] { (left + right) / 2, top, bottom });
+                xs.add(new double[] { right, top, bottom });
+                ys.add(new double[] { top, left, right });
+                ys.add(new double[] { (top + bottom) / 2, left, right });
+                ys.add(new double[] { bottom, left, right });
+            }
+        }
+        if (toGuides) {
+            double height = band.getHeight();
+            xs.add(new double[] { 0, 0, height });
+            xs.add(new double[] { bandWidth / 2, 0, height });
+            xs.add(new double[] { bandWidth, 0, height });
+            ys.add(new double[] { 0, 0, bandWidth });
+            ys.add(new double[] { height / 2, 0, bandWidth });
+            ys.add(new double[] { height, 0, bandWidth });
+        }
+        xEdges = new EdgeArray(xs);
+        yEdges = new EdgeArray(ys);
+    }
+
+    /**
+     * Snaps a box of the given size whose top-left is requested at (x, y).
+     */
+    public Snap snap(double x, double y, double width, double height) {
+        int[] xMatch = match(xEdges, x, width);
+        int[] yMatch = match(yEdges, y, height);
+
+        double snappedX = xMatch != null ? xEdges.positions[xMatch[0]] - xMatch[1] * width / 2 : x;
+        double snappedY = yMatch != null ? yEdges.positions[yMatch[0]] - yMatch[1] * height / 2 : y;
+
+        List<Guide> guides = new ArrayList<>(2);
+        if (xMatch != null) {
+            int i = xMatch[0];
+            guides.add(new Guide(true, xEdges.positions[i], Math.min(xEdges.spanStart[i], snappedY),
+                    Math.max(xEdges.spanEnd[i], snappedY + height)));
+        }
+        if (yMatch != null) {
+            int i = yMatch[0];
+            guides.add(new Guide(false, yEdges.positions[i], Math.min(yEdges.spanStart[i], snappedX),
+                    Math.max(yEdges.spanEnd[i], snappedX + width)));
+        }
+        return new Snap(snappedX, xMatch != null, snappedY, yMatch != null, guides);
+    }
+
+    /**
+     * Finds the closest candidate for the start, centre and end of a span.
+     *
+     * @return {edge index, which of the span's points matched (0 start, 1
+     *         centre, 2 end)}, or {@code null} if none is in tolerance
+     */
+    private int[] match(EdgeArray edges, double start, double length) {
+        int[] best = null;
+        double bestDistance = tolerance;
+        for (int point = 0; point < 3; point++) {
+            double value = start + point * length / 2;
+            int i = edges.nearest(value);
+            if (i < 0) {
+                return null;
+            }
+            double distance = Math.abs(edges.positions[i] - value);
+            if (distance <= bestDistance) {
+                bestDistance = distance;
+                best = new int[] { i, point };
+            }
+        }
+        return best;
+    }
+}
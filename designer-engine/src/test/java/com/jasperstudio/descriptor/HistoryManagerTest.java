@@ -0,0 +1,66 @@
+package com.jasperstudio.descriptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistoryManagerTest {
+
+    private final List<String> values = new ArrayList<>(List.of("a", "b", "c"));
+
+    private Command set(int index, String value) {
+        return new ChangePropertyCommand<>("Value", values.get(index), value, v -> values.set(index, v));
+    }
+
+    @Test
+    public void testCommitPushesOneEntryAndNotifiesOnce() {
+        HistoryManager history = new HistoryManager();
+        List<Boolean> canUndoChanges = new ArrayList<>();
+        history.canUndoProperty().addListener((obs, old, v) -> canUndoChanges.add(v));
+
+        history.beginTransaction("Edit All");
+        history.execute(set(0, "x"));
+        history.execute(set(1, "y"));
+        // Nested transactions add to the enclosing one
+        history.beginTransaction("Inner");
+        history.execute(set(2, "z"));
+        history.commit();
+        assertTrue(canUndoChanges.isEmpty());
+        assertEquals(List.of("x", "y", "z"), values);
+
+        history.commit();
+        assertEquals(List.of(true), canUndoChanges);
+
+        history.undo();
+        assertEquals(List.of("a", "b", "c"), values);
+        assertFalse(history.canUndoProperty().get());
+
+        history.redo();
+        assertEquals(List.of("x", "y", "z"), values);
+    }
+
+    @Test
+    public void testRollbackUndoesOnlyItsOwnCommands() {
+        HistoryManager history = new HistoryManager();
+        history.beginTransaction("Outer");
+        history.execute(set(0, "x"));
+        history.beginTransaction("Inner");
+        history.execute(set(1, "y"));
+        history.execute(set(1, "w"));
+        history.rollback();
+        assertEquals(List.of("x", "b", "c"), values);
+
+        history.commit();
+        assertTrue(history.canUndoProperty().get());
+        history.undo();
+        assertEquals(List.of("a", "b", "c"), values);
+
+        history.beginTransaction("Empty");
+        history.commit();
+        assertFalse(history.canUndoProperty().get());
+        assertThrows(IllegalStateException.class, history::commit);
+    }
+}
@@ -0,0 +1,147 @@
+package com.jasperstudio.designer;
+
+import com.jasperstudio.model.BandModel;
+import com.jasperstudio.model.DesignChangeEvent;
+import com.jasperstudio.model.DesignChangeListener;
+import com.jasperstudio.model.ElementModel;
+import com.jasperstudio.model.FrameModel;
+import net.sf.jasperreports.engine.design.JRDesignFrame;
+import net.sf.jasperreports.engine.design.JRDesignStaticText;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DesignerEngineSelectionTest {
+
+    private DesignerEngine engineWithElements(int count) {
+        DesignerEngine engine = new DesignerEngine();
+        BandModel title = engine.getDesign().getBand("Title");
+        for (int i = 0; i < count; i++) {
+            engine.handleDrop("STATIC_TEXT", i * 10, i, title);
+        }
+        return engine;
+    }
+
+    @Test
+    public void testBulkMoveIsOneUndoStep() {
+        DesignerEngine engine = engineWithElements(3);
+        engine.selectAll();
+        SelectionModel selection = engine.getSelectionModel();
+        assertEquals(3, selection.size());
+        assertSame(selection.getPrimary(), engine.getSelection());
+
+        List<Integer> changes = new ArrayList<>();
+        selection.getElements().addListener((javafx.collections.ListChangeListener<ElementModel>) c -> {
+            while (c.next()) {
+                changes.add(c.getAddedSize());
+            }
+        });
+        engine.getSelectionModel().setAll(List.copyOf(selection.getElements()));
+        assertEquals(List.of(3), changes);
+
+        engine.moveSelection(5, 7);
+        assertEquals(5, (int) selection.getElements().get(0).getX());
+        assertEquals(25, (int) selection.getElements().get(2).getX());
+        assertEquals(9, (int) selection.getElements().get(2).getY());
+
+        engine.undo();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i * 10, (int) selection.getElements().get(i).getX());
+        }
+        assertFalse(engine.getHistoryManager().canUndoProperty().get());
+    }
+
+    @Test
+    public void testBulkDeleteAndAlign() {
+        DesignerEngine engine = engineWithElements(4);
+        BandModel title = engine.getDesign().getBand("Title");
+        engine.selectAll();
+        engine.alignSelection(DesignerEngine.Alignment.LEFT);
+        ElementModel anchor = engine.getSelectionModel().getPrimary();
+        for (ElementModel element : title.getElements()) {
+            assertEquals(anchor.getX(), element.getX());
+        }
+
+        engine.deleteSelection();
+        assertTrue(title.getElements().isEmpty());
+        assertTrue(engine.getSelectionModel().isEmpty());
+        assertNull(engine.getSelection());
+
+        // The undo is one update: one band list change, one batch of design events
+        List<Integer> listChanges = new ArrayList<>();
+        title.getElements().addListener((javafx.collections.ListChangeListener<ElementModel>) c -> listChanges.add(1));
+        List<Integer> batches = new ArrayList<>();
+        engine.getDesign().addDesignChangeListener(new DesignChangeListener() {
+            @Override
+            public void designChanged(DesignChangeEvent event) {
+                batches.add(1);
+            }
+
+            @Override
+            public void designChanged(List<DesignChangeEvent> events) {
+                batches.add(events.size());
+            }
+        });
+        engine.undo();
+        assertEquals(1, listChanges.size());
+        assertEquals(List.of(4), batches);
+        assertEquals(4, title.getElements().size());
+        assertNotNull(engine.getDesign().locate(anchor.getElement()));
+
+        // Undoing the alignment leaves the earlier elements where they were
+        engine.undo();
+        assertEquals(0, (int) title.getElements().get(0).getX());
+    }
+
+    @Test
+    public void testToggleKeepsPrimaryAsSelection() {
+        DesignerEngine engine = engineWithElements(2);
+        List<ElementModel> elements = List.copyOf(engine.getDesign().getBand("Title").getElements());
+        SelectionModel selection = engine.getSelectionModel();
+
+        engine.setSelection(elements.get(0));
+        selection.toggle(elements.get(1));
+        assertEquals(2, selection.size());
+        assertSame(elements.get(1), engine.getSelection());
+
+        selection.toggle(elements.get(1));
+        assertSame(elements.get(0), engine.getSelection());
+
+        engine.setSelection(engine.getDesign().getBand("Title"));
+        assertTrue(selection.isEmpty());
+        assertSame(engine.getDesign().getBand("Title"), engine.getSelection());
+    }
+
+    @Test
+    public void testPasteRenewsNestedUuidsAndNotifiesBandOnce() {
+        DesignerEngine engine = engineWithElements(2);
+        BandModel title = engine.getDesign().getBand("Title");
+        JRDesignFrame frame = new JRDesignFrame();
+        frame.setWidth(100);
+        frame.setHeight(20);
+        JRDesignStaticText nested = new JRDesignStaticText();
+        nested.setWidth(50);
+        nested.setHeight(10);
+        frame.addElement(nested);
+        engine.getDesign().addElement(title, title.getBand(), ElementModel.of(frame));
+
+        engine.selectAll();
+        engine.copy();
+        List<Integer> notifications = new ArrayList<>();
+        title.getElements().addListener((javafx.collections.ListChangeListener<ElementModel>) c -> notifications.add(1));
+        engine.paste();
+
+        assertEquals(1, notifications.size());
+        assertEquals(6, title.getElements().size());
+        FrameModel pasted = (FrameModel) engine.getSelectionModel().getPrimary();
+        ElementModel pastedChild = pasted.getChildren().get(0);
+        assertNotEquals(frame.getUUID(), pasted.getElement().getUUID());
+        assertNotEquals(nested.getUUID(), pastedChild.getElement().getUUID());
+        // Both copies stay resolvable next to their originals
+        assertSame(nested, engine.getDesign().findElement(nested.getUUID().toString()).getElement());
+        assertSame(pastedChild, engine.getDesign().findElement(pastedChild.getId()));
+    }
+}
@@ -0,0 +1,108 @@
+package com.jasperstudio.designer;
+
+import com.jasperstudio.model.BandModel;
+import com.jasperstudio.model.ElementModel;
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JRDesignStaticText;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapEngineTest {
+
+    private ElementModel element(int x, int y, int width, int height) {
+        JRDesignStaticText text = new JRDesignStaticText();
+        text.setX(x);
+        text.setY(y);
+        text.setWidth(width);
+        text.setHeight(height);
+        return new ElementModel(text);
+    }
+
+    private BandModel band(ElementModel... elements) {
+        JRDesignBand jrBand = new JRDesignBand();
+        jrBand.setHeight(100);
+        BandModel band = new BandModel("Detail", jrBand);
+        for (ElementModel element : elements) {
+            band.addElement(element);
+        }
+        return band;
+    }
+
+    @Test
+    public void testSnapsEdgeToEdge() {
+        // Other element spans x 100..150 and y 20..50
+        ElementModel other = element(100, 20, 50, 30);
+        SnapEngine engine = new SnapEngine(band(other), List.of(), 500, true, false, 5);
+
+        SnapEngine.Snap snap = engine.snap(152, 70, 40, 10);
+
+        assertTrue(snap.snappedX());
+        assertEquals(150, snap.x());
+        assertEquals(1, snap.guides().size());
+        SnapEngine.Guide guide = snap.guides().get(0);
+        assertTrue(guide.vertical());
+        assertEquals(150, guide.position());
+        assertEquals(20, guide.start());
+        assertEquals(80, guide.end());
+    }
+
+    @Test
+    public void testSnapsCentreToCentre() {
+        ElementModel other = element(100, 20, 50, 30);
+        SnapEngine engine = new SnapEngine(band(other), List.of(), 500, true, false, 5);
+
+        // Centre 127 is 2 from the other's centre 125; the edges are further off
+        SnapEngine.Snap snap = engine.snap(117, 33, 20, 6);
+
+        assertEquals(115, snap.x());
+        assertTrue(snap.snappedX());
+        // Middle 36 is 1 from the other's middle 35
+        assertEquals(32, snap.y());
+        assertTrue(snap.snappedY());
+        assertEquals(2, snap.guides().size());
+    }
+
+    @Test
+    public void testToleranceIsInclusive() {
+        ElementModel other = element(100, 20, 50, 30);
+        SnapEngine engine = new SnapEngine(band(other), List.of(), 500, true, false, 5);
+
+        assertEquals(150, engine.snap(155, 70, 40, 10).x());
+
+        SnapEngine.Snap outside = engine.snap(155.5, 70, 40, 10);
+        assertFalse(outside.snappedX());
+        assertEquals(155.5, outside.x());
+    }
+
+    @Test
+    public void testUnsnappedAxisKeepsRequestedValueForGrid() {
+        ElementModel other = element(100, 20, 50, 30);
+        SnapEngine engine = new SnapEngine(band(other), List.of(), 500, true, false, 5);
+
+        SnapEngine.Snap snap = engine.snap(152, 70, 40, 10);
+
+        assertFalse(snap.snappedY());
+        assertEquals(70, snap.y());
+        assertTrue(snap.guides().stream().allMatch(SnapEngine.Guide::vertical));
+    }
+
+    @Test
+    public void testSnapsToBandGuidesAndSkipsMovingElements() {
+        ElementModel other = element(100, 20, 50, 30);
+        BandModel band = band(other);
+
+        SnapEngine guidesOnly = new SnapEngine(band, List.of(), 500, false, true, 5);
+        SnapEngine.Snap snap = guidesOnly.snap(488, 92, 10, 10);
+        assertEquals(490, snap.x());
+        assertEquals(90, snap.y());
+
+        SnapEngine selfOnly = new SnapEngine(band, List.of(other), 500, true, false, 5);
+        SnapEngine.Snap none = selfOnly.snap(101, 21, 50, 30);
+        assertFalse(none.snappedX());
+        assertFalse(none.snappedY());
+        assertTrue(none.guides().isEmpty());
+    }
+}
@@ -0,0 +1,228 @@
+package com.jasperstudio.integration;
+
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JREmptyDataSource;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless renderer that compiles, fills and exports many reports on a fixed
+ * number of worker threads.
+ * <p>
+ * Compilation goes through a {@link CompiledReportCache} and filling through
+ * {@link FillSession}, the same path Preview uses, so a template that renders
+ * in the studio renders the same way here. A job that exceeds its timeout has
+ * its fill cancelled and is reported as {@link RenderResult.Status#TIMED_OUT};
+ * an export that already started is allowed to finish.
+ */
+public class BatchRenderer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchRenderer.class);
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(5);
+
+    private final ExecutorService workers;
+    private final CompiledReportCache cache;
+    private final ConnectionProvider connectionProvider;
+    private final Duration defaultTimeout;
+    private final BatchStatistics statistics = new BatchStatistics();
+
+    public BatchRenderer(int workerCount, CompiledReportCache cache) {
+        this(workerCount, cache, null, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * @param workerCount        number of jobs processed concurrently
+     * @param cache              compiled template cache, may be shared
+     * @param connectionProvider connection source for query-based jobs whose
+     *                           parameters carry neither a data source nor a
+     *                           connection, or {@code null}
+     * @param defaultTimeout     timeout for jobs that do not set their own
+     */
+    public BatchRenderer(int workerCount, CompiledReportCache cache, ConnectionProvider connectionProvider,
+            Duration defaultTimeout) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("workerCount must be at least 1");
+        }
+        this.cache = cache;
+        this.connectionProvider = connectionProvider;
+        this.defaultTimeout = defaultTimeout;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread t = new Thread(r, "batch-render-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Queues a job. The future never completes exceptionally; failures are
+     * reported in the result.
+     */
+    public CompletableFuture<RenderResult> submit(RenderJob job) {
+        statistics.jobSubmitted();
+        long submittedAt = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            RenderResult result = render(job, submittedAt);
+            statistics.jobCompleted(result);
+            return result;
+        }, workers);
+    }
+
+    /**
+     * Renders all jobs and waits for them. Results are in job order.
+     */
+    public List<RenderResult> renderAll(Collection<RenderJob> jobs) {
+        List<CompletableFuture<RenderResult>> futures = new ArrayList<>(jobs.size());
+        for (RenderJob job : jobs) {
+            futures.add(submit(job));
+        }
+        List<RenderResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<RenderResult> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    public BatchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Stops accepting jobs and waits for queued ones to finish.
+     */
+    @Override
+    public void close() {
+        workers.shutdown();
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("Waiting for batch render jobs to finish...");
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private RenderResult render(RenderJob job, long submittedAt) {
+        long start = System.nanoTime();
+        Duration queued = Duration.ofNanos(start - submittedAt);
+        Duration timeout = job.timeout() != null ? job.timeout() : defaultTimeout;
+        long deadline = start + timeout.toNanos();
+
+        long compileEnd = start;
+        long fillEnd = start;
+        int pages = 0;
+        Connection connection = null;
+        try {
+            // An unchanged template is neither parsed nor hashed again
+            JasperReport report = cache.compile(job.template());
+            compileEnd = System.nanoTime();
+
+            Map<String, Object> parameters = new HashMap<>(job.parameters());
+            if (connectionProvider != null && report.getQuery() != null
+                    && !parameters.containsKey(JRParameter.REPORT_DATA_SOURCE)
+                    && !parameters.containsKey(JRParameter.REPORT_CONNECTION)) {
+                connection = connectionProvider.open();
+            }
+            JasperPrint print = fill(report, parameters, connection, deadline);
+            fillEnd = System.nanoTime();
+            pages = print.getPages().size();
+
+            Path output = job.output().toAbsolutePath();
+            ReportExporter.exportToFile(print, job.format(), output);
+
+            long end = System.nanoTime();
+            return new RenderResult(job.id(), RenderResult.Status.SUCCEEDED, output, pages, queued,
+                    Duration.ofNanos(compileEnd - start), Duration.ofNanos(fillEnd - compileEnd),
+                    Duration.ofNanos(end - fillEnd), Duration.ofNanos(end - start), null);
+        } catch (TimeoutException e) {
+            logger.warn("Render job {} timed out after {}", job.id(), timeout);
+            return failure(job, RenderResult.Status.TIMED_OUT, queued, start, compileEnd, e);
+        } catch (Throwable e) {
+            // Errors too (e.g. an exporter whose library is missing), so the future still completes normally
+            logger.warn("Render job {} failed", job.id(), e);
+            return failure(job, RenderResult.Status.FAILED, queued, start, compileEnd, e);
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.debug("Failed to close connection for job {}", job.id(), e);
+                }
+            }
+        }
+    }
+
+    private JasperPrint fill(JasperReport report, Map<String, Object> parameters, Connection connection,
+            long deadline) throws Exception {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new TimeoutException("Timed out before fill");
+        }
+
+        FillSession session;
+        Object dataSource = parameters.remove(JRParameter.REPORT_DATA_SOURCE);
+        Object suppliedConnection = parameters.get(JRParameter.REPORT_CONNECTION);
+        if (dataSource instanceof JRDataSource ds) {
+            session = FillSession.start(report, parameters, ds, FillSession.Listener.NONE);
+        } else if (connection != null) {
+            session = FillSession.start(report, parameters, connection, FillSession.Listener.NONE);
+        } else if (suppliedConnection instanceof Connection c) {
+            session = FillSession.start(report, parameters, c, FillSession.Listener.NONE);
+        } else {
+            session = FillSession.start(report, parameters, new JREmptyDataSource(), FillSession.Listener.NONE);
+        }
+
+        try {
+            return session.getResult().get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancelAndWait(session);
+            throw e;
+        } catch (InterruptedException e) {
+            cancelAndWait(session);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Cancels the fill and waits until the filler has stopped, so the caller
+     * can close the connection it was reading from.
+     */
+    private static void cancelAndWait(FillSession session) {
+        session.cancel();
+        // join() is not interruptible and the outcome is already known
+        session.getResult().handle((print, error) -> null).join();
+    }
+
+    private static RenderResult failure(RenderJob job, RenderResult.Status status, Duration queued, long start,
+            long compileEnd, Throwable error) {
+        long end = System.nanoTime();
+        return new RenderResult(job.id(), status, job.output(), 0, queued, Duration.ofNanos(compileEnd - start),
+                Duration.ZERO, Duration.ZERO, Duration.ofNanos(end - start), error);
+    }
+}
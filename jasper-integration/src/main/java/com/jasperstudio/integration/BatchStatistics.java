@@ -0,0 +1,84 @@
+package com.jasperstudio.integration;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Throughput and latency figures collected by a {@link BatchRenderer}.
+ * Latency is measured per job from the worker picking it up to completion.
+ */
+public class BatchStatistics {
+
+    /**
+     * Point-in-time view of the statistics.
+     *
+     * @param throughput completed jobs per second since the first submission
+     */
+    public record Snapshot(long submitted, long succeeded, long failed, long timedOut, double throughput,
+            Duration meanLatency, Duration p50Latency, Duration p95Latency, Duration maxLatency) {
+
+        public long completed() {
+            return succeeded + failed + timedOut;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%d/%d done (%d ok, %d failed, %d timed out), %.2f jobs/s, latency mean %d ms, p50 %d ms, p95 %d ms, max %d ms",
+                    completed(), submitted, succeeded, failed, timedOut, throughput, meanLatency.toMillis(),
+                    p50Latency.toMillis(), p95Latency.toMillis(), maxLatency.toMillis());
+        }
+    }
+
+    private long submitted;
+    private long succeeded;
+    private long failed;
+    private long timedOut;
+    private long firstSubmitNanos;
+    private long lastCompletionNanos;
+    // Latencies in nanos, grown on demand
+    private long[] latencies = new long[256];
+    private int latencyCount;
+
+    synchronized void jobSubmitted() {
+        if (submitted == 0)
+            firstSubmitNanos = System.nanoTime();
+        submitted++;
+    }
+
+    synchronized void jobCompleted(RenderResult result) {
+        switch (result.status()) {
+            case SUCCEEDED -> succeeded++;
+            case FAILED -> failed++;
+            case TIMED_OUT -> timedOut++;
+        }
+        if (latencyCount == latencies.length)
+            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+        latencies[latencyCount++] = result.elapsed().toNanos();
+        lastCompletionNanos = System.nanoTime();
+    }
+
+    public synchronized Snapshot snapshot() {
+        long completed = succeeded + failed + timedOut;
+        double seconds = completed == 0 ? 0 : (lastCompletionNanos - firstSubmitNanos) / 1e9;
+        double throughput = seconds > 0 ? completed / seconds : 0;
+
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long l : sorted)
+            sum += l;
+        long mean = sorted.length == 0 ? 0 : sum / sorted.length;
+
+        return new Snapshot(submitted, succeeded, failed, timedOut, throughput, Duration.ofNanos(mean),
+                Duration.ofNanos(percentile(sorted, 0.50)), Duration.ofNanos(percentile(sorted, 0.95)),
+                Duration.ofNanos(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0)
+            return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
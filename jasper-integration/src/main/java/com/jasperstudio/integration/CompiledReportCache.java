@@ -0,0 +1,251 @@
+package com.jasperstudio.integration;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.util.JRSaver;
+import net.sf.jasperreports.engine.xml.JRXmlLoader;
+import net.sf.jasperreports.engine.xml.JRXmlWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of compiled {@link JasperReport}s keyed by a content hash of the
+ * {@link JasperDesign}.
+ * <p>
+ * The in-memory tier is bounded and evicts the least recently used report. An
+ * optional disk tier keeps serialized {@code .jasper} files so that a design
+ * that was compiled before (even in an earlier session) is only deserialized.
+ * Concurrent requests for the same design share a single compilation.
+ */
+public class CompiledReportCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompiledReportCache.class);
+
+    private final int maxEntries;
+    private final Path diskDirectory;
+
+    private final Map<String, JasperReport> memory;
+    private final ConcurrentHashMap<String, CompletableFuture<JasperReport>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CompiledReportCache(int maxEntries) {
+        this(maxEntries, null);
+    }
+
+    /**
+     * @param maxEntries    maximum number of compiled reports kept in memory
+     * @param diskDirectory directory for the {@code .jasper} tier, or
+     *                      {@code null} to keep the cache in memory only
+     */
+    public CompiledReportCache(int maxEntries, Path diskDirectory) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.diskDirectory = diskDirectory;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JasperReport> eldest) {
+                return size() > CompiledReportCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the compiled form of the design, compiling it only if no report
+     * with the same content hash is cached.
+     */
+    public JasperReport compile(JasperDesign design) throws JRException {
+        String key = contentHash(design);
+
+        JasperReport cached = getFromMemory(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<JasperReport> pending = new CompletableFuture<>();
+        CompletableFuture<JasperReport> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            // Someone else is compiling the same content right now
+            hits.incrementAndGet();
+            return await(existing);
+        }
+
+        try {
+            // The previous compilation may have finished between the miss above and putIfAbsent
+            JasperReport report = getFromMemory(key);
+            if (report != null) {
+                hits.incrementAndGet();
+                pending.complete(report);
+                return report;
+            }
+            report = loadFromDisk(key);
+            if (report != null) {
+                diskHits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+                long start = System.nanoTime();
+                report = JasperCompileManager.compileReport(design);
+                logger.debug("Compiled '{}' in {} ms", design.getName(), (System.nanoTime() - start) / 1_000_000);
+                saveToDisk(key, report);
+            }
+            putInMemory(key, report);
+            pending.complete(report);
+            return report;
+        } catch (Throwable e) {
+            // Also for errors (e.g. a missing compiler class), or waiters would block forever
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    /**
+     * Returns the compiled form of a JRXML file. An unchanged file (same path
+     * and modification time) is served from memory without parsing or
+     * hashing it; otherwise it is loaded and goes through
+     * {@link #compile(JasperDesign)}, so identical content is still not
+     * recompiled. File entries share the memory tier's bound and LRU order.
+     */
+    public JasperReport compile(Path jrxml) throws JRException {
+        Path file = jrxml.toAbsolutePath().normalize();
+        String key;
+        try {
+            key = "file:" + file + "@" + Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            throw new JRException("Cannot read " + file, e);
+        }
+
+        JasperReport cached = getFromMemory(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        JasperReport report = compile(JRXmlLoader.load(file.toFile()));
+        putInMemory(key, report);
+        return report;
+    }
+
+    /**
+     * Stable SHA-256 hash over the JRXML serialization of the design. Two
+     * designs with the same hash compile to equivalent reports.
+     */
+    public static String contentHash(JasperDesign design) throws JRException {
+        String xml = JRXmlWriter.writeReport(design, "UTF-8");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(xml.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new JRException("SHA-256 not available", e);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (memory) {
+            memory.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getDiskHitCount() {
+        return diskHits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private JasperReport getFromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private void putInMemory(String key, JasperReport report) {
+        synchronized (memory) {
+            memory.put(key, report);
+        }
+    }
+
+    private JasperReport loadFromDisk(String key) {
+        if (diskDirectory == null)
+            return null;
+        Path file = diskDirectory.resolve(key + ".jasper");
+        if (!Files.isRegularFile(file))
+            return null;
+        try {
+            return (JasperReport) JRLoader.loadObject(file.toFile());
+        } catch (JRException | ClassCastException e) {
+            // Stale or corrupt entry (e.g. written by another JasperReports version)
+            logger.warn("Discarding unreadable compiled report {}", file, e);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // Will be overwritten on save
+            }
+            return null;
+        }
+    }
+
+    private void saveToDisk(String key, JasperReport report) {
+        if (diskDirectory == null)
+            return;
+        try {
+            Files.createDirectories(diskDirectory);
+            Path tmp = Files.createTempFile(diskDirectory, key, ".tmp");
+            JRSaver.saveObject(report, tmp.toFile());
+            Files.move(tmp, diskDirectory.resolve(key + ".jasper"),
+                    java.nio.file.StandardCopyOption.REPLACE_EXISTING,
+                    java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | JRException e) {
+            // The disk tier is best effort; the report is still cached in memory
+            logger.warn("Failed to write compiled report to disk cache", e);
+        }
+    }
+
+    private static JasperReport await(CompletableFuture<JasperReport> future) throws JRException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof JRException jre)
+                throw jre;
+            if (cause instanceof RuntimeException re)
+                throw re;
+            if (cause instanceof Error error)
+                throw error;
+            throw new JRException("Report compilation failed", cause);
+        }
+    }
+}
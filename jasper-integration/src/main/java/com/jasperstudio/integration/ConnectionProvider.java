@@ -0,0 +1,13 @@
+package com.jasperstudio.integration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Opens a database connection for a query-based report. Callers close the
+ * connection once the fill is done.
+ */
+@FunctionalInterface
+public interface ConnectionProvider {
+    Connection open() throws SQLException;
+}
@@ -0,0 +1,82 @@
+package com.jasperstudio.integration;
+
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+import net.sf.jasperreports.engine.JRRewindableDataSource;
+import net.sf.jasperreports.engine.data.JRMapCollectionDataSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Reduces a data source to a bounded number of rows so a report can be filled
+ * against production-shaped data without filling all of it.
+ */
+public final class DataSampler {
+
+    /**
+     * How rows are picked when a row limit applies.
+     */
+    public enum Mode {
+        /** The first rows of the source, in order. Only reads as far as needed. */
+        FIRST_ROWS,
+        /** A uniform random sample of the whole source, kept in source order. */
+        RANDOM_SAMPLE
+    }
+
+    private record SampledRow(long index, Map<String, ?> values) {
+    }
+
+    private DataSampler() {
+    }
+
+    /**
+     * Reads the whole source once and keeps a uniform random sample of at most
+     * {@code size} rows (reservoir sampling), so memory stays bounded by the
+     * sample rather than by the source. Only the given fields are copied.
+     *
+     * @return a rewindable source over the sampled rows, in their original order
+     */
+    public static JRRewindableDataSource randomSample(JRDataSource source, JRField[] fields, int size,
+            Random random) throws JRException {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be at least 1");
+        }
+        JRField[] copied = fields != null ? fields : new JRField[0];
+        List<SampledRow> reservoir = new ArrayList<>(size);
+
+        long seen = 0;
+        while (source.next()) {
+            if (reservoir.size() < size) {
+                reservoir.add(new SampledRow(seen, readRow(source, copied)));
+            } else {
+                // Replace a kept row with probability size / (seen + 1)
+                long slot = (long) (random.nextDouble() * (seen + 1));
+                if (slot < size) {
+                    reservoir.set((int) slot, new SampledRow(seen, readRow(source, copied)));
+                }
+            }
+            seen++;
+        }
+
+        reservoir.sort(Comparator.comparingLong(SampledRow::index));
+        List<Map<String, ?>> rows = new ArrayList<>(reservoir.size());
+        for (SampledRow row : reservoir) {
+            rows.add(row.values());
+        }
+        return new JRMapCollectionDataSource(rows);
+    }
+
+    private static Map<String, ?> readRow(JRDataSource source, JRField[] fields) throws JRException {
+        Map<String, Object> values = new HashMap<>(fields.length * 2);
+        for (JRField field : fields) {
+            values.put(field.getName(), source.getFieldValue(field));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,66 @@
+package com.jasperstudio.integration;
+
+/**
+ * Output formats supported by {@link ReportExporter}.
+ */
+public enum ExportFormat {
+    PDF("pdf", "application/pdf"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    CSV("csv", "text/csv"),
+    /** A single page rendered as an image. */
+    PNG("png", "image/png");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return whether the libraries this format is written with are on the
+     *         classpath. PDF needs an iText 2.1.x compatible library, which the
+     *         build excludes from JasperReports' dependencies.
+     */
+    public boolean isAvailable() {
+        return this != PDF || PdfSupport.AVAILABLE;
+    }
+
+    /**
+     * Looks a format up by file extension or name, ignoring case.
+     *
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    public static ExportFormat fromName(String name) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(name) || format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + name);
+    }
+
+    // Probed once, on first use
+    private static final class PdfSupport {
+
+        static final boolean AVAILABLE = isPresent("com.lowagie.text.Document");
+
+        private static boolean isPresent(String className) {
+            try {
+                Class.forName(className, false, ExportFormat.class.getClassLoader());
+                return true;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+    }
+}
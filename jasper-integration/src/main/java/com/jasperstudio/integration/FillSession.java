@@ -0,0 +1,185 @@
+package com.jasperstudio.integration;
+
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.fill.AsynchronousFillHandle;
+import net.sf.jasperreports.engine.fill.AsynchronousFilllListener;
+import net.sf.jasperreports.engine.fill.FillListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A running, cancellable report fill.
+ * <p>
+ * Wraps {@link AsynchronousFillHandle} so callers are told about every page as
+ * soon as the filler produces it, instead of waiting for the complete
+ * {@link JasperPrint}. All listener callbacks happen on the fill thread.
+ */
+public class FillSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(FillSession.class);
+
+    /**
+     * Receives fill progress. Callbacks are invoked on the fill thread.
+     */
+    public interface Listener {
+        /**
+         * Ignores every callback, for callers that only use
+         * {@link #getResult()}.
+         */
+        Listener NONE = new Listener() {
+        };
+
+        /**
+         * A new page was added. The print is the one being filled, so its page
+         * list keeps growing after this call.
+         */
+        default void pageGenerated(JasperPrint print, int pageIndex) {
+        }
+
+        /**
+         * A page that was already reported changed (e.g. late-evaluated page
+         * totals).
+         */
+        default void pageUpdated(JasperPrint print, int pageIndex) {
+        }
+
+        default void finished(JasperPrint print) {
+        }
+
+        default void cancelled() {
+        }
+
+        default void failed(Throwable error) {
+        }
+    }
+
+    private final AsynchronousFillHandle handle;
+    private final CompletableFuture<JasperPrint> result = new CompletableFuture<>();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+    private volatile int pagesFilled;
+    private volatile boolean done;
+    private volatile boolean cancelRequested;
+
+    private FillSession(AsynchronousFillHandle handle, Listener listener) {
+        this.handle = handle;
+
+        handle.addFillListener(new FillListener() {
+            @Override
+            public void pageGenerated(JasperPrint print, int pageIndex) {
+                pagesFilled = pageIndex + 1;
+                listener.pageGenerated(print, pageIndex);
+            }
+
+            @Override
+            public void pageUpdated(JasperPrint print, int pageIndex) {
+                listener.pageUpdated(print, pageIndex);
+            }
+        });
+
+        handle.addListener(new AsynchronousFilllListener() {
+            @Override
+            public void reportFinished(JasperPrint print) {
+                markDone();
+                pagesFilled = print.getPages().size();
+                listener.finished(print);
+                result.complete(print);
+            }
+
+            @Override
+            public void reportCancelled() {
+                markDone();
+                listener.cancelled();
+                result.completeExceptionally(new CancellationException("Fill cancelled"));
+            }
+
+            @Override
+            public void reportFillError(Throwable t) {
+                markDone();
+                listener.failed(t);
+                result.completeExceptionally(t);
+            }
+        });
+    }
+
+    /**
+     * Starts filling the report from a data source.
+     */
+    public static FillSession start(JasperReport report, Map<String, Object> parameters, JRDataSource dataSource,
+            Listener listener) throws JRException {
+        FillSession session = new FillSession(
+                AsynchronousFillHandle.createHandle(report, parameters, dataSource), listener);
+        session.handle.startFill();
+        return session;
+    }
+
+    /**
+     * Starts filling the report by running its query on the given connection.
+     * The connection is not closed by the session.
+     */
+    public static FillSession start(JasperReport report, Map<String, Object> parameters, Connection connection,
+            Listener listener) throws JRException {
+        FillSession session = new FillSession(
+                AsynchronousFillHandle.createHandle(report, parameters, connection), listener);
+        session.handle.startFill();
+        return session;
+    }
+
+    /**
+     * Requests cancellation. The listener's {@code cancelled()} is called once the
+     * filler has stopped. Does nothing if the fill already ended.
+     */
+    public void cancel() {
+        if (done || cancelRequested)
+            return;
+        cancelRequested = true;
+        try {
+            handle.cancellFill();
+        } catch (JRException e) {
+            // Fill ended between the check and the request
+            logger.debug("Fill cancellation ignored: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Completes with the filled print, or exceptionally with the fill error or
+     * a {@link CancellationException}. Completes after the listener was told.
+     */
+    public CompletableFuture<JasperPrint> getResult() {
+        return result;
+    }
+
+    public int getPagesFilled() {
+        return pagesFilled;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    /**
+     * Time spent filling so far, or the total fill time once done.
+     */
+    public Duration getElapsed() {
+        long end = done ? endNanos : System.nanoTime();
+        return Duration.ofNanos(end - startNanos);
+    }
+
+    private void markDone() {
+        endNanos = System.nanoTime();
+        done = true;
+    }
+}
@@ -0,0 +1,32 @@
+package com.jasperstudio.integration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * One report to compile, fill and export in a batch.
+ *
+ * @param id         caller-chosen identifier, reported back in the result
+ * @param template   JRXML file
+ * @param parameters report parameters; may carry
+ *                   {@code REPORT_DATA_SOURCE} or {@code REPORT_CONNECTION}
+ * @param format     output format
+ * @param output     file the export is written to
+ * @param timeout    time allowed from the start of the job, or {@code null}
+ *                   for the renderer's default
+ */
+public record RenderJob(String id, Path template, Map<String, Object> parameters, ExportFormat format,
+        Path output, Duration timeout) {
+
+    public RenderJob {
+        if (template == null || format == null || output == null) {
+            throw new IllegalArgumentException("template, format and output are required");
+        }
+        parameters = parameters == null ? Map.of() : parameters;
+    }
+
+    public RenderJob(String id, Path template, Map<String, Object> parameters, ExportFormat format, Path output) {
+        this(id, template, parameters, format, output, null);
+    }
+}
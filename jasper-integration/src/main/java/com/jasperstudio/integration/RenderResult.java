@@ -0,0 +1,24 @@
+package com.jasperstudio.integration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Outcome of a {@link RenderJob}.
+ *
+ * @param pages   number of filled pages, 0 if the fill did not complete
+ * @param queued  time spent waiting for a worker
+ * @param elapsed time from the worker picking the job up to completion
+ * @param error   cause of a failure or timeout, otherwise {@code null}
+ */
+public record RenderResult(String jobId, Status status, Path output, int pages, Duration queued,
+        Duration compileTime, Duration fillTime, Duration exportTime, Duration elapsed, Throwable error) {
+
+    public enum Status {
+        SUCCEEDED, FAILED, TIMED_OUT
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCEEDED;
+    }
+}
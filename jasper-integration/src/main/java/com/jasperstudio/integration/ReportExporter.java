@@ -0,0 +1,125 @@
+package com.jasperstudio.integration;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperPrintManager;
+import net.sf.jasperreports.engine.export.JRCsvExporter;
+import net.sf.jasperreports.engine.export.JRPdfExporter;
+import net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+import net.sf.jasperreports.export.SimpleWriterExporterOutput;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes filled reports to an output stream in one of the
+ * {@link ExportFormat}s. The stream is flushed but not closed.
+ */
+public final class ReportExporter {
+
+    private static final int OUTPUT_BUFFER_SIZE = 256 * 1024;
+
+    private ReportExporter() {
+    }
+
+    /**
+     * Exports the whole print. For {@link ExportFormat#PNG} only the first page
+     * is written, at 100% zoom.
+     *
+     * @throws JRException also if the format is not
+     *                     {@linkplain ExportFormat#isAvailable() available}
+     */
+    public static void export(JasperPrint print, ExportFormat format, OutputStream out) throws JRException {
+        if (!format.isAvailable()) {
+            throw new JRException("Export to " + format.getExtension() + " is not available: its libraries are"
+                    + " not on the classpath");
+        }
+        switch (format) {
+            case PDF -> {
+                JRPdfExporter exporter = new JRPdfExporter();
+                exporter.setExporterInput(new SimpleExporterInput(print));
+                exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(out));
+                exporter.exportReport();
+            }
+            case XLSX -> {
+                JRXlsxExporter exporter = new JRXlsxExporter();
+                exporter.setExporterInput(new SimpleExporterInput(print));
+                exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(out));
+                exporter.exportReport();
+            }
+            case CSV -> {
+                JRCsvExporter exporter = new JRCsvExporter();
+                exporter.setExporterInput(new SimpleExporterInput(print));
+                exporter.setExporterOutput(new SimpleWriterExporterOutput(out));
+                exporter.exportReport();
+            }
+            case PNG -> exportPageImage(print, 0, 1.0f, out);
+        }
+    }
+
+    /**
+     * Exports to a file through a buffered {@link FileChannel}. The export is
+     * written to a temporary file next to the target and moved into place, so
+     * a failed export never leaves a partial file behind.
+     * <p>
+     * Exporters pull pages from the print one at a time, so with a virtualized
+     * print only the virtualizer's page budget is held in memory.
+     */
+    public static void exportToFile(JasperPrint print, ExportFormat format, Path target) throws JRException {
+        Path absolute = target.toAbsolutePath();
+        Path tmp = null;
+        try {
+            Files.createDirectories(absolute.getParent());
+            tmp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".part");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                    OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel),
+                            OUTPUT_BUFFER_SIZE)) {
+                export(print, format, out);
+                out.flush();
+                channel.force(false);
+            }
+            Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING);
+            tmp = null;
+        } catch (IOException e) {
+            throw new JRException("Failed to write " + absolute, e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // Left behind as *.part
+                }
+            }
+        }
+    }
+
+    /**
+     * Renders one page to PNG.
+     */
+    public static void exportPageImage(JasperPrint print, int pageIndex, float zoom, OutputStream out)
+            throws JRException {
+        if (pageIndex < 0 || pageIndex >= print.getPages().size()) {
+            throw new JRException("Page " + pageIndex + " out of range (report has " + print.getPages().size()
+                    + " pages)");
+        }
+        BufferedImage image = (BufferedImage) JasperPrintManager.printPageToImage(print, pageIndex, zoom);
+        try {
+            ImageIO.write(image, "png", out);
+            out.flush();
+        } catch (IOException e) {
+            throw new JRException("Failed to write page image", e);
+        }
+    }
+}
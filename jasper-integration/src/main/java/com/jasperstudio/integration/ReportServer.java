@@ -0,0 +1,417 @@
+package com.jasperstudio.integration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.sf.jasperreports.engine.JREmptyDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded HTTP endpoint that fills templates on request and streams the
+ * result, built on the JDK's {@code com.sun.net.httpserver}.
+ * <p>
+ * {@code GET|POST /render/<template>?format=png|csv|xlsx&page=0&zoom=1&<param>=<value>}
+ * fills {@code <templateDir>/<template>.jrxml}; {@code format} defaults to
+ * {@code png}, and {@code pdf} is accepted only where an iText library is on
+ * the classpath. Other query (or form) fields are passed as report
+ * parameters, converted to the parameter's declared type.
+ * {@code GET /status} returns counters as JSON.
+ * <p>
+ * Every exchange runs on its own virtual thread, so a blocked fill (e.g.
+ * waiting on JDBC) does not hold a platform thread. Load is bounded in two
+ * places: a global admission limit answers {@code 503} when the server is
+ * saturated, and a per-template limit answers {@code 429} so one expensive
+ * template cannot take every slot. Compiled templates are shared through a
+ * {@link CompiledReportCache}, keyed by file and modification time, so the
+ * server holds no more templates than the cache is bounded to.
+ */
+public class ReportServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportServer.class);
+
+    private static final Pattern TEMPLATE_NAME = Pattern.compile("[A-Za-z0-9_\\-]+");
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * @param maxConcurrentRenders renders allowed at once across all templates
+     * @param maxPerTemplate       renders allowed at once for one template
+     * @param admissionTimeout     how long a request may wait for a slot
+     */
+    public record Options(int maxConcurrentRenders, int maxPerTemplate, Duration admissionTimeout) {
+
+        public static Options defaults() {
+            int cpus = Runtime.getRuntime().availableProcessors();
+            return new Options(Math.max(64, cpus * 16), Math.max(8, cpus * 2), Duration.ofSeconds(2));
+        }
+    }
+
+    private final Path templateDirectory;
+    private final CompiledReportCache cache;
+    private final ConnectionProvider connectionProvider;
+    private final Options options;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore admission;
+    private final ConcurrentHashMap<String, Semaphore> templateSlots = new ConcurrentHashMap<>();
+
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param connectionProvider connection for query-based templates, or
+     *                           {@code null} to fill with a single empty record
+     */
+    public ReportServer(InetSocketAddress address, Path templateDirectory, CompiledReportCache cache,
+            ConnectionProvider connectionProvider, Options options) throws IOException {
+        this.templateDirectory = templateDirectory.toAbsolutePath().normalize();
+        this.cache = cache;
+        this.connectionProvider = connectionProvider;
+        this.options = options;
+        this.admission = new Semaphore(options.maxConcurrentRenders(), true);
+
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/render/", this::handleRender);
+        server.createContext("/status", this::handleStatus);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Report server listening on {} (templates in {})", server.getAddress(), templateDirectory);
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stops accepting requests, gives running ones a second to finish.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handleRender(HttpExchange exchange) throws IOException {
+        try {
+            String name = exchange.getRequestURI().getPath().substring("/render/".length());
+            if (!TEMPLATE_NAME.matcher(name).matches()) {
+                sendText(exchange, 400, "Invalid template name");
+                return;
+            }
+            Path file = templateDirectory.resolve(name + ".jrxml");
+            if (!Files.isRegularFile(file)) {
+                sendText(exchange, 404, "Unknown template: " + name);
+                return;
+            }
+
+            Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+            if ("POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                try (InputStream body = exchange.getRequestBody()) {
+                    query.putAll(parseForm(new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+                }
+            }
+
+            // Template slot first: requests queued on a hot template must not hold global slots
+            Semaphore slots = templateSlots.computeIfAbsent(name, n -> new Semaphore(options.maxPerTemplate(), true));
+            if (!tryAcquire(slots)) {
+                rejected.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendText(exchange, 429, "Too many concurrent renders of " + name);
+                return;
+            }
+            try {
+                if (!tryAcquire(admission)) {
+                    rejected.incrementAndGet();
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    sendText(exchange, 503, "Server busy");
+                    return;
+                }
+                try {
+                    render(exchange, file, query);
+                } finally {
+                    admission.release();
+                }
+            } finally {
+                slots.release();
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void render(HttpExchange exchange, Path file, Map<String, String> query) throws IOException {
+        ExportFormat format;
+        int page;
+        float zoom;
+        Map<String, Object> parameters;
+        JasperReport report;
+        try {
+            format = ExportFormat.fromName(query.getOrDefault("format", "png"));
+            if (!format.isAvailable())
+                throw new IllegalArgumentException("Format not available: " + format.getExtension());
+            page = Integer.parseInt(query.getOrDefault("page", "0"));
+            zoom = Float.parseFloat(query.getOrDefault("zoom", "1"));
+            report = cache.compile(file);
+            parameters = toParameters(report, query);
+        } catch (IllegalArgumentException e) {
+            sendText(exchange, 400, e.getMessage());
+            return;
+        } catch (JRException e) {
+            failed.incrementAndGet();
+            logger.warn("Failed to compile {}", file, e);
+            sendText(exchange, 500, "Template could not be compiled");
+            return;
+        }
+
+        JasperPrint print;
+        Connection connection = null;
+        try {
+            if (connectionProvider != null && report.getQuery() != null) {
+                connection = connectionProvider.open();
+                print = JasperFillManager.fillReport(report, parameters, connection);
+            } else {
+                print = JasperFillManager.fillReport(report, parameters, new JREmptyDataSource());
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            logger.warn("Failed to fill {}", file, e);
+            sendText(exchange, 500, "Fill failed");
+            return;
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (Exception e) {
+                    logger.debug("Failed to close connection", e);
+                }
+            }
+        }
+
+        if (format == ExportFormat.PNG && (page < 0 || page >= print.getPages().size())) {
+            sendText(exchange, 400, "Page " + page + " out of range");
+            return;
+        }
+
+        // Length unknown up front: stream with chunked encoding, committing with the first buffer
+        ResponseStream response = new ResponseStream(exchange, format.getContentType());
+        OutputStream out = new BufferedOutputStream(response, OUTPUT_BUFFER_SIZE);
+        try {
+            if (format == ExportFormat.PNG) {
+                ReportExporter.exportPageImage(print, page, zoom, out);
+            } else {
+                ReportExporter.export(print, format, out);
+            }
+            out.close();
+            served.incrementAndGet();
+        } catch (Throwable e) {
+            // Including linkage errors of exporters whose libraries are missing
+            failed.incrementAndGet();
+            logger.warn("Failed to export {}", file, e);
+            if (!response.isCommitted()) {
+                sendText(exchange, 500, "Export failed");
+            }
+            // Otherwise closing the exchange aborts the chunked response
+        }
+    }
+
+    private void handleStatus(HttpExchange exchange) throws IOException {
+        try {
+            String json = String.format(
+                    "{\"active\":%d,\"served\":%d,\"failed\":%d,\"rejected\":%d,\"cachedTemplates\":%d,\"cacheHits\":%d,\"cacheMisses\":%d}",
+                    options.maxConcurrentRenders() - admission.availablePermits(), served.get(), failed.get(),
+                    rejected.get(), cache.size(), cache.getHitCount(), cache.getMissCount());
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean tryAcquire(Semaphore semaphore) {
+        try {
+            return semaphore.tryAcquire(options.admissionTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Converts request fields to the declared types of the report's
+     * parameters. Fields that are not report parameters are ignored.
+     *
+     * @throws IllegalArgumentException if a value cannot be converted
+     */
+    static Map<String, Object> toParameters(JasperReport report, Map<String, String> fields) {
+        Map<String, Object> parameters = new HashMap<>();
+        for (JRParameter parameter : report.getParameters()) {
+            String value = fields.get(parameter.getName());
+            if (value == null || parameter.isSystemDefined())
+                continue;
+            try {
+                parameters.put(parameter.getName(), convert(value, parameter.getValueClass()));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(
+                        "Invalid value for parameter " + parameter.getName() + ": " + value);
+            }
+        }
+        return parameters;
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == null || type == String.class || type == Object.class)
+            return value;
+        if (type == Integer.class)
+            return Integer.valueOf(value);
+        if (type == Long.class)
+            return Long.valueOf(value);
+        if (type == Short.class)
+            return Short.valueOf(value);
+        if (type == Double.class)
+            return Double.valueOf(value);
+        if (type == Float.class)
+            return Float.valueOf(value);
+        if (type == BigDecimal.class)
+            return new BigDecimal(value);
+        if (type == Boolean.class)
+            return Boolean.valueOf(value);
+        if (type == java.sql.Date.class)
+            return java.sql.Date.valueOf(LocalDate.parse(value));
+        if (type == Timestamp.class)
+            return Timestamp.valueOf(LocalDateTime.parse(value));
+        if (type == java.util.Date.class) {
+            LocalDateTime dateTime = value.contains("T") ? LocalDateTime.parse(value)
+                    : LocalDate.parse(value).atStartOfDay();
+            return java.util.Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+        }
+        throw new IllegalArgumentException("Unsupported parameter type " + type.getName());
+    }
+
+    private static Map<String, String> parseForm(String raw) {
+        Map<String, String> fields = new HashMap<>();
+        if (raw == null || raw.isEmpty())
+            return fields;
+        for (String pair : raw.split("&")) {
+            if (pair.isEmpty())
+                continue;
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            fields.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return fields;
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    /**
+     * Sends the {@code 200} headers only when the first bytes are written, so
+     * an export that fails before producing output can still be answered with
+     * an error status.
+     */
+    private static final class ResponseStream extends OutputStream {
+
+        private final HttpExchange exchange;
+        private final String contentType;
+        private OutputStream body;
+
+        ResponseStream(HttpExchange exchange, String contentType) {
+            this.exchange = exchange;
+            this.contentType = contentType;
+        }
+
+        boolean isCommitted() {
+            return body != null;
+        }
+
+        private OutputStream body() throws IOException {
+            if (body == null) {
+                exchange.getResponseHeaders().set("Content-Type", contentType);
+                exchange.sendResponseHeaders(200, 0);
+                body = exchange.getResponseBody();
+            }
+            return body;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            body().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            body().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Exporters flush when they finish; that alone must not commit an empty response
+            if (body != null) {
+                body.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            body().close();
+        }
+    }
+
+    /**
+     * Starts a server: {@code <templateDir> [port]}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            logger.error("Usage: ReportServer <templateDir> [port]");
+            return;
+        }
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        ReportServer server = new ReportServer(new InetSocketAddress(port), Paths.get(args[0]),
+                new CompiledReportCache(64), null, Options.defaults());
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+    }
+}
@@ -0,0 +1,44 @@
+package com.jasperstudio.integration;
+
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+
+/**
+ * Creates virtualizers that keep only a bounded number of filled pages in
+ * memory and move the rest to a swap file on disk.
+ * <p>
+ * A virtualizer is passed to the filler as
+ * {@link net.sf.jasperreports.engine.JRParameter#REPORT_VIRTUALIZER}. The
+ * resulting {@code JasperPrint} pages in data from the swap file when a page is
+ * accessed, so it stays usable only until {@link JRSwapFileVirtualizer#cleanup()}
+ * is called.
+ */
+public final class VirtualizerFactory {
+
+    /** System property overriding the swap directory (defaults to java.io.tmpdir). */
+    public static final String SWAP_DIR_PROPERTY = "jasperstudio.swapDir";
+
+    private static final int SWAP_BLOCK_SIZE = 4096;
+    private static final int SWAP_MIN_GROW_BLOCKS = 256;
+
+    private VirtualizerFactory() {
+    }
+
+    /**
+     * @param maxPagesInMemory number of pages kept on the heap; older ones are
+     *                         swapped out
+     */
+    public static JRSwapFileVirtualizer createSwapFileVirtualizer(int maxPagesInMemory) {
+        if (maxPagesInMemory < 1) {
+            throw new IllegalArgumentException("maxPagesInMemory must be at least 1");
+        }
+        JRSwapFile swapFile = new JRSwapFile(swapDirectory(), SWAP_BLOCK_SIZE, SWAP_MIN_GROW_BLOCKS);
+        // The virtualizer owns the swap file and deletes it on cleanup()
+        return new JRSwapFileVirtualizer(maxPagesInMemory, swapFile, true);
+    }
+
+    private static String swapDirectory() {
+        String dir = System.getProperty(SWAP_DIR_PROPERTY);
+        return (dir == null || dir.isBlank()) ? System.getProperty("java.io.tmpdir") : dir;
+    }
+}
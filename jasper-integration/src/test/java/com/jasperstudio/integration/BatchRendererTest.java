@@ -0,0 +1,118 @@
+package com.jasperstudio.integration;
+
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRField;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JRDesignStaticText;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.xml.JRXmlLoader;
+import net.sf.jasperreports.engine.xml.JRXmlWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRendererTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path writeTemplate(String name) throws Exception {
+        JasperDesign design = new JasperDesign();
+        design.setName(name);
+        JRDesignBand title = new JRDesignBand();
+        title.setHeight(50);
+        JRDesignStaticText text = new JRDesignStaticText();
+        text.setText("Hello");
+        text.setWidth(100);
+        text.setHeight(20);
+        title.addElement(text);
+        design.setTitle(title);
+
+        Path file = tempDir.resolve(name + ".jrxml");
+        JRXmlWriter.writeReport(design, file.toString(), "UTF-8");
+        return file;
+    }
+
+    @Test
+    public void testRendersJobsAndSharesCompiledTemplate() throws Exception {
+        Path template = writeTemplate("Batch");
+        CompiledReportCache cache = new CompiledReportCache(4);
+
+        try (BatchRenderer renderer = new BatchRenderer(2, cache)) {
+            List<RenderResult> results = renderer.renderAll(List.of(
+                    new RenderJob("a", template, Map.of(), ExportFormat.CSV, tempDir.resolve("out/a.csv")),
+                    new RenderJob("b", template, Map.of(), ExportFormat.CSV, tempDir.resolve("out/b.csv"))));
+
+            for (RenderResult result : results) {
+                assertTrue(result.isSuccess(), () -> "job failed: " + result.error());
+                assertTrue(Files.size(result.output()) > 0);
+            }
+            // Both workers may miss at once; they still share one compilation
+            assertEquals(1, cache.getMissCount());
+            JasperReport compiled = cache.compile(template);
+            assertSame(compiled, cache.compile(JRXmlLoader.load(template.toFile())));
+            assertEquals(1, cache.getMissCount());
+
+            BatchStatistics.Snapshot stats = renderer.getStatistics().snapshot();
+            assertEquals(2, stats.submitted());
+            assertEquals(2, stats.succeeded());
+        }
+    }
+
+    @Test
+    public void testMissingTemplateIsReportedAsFailure() {
+        try (BatchRenderer renderer = new BatchRenderer(1, new CompiledReportCache(4))) {
+            RenderResult result = renderer.submit(new RenderJob("missing", tempDir.resolve("none.jrxml"), Map.of(),
+                    ExportFormat.CSV, tempDir.resolve("none.csv"))).join();
+
+            assertEquals(RenderResult.Status.FAILED, result.status());
+            assertNotNull(result.error());
+            assertFalse(Files.exists(tempDir.resolve("none.csv")));
+            assertEquals(1, renderer.getStatistics().snapshot().failed());
+        }
+    }
+
+    @Test
+    public void testSlowFillTimesOut() throws Exception {
+        Path template = writeTemplate("Slow");
+        // Endless records, each slow enough that only cancellation ends the fill
+        JRDataSource slow = new JRDataSource() {
+            @Override
+            public boolean next() {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+
+            @Override
+            public Object getFieldValue(JRField field) {
+                return null;
+            }
+        };
+
+        try (BatchRenderer renderer = new BatchRenderer(1, new CompiledReportCache(4))) {
+            RenderResult result = renderer.submit(new RenderJob("slow", template,
+                    Map.of(JRParameter.REPORT_DATA_SOURCE, slow), ExportFormat.CSV, tempDir.resolve("slow.csv"),
+                    Duration.ofMillis(500))).join();
+
+            assertEquals(RenderResult.Status.TIMED_OUT, result.status());
+            assertNotNull(result.error());
+            assertFalse(Files.exists(tempDir.resolve("slow.csv")));
+            BatchStatistics.Snapshot stats = renderer.getStatistics().snapshot();
+            assertEquals(1, stats.timedOut());
+            assertEquals(0, stats.failed());
+        }
+    }
+}
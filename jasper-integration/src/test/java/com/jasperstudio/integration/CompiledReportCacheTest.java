@@ -0,0 +1,129 @@
+package com.jasperstudio.integration;
+
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.xml.JRXmlWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledReportCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JasperDesign newDesign(String name) {
+        JasperDesign design = new JasperDesign();
+        design.setName(name);
+        JRDesignBand title = new JRDesignBand();
+        title.setHeight(50);
+        design.setTitle(title);
+        return design;
+    }
+
+    @Test
+    public void testUnchangedDesignSkipsCompilation() throws Exception {
+        CompiledReportCache cache = new CompiledReportCache(4);
+        JasperDesign design = newDesign("Cached");
+
+        JasperReport first = cache.compile(design);
+        JasperReport second = cache.compile(design);
+
+        assertSame(first, second);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testChangedDesignRecompiles() throws Exception {
+        CompiledReportCache cache = new CompiledReportCache(4);
+        JasperDesign design = newDesign("Cached");
+
+        JasperReport first = cache.compile(design);
+        design.setPageWidth(design.getPageWidth() + 100);
+        JasperReport second = cache.compile(design);
+
+        assertNotSame(first, second);
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws Exception {
+        CompiledReportCache cache = new CompiledReportCache(2);
+        JasperDesign a = newDesign("A");
+        JasperDesign b = newDesign("B");
+        JasperDesign c = newDesign("C");
+
+        cache.compile(a);
+        cache.compile(b);
+        cache.compile(a); // touch A so B becomes eldest
+        cache.compile(c);
+
+        assertEquals(2, cache.size());
+        long missesBefore = cache.getMissCount();
+        cache.compile(a);
+        assertEquals(missesBefore, cache.getMissCount());
+        cache.compile(b);
+        assertEquals(missesBefore + 1, cache.getMissCount());
+    }
+
+    @Test
+    public void testFileIsReloadedOnlyWhenModified() throws Exception {
+        CompiledReportCache cache = new CompiledReportCache(4);
+        Path file = tempDir.resolve("File.jrxml");
+        JasperDesign design = newDesign("File");
+        JRXmlWriter.writeReport(design, file.toString(), "UTF-8");
+
+        JasperReport first = cache.compile(file);
+        assertSame(first, cache.compile(file));
+        assertEquals(1, cache.getMissCount());
+
+        design.setPageWidth(design.getPageWidth() + 100);
+        JRXmlWriter.writeReport(design, file.toString(), "UTF-8");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+
+        assertNotSame(first, cache.compile(file));
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testConcurrentRequestsCompileOnce() throws Exception {
+        CompiledReportCache cache = new CompiledReportCache(4);
+        JasperDesign design = newDesign("Shared");
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<JasperReport>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.compile(design);
+                }));
+            }
+            start.countDown();
+
+            JasperReport first = results.get(0).get(30, TimeUnit.SECONDS);
+            for (Future<JasperReport> result : results) {
+                assertSame(first, result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, cache.getMissCount());
+        assertEquals(threads - 1, cache.getHitCount());
+    }
+}
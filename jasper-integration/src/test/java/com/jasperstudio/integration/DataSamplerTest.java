@@ -0,0 +1,61 @@
+package com.jasperstudio.integration;
+
+import net.sf.jasperreports.engine.JRField;
+import net.sf.jasperreports.engine.JRRewindableDataSource;
+import net.sf.jasperreports.engine.data.JRMapCollectionDataSource;
+import net.sf.jasperreports.engine.design.JRDesignField;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataSamplerTest {
+
+    private JRMapCollectionDataSource rows(int count) {
+        List<Map<String, ?>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(Map.of("id", i));
+        }
+        return new JRMapCollectionDataSource(rows);
+    }
+
+    private JRField[] idField() {
+        JRDesignField field = new JRDesignField();
+        field.setName("id");
+        field.setValueClass(Integer.class);
+        return new JRField[] { field };
+    }
+
+    @Test
+    public void testSampleIsBoundedAndKeepsSourceOrder() throws Exception {
+        JRField[] fields = idField();
+        JRRewindableDataSource sample = DataSampler.randomSample(rows(1000), fields, 50, new Random(42));
+
+        int count = 0;
+        int previous = -1;
+        while (sample.next()) {
+            int id = (Integer) sample.getFieldValue(fields[0]);
+            assertTrue(id > previous, "rows must stay in source order");
+            previous = id;
+            count++;
+        }
+        assertEquals(50, count);
+    }
+
+    @Test
+    public void testSmallSourceIsKeptWhole() throws Exception {
+        JRField[] fields = idField();
+        JRRewindableDataSource sample = DataSampler.randomSample(rows(10), fields, 50, new Random(42));
+
+        int count = 0;
+        while (sample.next()) {
+            assertEquals(count, sample.getFieldValue(fields[0]));
+            count++;
+        }
+        assertEquals(10, count);
+    }
+}
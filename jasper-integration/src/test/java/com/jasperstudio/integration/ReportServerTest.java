@@ -0,0 +1,181 @@
+package com.jasperstudio.integration;
+
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JRDesignParameter;
+import net.sf.jasperreports.engine.design.JRDesignQuery;
+import net.sf.jasperreports.engine.design.JRDesignStaticText;
+import net.sf.jasperreports.engine.design.JasperDesign;
+import net.sf.jasperreports.engine.xml.JRXmlWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    // Filled with a query, so the connection provider runs while the render holds its slots
+    private final CountDownLatch fillStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFill = new CountDownLatch(1);
+
+    private JasperDesign newDesign(String name) {
+        JasperDesign design = new JasperDesign();
+        design.setName(name);
+        JRDesignBand title = new JRDesignBand();
+        title.setHeight(50);
+        JRDesignStaticText text = new JRDesignStaticText();
+        text.setText("Hello");
+        text.setWidth(100);
+        text.setHeight(20);
+        title.addElement(text);
+        design.setTitle(title);
+        return design;
+    }
+
+    private void writeTemplate(String name, boolean withQuery) throws Exception {
+        JasperDesign design = newDesign(name);
+        if (withQuery) {
+            JRDesignQuery query = new JRDesignQuery();
+            query.setLanguage("sql");
+            query.setText("select 1");
+            design.setQuery(query);
+        }
+        JRXmlWriter.writeReport(design, tempDir.resolve(name + ".jrxml").toString(), "UTF-8");
+    }
+
+    private ReportServer startServer(ReportServer.Options options) throws Exception {
+        ReportServer server = new ReportServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), tempDir,
+                new CompiledReportCache(4), () -> {
+                    fillStarted.countDown();
+                    try {
+                        releaseFill.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new SQLException("No database in tests");
+                }, options);
+        server.start();
+        return server;
+    }
+
+    private HttpResponse<String> get(ReportServer server, String rawPath) throws Exception {
+        return client.send(request(server, rawPath), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(ReportServer server, String rawPath) {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + rawPath))
+                .timeout(Duration.ofSeconds(10)).build();
+    }
+
+    @Test
+    public void testToParametersConvertsDeclaredTypes() throws Exception {
+        JasperDesign design = newDesign("Params");
+        for (Map.Entry<String, Class<?>> declared : Map.<String, Class<?>>of("count", Integer.class,
+                "amount", BigDecimal.class, "day", java.sql.Date.class, "label", String.class).entrySet()) {
+            JRDesignParameter parameter = new JRDesignParameter();
+            parameter.setName(declared.getKey());
+            parameter.setValueClass(declared.getValue());
+            design.addParameter(parameter);
+        }
+        JasperReport report = JasperCompileManager.compileReport(design);
+
+        Map<String, Object> parameters = ReportServer.toParameters(report, Map.of(
+                "count", "42", "amount", "12.50", "day", "2024-03-01", "label", "x", "unknown", "ignored"));
+
+        assertEquals(42, parameters.get("count"));
+        assertEquals(new BigDecimal("12.50"), parameters.get("amount"));
+        assertEquals(java.sql.Date.valueOf("2024-03-01"), parameters.get("day"));
+        assertEquals("x", parameters.get("label"));
+        assertFalse(parameters.containsKey("unknown"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ReportServer.toParameters(report, Map.of("count", "many")));
+    }
+
+    @Test
+    public void testRendersTemplateAndRejectsPathTraversal() throws Exception {
+        writeTemplate("Hello", false);
+        Files.writeString(tempDir.resolve("secret.txt"), "secret");
+
+        try (ReportServer server = startServer(ReportServer.Options.defaults())) {
+            HttpResponse<String> ok = get(server, "/render/Hello?format=csv");
+            assertEquals(200, ok.statusCode());
+            assertTrue(ok.body().contains("Hello"));
+
+            // PNG of the first page unless asked otherwise
+            HttpResponse<byte[]> image = client.send(request(server, "/render/Hello"),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, image.statusCode());
+            assertEquals("image/png", image.headers().firstValue("Content-Type").orElse(null));
+            assertTrue(image.body().length > 0);
+
+            // The build excludes iText, so PDF is refused up front rather than failing mid-response
+            int pdfStatus = get(server, "/render/Hello?format=pdf").statusCode();
+            assertEquals(ExportFormat.PDF.isAvailable() ? 200 : 400, pdfStatus);
+
+            assertEquals(400, get(server, "/render/..%2Fsecret").statusCode());
+            assertEquals(400, get(server, "/render/%2E%2E%2F%2E%2E%2Fetc%2Fpasswd").statusCode());
+            assertEquals(404, get(server, "/render/Missing").statusCode());
+        }
+    }
+
+    @Test
+    public void testBusyTemplateAnswers429() throws Exception {
+        writeTemplate("Slow", true);
+
+        try (ReportServer server = startServer(new ReportServer.Options(4, 1, Duration.ofMillis(100)))) {
+            CompletableFuture<HttpResponse<String>> first = client.sendAsync(request(server, "/render/Slow"),
+                    HttpResponse.BodyHandlers.ofString());
+            assertTrue(fillStarted.await(10, TimeUnit.SECONDS));
+
+            HttpResponse<String> second = get(server, "/render/Slow");
+            assertEquals(429, second.statusCode());
+            assertTrue(second.headers().firstValue("Retry-After").isPresent());
+
+            releaseFill.countDown();
+            assertEquals(500, first.get(10, TimeUnit.SECONDS).statusCode());
+            assertTrue(get(server, "/status").body().contains("\"rejected\":1"));
+        }
+    }
+
+    @Test
+    public void testSaturatedServerAnswers503() throws Exception {
+        writeTemplate("Slow", true);
+        writeTemplate("Fast", false);
+
+        try (ReportServer server = startServer(new ReportServer.Options(1, 4, Duration.ofMillis(100)))) {
+            CompletableFuture<HttpResponse<String>> first = client.sendAsync(request(server, "/render/Slow"),
+                    HttpResponse.BodyHandlers.ofString());
+            assertTrue(fillStarted.await(10, TimeUnit.SECONDS));
+
+            // Its own template has free slots, but the global limit is taken
+            assertEquals(503, get(server, "/render/Fast").statusCode());
+
+            releaseFill.countDown();
+            assertEquals(500, first.get(10, TimeUnit.SECONDS).statusCode());
+            assertEquals(200, get(server, "/render/Fast?format=csv").statusCode());
+        }
+    }
+}
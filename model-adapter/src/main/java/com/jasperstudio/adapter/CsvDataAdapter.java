@@ -1,5 +1,7 @@
 package com.jasperstudio.adapter;
 
+import net.sf.jasperreports.engine.data.JRCsvDataSource;
+
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
@@ -43,6 +45,19 @@ public class CsvDataAdapter implements DataAdapter {
         }
     }
 
+    /**
+     * Opens the configured file as a report data source. The caller closes it.
+     */
+    public JRCsvDataSource createDataSource() throws Exception {
+        JRCsvDataSource dataSource = new JRCsvDataSource(new File(properties.get(PROP_FILE)), "UTF-8");
+        String delimiter = properties.get(PROP_DELIMITER);
+        if (delimiter != null && !delimiter.isEmpty()) {
+            dataSource.setFieldDelimiter(delimiter.charAt(0));
+        }
+        dataSource.setUseFirstRowAsHeader(Boolean.parseBoolean(properties.getOrDefault(PROP_HAS_HEADER, "true")));
+        return dataSource;
+    }
+
     @Override
     public String getType() {
         return "CSV";
@@ -1,5 +1,7 @@
 package com.jasperstudio.adapter;
 
+import net.sf.jasperreports.engine.data.JsonDataSource;
+
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
@@ -43,6 +45,21 @@ public class JsonDataAdapter implements DataAdapter {
         // Basic parsing check could be added here
     }
 
+    /**
+     * Opens the configured file as a report data source.
+     *
+     * @param selectExpression JSON select expression (usually the report query),
+     *                         or {@code null} for the document root
+     */
+    public JsonDataSource createDataSource(String selectExpression) throws Exception {
+        JsonDataSource dataSource = new JsonDataSource(new File(properties.get(PROP_FILE)), selectExpression);
+        String datePattern = properties.get(PROP_DATE_PATTERN);
+        if (datePattern != null && !datePattern.isEmpty()) {
+            dataSource.setDatePattern(datePattern);
+        }
+        return dataSource;
+    }
+
     @Override
     public String getType() {
         return "JSON";
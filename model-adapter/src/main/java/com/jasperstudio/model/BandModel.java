@@ -4,7 +4,6 @@ import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import net.sf.jasperreports.engine.design.JRDesignBand;
 import net.sf.jasperreports.engine.design.JRDesignElement;
@@ -13,7 +12,10 @@ public class BandModel {
     private final JRDesignBand band;
     private final StringProperty type = new SimpleStringProperty();
     private final IntegerProperty height = new SimpleIntegerProperty();
-    private final ObservableList<ElementModel> elements = FXCollections.observableArrayList();
+    private final ElementList elements = new ElementList();
+    private final ElementSpatialIndex spatialIndex = new ElementSpatialIndex();
+    private final java.util.Map<ElementModel, javafx.beans.InvalidationListener> geometryListeners = new java.util.IdentityHashMap<>();
+    private ElementParentIndex index;
 
     private final javafx.beans.property.ObjectProperty<net.sf.jasperreports.engine.type.SplitTypeEnum> splitType = new javafx.beans.property.SimpleObjectProperty<>();
     private final StringProperty printWhenExpressionText = new SimpleStringProperty();
@@ -22,11 +24,18 @@ public class BandModel {
         this.type.set(type);
         this.band = band;
 
+        elements.addListener(this::updateSpatialIndex);
+        elements.addListener(this::updateIndex);
         syncFromBand();
         setupListeners();
     }
 
-    private void syncFromBand() {
+    /**
+     * Re-reads the band. Element models are matched to the band's children
+     * by identity: models of elements still present are kept and refreshed,
+     * and the list only sees the additions, removals and moves needed.
+     */
+    void syncFromBand() {
         if (band != null) {
             this.height.set(band.getHeight());
             this.splitType.set(band.getSplitTypeValue());
@@ -36,12 +45,23 @@ public class BandModel {
                 this.printWhenExpressionText.set("");
             }
 
-            elements.clear();
+            java.util.Map<JRDesignElement, ElementModel> existing = new java.util.IdentityHashMap<>();
+            for (ElementModel em : elements) {
+                existing.put(em.getElement(), em);
+            }
+            java.util.List<ElementModel> target = new java.util.ArrayList<>();
             for (net.sf.jasperreports.engine.JRChild child : band.getChildren()) {
                 if (child instanceof JRDesignElement) {
-                    elements.add(new ElementModel((JRDesignElement) child));
+                    ElementModel model = existing.get(child);
+                    if (model != null) {
+                        model.refresh();
+                    } else {
+                        model = ElementModel.of((JRDesignElement) child);
+                    }
+                    target.add(model);
                 }
             }
+            ListDiff.apply(elements, target);
         }
     }
 
@@ -81,6 +101,111 @@ public class BandModel {
         }
     }
 
+    /**
+     * Holds back the element list's notifications until {@link #endBatch()},
+     * which delivers everything changed meanwhile as one list change.
+     */
+    void beginBatch() {
+        elements.beginBatch();
+    }
+
+    void endBatch() {
+        elements.endBatch();
+    }
+
+    /**
+     * Keeps the spatial index in step with the element list and with every
+     * element's bounds.
+     */
+    private void updateSpatialIndex(javafx.collections.ListChangeListener.Change<? extends ElementModel> c) {
+        int firstChanged = elements.size();
+        while (c.next()) {
+            firstChanged = Math.min(firstChanged, c.getFrom());
+            for (ElementModel removed : c.getRemoved()) {
+                javafx.beans.InvalidationListener listener = geometryListeners.remove(removed);
+                if (listener != null) {
+                    removed.xProperty().removeListener(listener);
+                    removed.yProperty().removeListener(listener);
+                    removed.widthProperty().removeListener(listener);
+                    removed.heightProperty().removeListener(listener);
+                }
+                spatialIndex.remove(removed);
+            }
+        }
+        // Additions second: a batched change may list an element's re-add before its removal
+        c.reset();
+        while (c.next()) {
+            for (ElementModel added : c.getAddedSubList()) {
+                if (!geometryListeners.containsKey(added)) {
+                    javafx.beans.InvalidationListener listener = o -> spatialIndex.update(added);
+                    geometryListeners.put(added, listener);
+                    added.xProperty().addListener(listener);
+                    added.yProperty().addListener(listener);
+                    added.widthProperty().addListener(listener);
+                    added.heightProperty().addListener(listener);
+                }
+                spatialIndex.add(added);
+            }
+        }
+        // Positions before the first change are unchanged
+        spatialIndex.updateOrder(elements, firstChanged);
+    }
+
+    /**
+     * Indexes this band's elements, and from then on every element added or
+     * removed, in the design's parent index; {@code null} drops them.
+     */
+    void setIndex(ElementParentIndex index) {
+        if (this.index != null) {
+            for (ElementModel em : elements) {
+                this.index.remove(band, em);
+            }
+        }
+        this.index = index;
+        if (index != null && band != null) {
+            for (ElementModel em : elements) {
+                index.add(this, band, em);
+            }
+        }
+    }
+
+    private void updateIndex(javafx.collections.ListChangeListener.Change<? extends ElementModel> c) {
+        if (index == null || band == null)
+            return;
+        while (c.next()) {
+            for (ElementModel removed : c.getRemoved()) {
+                index.remove(band, removed);
+            }
+        }
+        c.reset();
+        while (c.next()) {
+            for (ElementModel added : c.getAddedSubList()) {
+                index.add(this, band, added);
+            }
+        }
+    }
+
+    /**
+     * Finds the model of a frame nested anywhere in this band.
+     */
+    public FrameModel findFrame(net.sf.jasperreports.engine.JRElementGroup frame) {
+        for (ElementModel em : elements) {
+            if (em instanceof FrameModel) {
+                FrameModel found = ((FrameModel) em).findFrame(frame);
+                if (found != null)
+                    return found;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Spatial index over this band's elements, in band coordinates.
+     */
+    public ElementSpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+
     public JRDesignBand getBand() {
         return band;
     }
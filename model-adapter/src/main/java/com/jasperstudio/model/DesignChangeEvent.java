@@ -0,0 +1,125 @@
+package com.jasperstudio.model;
+
+import net.sf.jasperreports.engine.JRElementGroup;
+import net.sf.jasperreports.engine.design.JRDesignElement;
+
+/**
+ * A structural change to a report design: an element added to, removed from
+ * or moved between containers, or a band created or deleted.
+ * <p>
+ * A container is either a band's {@link net.sf.jasperreports.engine.design.JRDesignBand}
+ * or a {@link net.sf.jasperreports.engine.design.JRDesignFrame} nested somewhere
+ * inside it. Changes directly in a band are also visible through
+ * {@link BandModel#getElements()}; listeners that already observe that list
+ * only need to handle frame containers.
+ */
+public final class DesignChangeEvent {
+
+    public enum Type {
+        ELEMENT_ADDED,
+        ELEMENT_REMOVED,
+        ELEMENT_REPARENTED,
+        BAND_CHANGED
+    }
+
+    private final Type type;
+    private final JRDesignElement element;
+    private final ElementModel model;
+    private final BandModel band;
+    private final JRElementGroup container;
+    private final BandModel oldBand;
+    private final JRElementGroup oldContainer;
+    private final String bandType;
+
+    private DesignChangeEvent(Type type, JRDesignElement element, ElementModel model, BandModel band,
+            JRElementGroup container, BandModel oldBand, JRElementGroup oldContainer, String bandType) {
+        this.type = type;
+        this.element = element;
+        this.model = model;
+        this.band = band;
+        this.container = container;
+        this.oldBand = oldBand;
+        this.oldContainer = oldContainer;
+        this.bandType = bandType;
+    }
+
+    public static DesignChangeEvent elementAdded(BandModel band, JRElementGroup container, ElementModel model) {
+        return new DesignChangeEvent(Type.ELEMENT_ADDED, model.getElement(), model, band, container, null, null,
+                band.getType());
+    }
+
+    public static DesignChangeEvent elementRemoved(BandModel band, JRElementGroup container, ElementModel model) {
+        return new DesignChangeEvent(Type.ELEMENT_REMOVED, model.getElement(), model, band, container, null, null,
+                band.getType());
+    }
+
+    public static DesignChangeEvent elementReparented(BandModel oldBand, JRElementGroup oldContainer,
+            BandModel band, JRElementGroup container, ElementModel model) {
+        return new DesignChangeEvent(Type.ELEMENT_REPARENTED, model.getElement(), model, band, container, oldBand,
+                oldContainer, band.getType());
+    }
+
+    /**
+     * @param oldBand model the band slot held before, or {@code null}
+     * @param band    model it holds now, or {@code null} if the band was
+     *                deleted
+     */
+    public static DesignChangeEvent bandChanged(String bandType, BandModel oldBand, BandModel band) {
+        return new DesignChangeEvent(Type.BAND_CHANGED, null, null, band, null, oldBand, null, bandType);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public JRDesignElement getElement() {
+        return element;
+    }
+
+    /**
+     * The model the change was made through; for elements inside a frame it
+     * is the one cached by the frame's {@link FrameModel}.
+     */
+    public ElementModel getModel() {
+        return model;
+    }
+
+    /**
+     * Band the element is in after the change, or the band's new model for
+     * {@link Type#BAND_CHANGED}.
+     */
+    public BandModel getBand() {
+        return band;
+    }
+
+    /**
+     * Container the element is in after an add or move, or was removed from.
+     */
+    public JRElementGroup getContainer() {
+        return container;
+    }
+
+    public BandModel getOldBand() {
+        return oldBand;
+    }
+
+    public JRElementGroup getOldContainer() {
+        return oldContainer;
+    }
+
+    public String getBandType() {
+        return bandType;
+    }
+
+    /**
+     * @return whether the element's container is a frame rather than a band
+     */
+    public boolean isInFrame() {
+        return container != null && (band == null || container != band.getBand());
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + (element != null ? element.getClass().getSimpleName() : bandType);
+    }
+}
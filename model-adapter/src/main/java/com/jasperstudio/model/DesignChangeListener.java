@@ -0,0 +1,25 @@
+package com.jasperstudio.model;
+
+import java.util.List;
+
+/**
+ * Receives the structural changes of a {@link JasperDesignModel}, after the
+ * design and the band models have been updated.
+ */
+@FunctionalInterface
+public interface DesignChangeListener {
+    void designChanged(DesignChangeEvent event);
+
+    /**
+     * Receives the changes made between {@link JasperDesignModel#beginUpdate()}
+     * and the matching {@link JasperDesignModel#endUpdate()}, in order, with a
+     * single call. Listeners that can apply several changes more cheaply than
+     * one at a time override this; by default each is passed on to
+     * {@link #designChanged(DesignChangeEvent)}.
+     */
+    default void designChanged(List<DesignChangeEvent> events) {
+        for (DesignChangeEvent event : events) {
+            designChanged(event);
+        }
+    }
+}
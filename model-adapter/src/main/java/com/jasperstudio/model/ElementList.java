@@ -0,0 +1,50 @@
+package com.jasperstudio.model;
+
+import javafx.collections.ModifiableObservableListBase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Observable element list whose notifications can be held back: every
+ * change made between {@link #beginBatch()} and {@link #endBatch()} reaches
+ * the listeners as a single list change when the batch ends. The contents
+ * are updated immediately.
+ */
+final class ElementList extends ModifiableObservableListBase<ElementModel> {
+
+    private final List<ElementModel> items = new ArrayList<>();
+
+    @Override
+    public ElementModel get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    protected void doAdd(int index, ElementModel element) {
+        items.add(index, element);
+    }
+
+    @Override
+    protected ElementModel doSet(int index, ElementModel element) {
+        return items.set(index, element);
+    }
+
+    @Override
+    protected ElementModel doRemove(int index) {
+        return items.remove(index);
+    }
+
+    void beginBatch() {
+        beginChange();
+    }
+
+    void endBatch() {
+        endChange();
+    }
+}
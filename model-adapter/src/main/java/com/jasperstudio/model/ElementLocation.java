@@ -0,0 +1,20 @@
+package com.jasperstudio.model;
+
+import net.sf.jasperreports.engine.JRElementGroup;
+
+/**
+ * Where an element sits in a design: the band that owns it and the group
+ * that directly contains it, which is either the band's
+ * {@link net.sf.jasperreports.engine.design.JRDesignBand} or a frame inside it,
+ * together with the element's model in that container.
+ */
+public record ElementLocation(BandModel band, JRElementGroup container, ElementModel model) {
+
+    /**
+     * @return whether the element is nested in a frame rather than directly
+     *         in the band
+     */
+    public boolean inFrame() {
+        return container != band.getBand();
+    }
+}
@@ -28,6 +28,17 @@ public class ElementModel {
         setupListeners();
     }
 
+    /**
+     * Wraps a design element, using a {@link FrameModel} for frames so their
+     * children are wrapped once too.
+     */
+    public static ElementModel of(JRDesignElement element) {
+        if (element instanceof net.sf.jasperreports.engine.design.JRDesignFrame) {
+            return new FrameModel((net.sf.jasperreports.engine.design.JRDesignFrame) element);
+        }
+        return new ElementModel(element);
+    }
+
     // Specific Properties
     private final StringProperty text = new SimpleStringProperty();
 
@@ -46,6 +57,14 @@ public class ElementModel {
         }
     }
 
+    /**
+     * Re-reads the wrapped element after it was changed outside this model.
+     * Unchanged values fire no events.
+     */
+    void refresh() {
+        syncFromElement();
+    }
+
     private void setupListeners() {
         this.x.addListener((obs, old, val) -> element.setX(val.intValue()));
         this.y.addListener((obs, old, val) -> element.setY(val.intValue()));
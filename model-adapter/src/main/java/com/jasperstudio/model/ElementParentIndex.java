@@ -0,0 +1,122 @@
+package com.jasperstudio.model;
+
+import net.sf.jasperreports.engine.JRElementGroup;
+import net.sf.jasperreports.engine.design.JRDesignElement;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps every element of a design, at any frame depth, to its model, owning
+ * band and direct container, by identity and by UUID.
+ * <p>
+ * Bands and frames index their element models as they enter and leave their
+ * element lists, so a lookup returns the same model the canvas and the
+ * outline use, and finding an element's parent is a hash lookup instead of a
+ * depth-first search through the bands and frames. Indexing a frame indexes
+ * its whole subtree and lets the frame keep its children indexed from then
+ * on. Changes happen on the FX thread; UUID lookups may come from any thread.
+ */
+public class ElementParentIndex {
+
+    private final Map<JRDesignElement, ElementLocation> locations = new IdentityHashMap<>();
+    private final ConcurrentMap<String, ElementLocation> byUuid = new ConcurrentHashMap<>();
+
+    /**
+     * @return the element's location, or {@code null} if it is not in the
+     *         design
+     */
+    public ElementLocation locate(JRDesignElement element) {
+        return element != null ? locations.get(element) : null;
+    }
+
+    public ElementLocation locate(String uuid) {
+        return uuid != null ? byUuid.get(uuid) : null;
+    }
+
+    /**
+     * @return the element with the given UUID, or {@code null}
+     */
+    public JRDesignElement findElement(String uuid) {
+        ElementLocation location = locate(uuid);
+        return location != null ? location.model().getElement() : null;
+    }
+
+    /**
+     * @return the model of the element with the given UUID, or {@code null}
+     */
+    public ElementModel findModel(String uuid) {
+        ElementLocation location = locate(uuid);
+        return location != null ? location.model() : null;
+    }
+
+    /**
+     * @return the indexed model of a design element, matched by identity or
+     *         else by UUID (e.g. for a copy parsed from the source view), or
+     *         {@code null}
+     */
+    public ElementModel findModel(JRDesignElement element) {
+        ElementLocation location = locate(element);
+        if (location == null && element != null && element.getUUID() != null) {
+            location = locate(element.getUUID().toString());
+        }
+        return location != null ? location.model() : null;
+    }
+
+    public int size() {
+        return locations.size();
+    }
+
+    void addBand(BandModel band) {
+        band.setIndex(this);
+    }
+
+    void removeBand(BandModel band) {
+        band.setIndex(null);
+    }
+
+    /**
+     * Indexes an element model and, for a frame, everything inside it.
+     */
+    void add(BandModel band, JRElementGroup container, ElementModel model) {
+        ElementLocation location = new ElementLocation(band, container, model);
+        locations.put(model.getElement(), location);
+        String id = model.getId();
+        if (id != null) {
+            byUuid.put(id, location);
+        }
+        if (model instanceof FrameModel) {
+            FrameModel frame = (FrameModel) model;
+            frame.setIndex(this, band);
+            for (ElementModel child : frame.getChildren()) {
+                add(band, frame.getFrame(), child);
+            }
+        }
+    }
+
+    /**
+     * Drops an element model, and a frame's subtree, if it is indexed in the
+     * given container.
+     */
+    void remove(JRElementGroup container, ElementModel model) {
+        ElementLocation location = locations.get(model.getElement());
+        // Neither a stale model of the element nor a removal reported after the element
+        // was already added elsewhere (band lists notify late in an update batch) may drop it
+        if (location == null || location.model() != model || location.container() != container)
+            return;
+        locations.remove(model.getElement());
+        String id = model.getId();
+        if (id != null) {
+            byUuid.remove(id, location);
+        }
+        if (model instanceof FrameModel) {
+            FrameModel frame = (FrameModel) model;
+            frame.setIndex(null, null);
+            for (ElementModel child : frame.getChildren()) {
+                remove(frame.getFrame(), child);
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.jasperstudio.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quadtree over the elements of one band, in band coordinates.
+ * <p>
+ * Elements are bucketed by their centre, and every node remembers the largest
+ * half-width and half-height stored below it, so a query only descends into
+ * nodes whose elements can reach the query area. Long, band-wide elements
+ * therefore do not pile up in the root as they would when bucketing by
+ * containment. Those extents shrink again when the element that set them
+ * shrinks or leaves, and subtrees that become empty are dropped. The tree
+ * grows outward when an element lands outside it and never needs a fixed
+ * extent.
+ * <p>
+ * Query results are returned in paint order (the order given to
+ * {@link #setOrder(List)}), bottom first. Not thread-safe; updated on the FX
+ * thread together with the models.
+ */
+public class ElementSpatialIndex {
+
+    private static final int NODE_CAPACITY = 8;
+    private static final double INITIAL_SIZE = 1024;
+    // Nodes this small hold everything that lands in them instead of splitting
+    private static final double MIN_NODE_SIZE = 4;
+
+    private static final class Entry {
+        final ElementModel model;
+        double x;
+        double y;
+        double width;
+        double height;
+        QuadNode owner;
+
+        Entry(ElementModel model) {
+            this.model = model;
+            capture();
+        }
+
+        boolean capture() {
+            double nx = model.getX();
+            double ny = model.getY();
+            double nw = Math.max(0, model.getWidth());
+            double nh = Math.max(0, model.getHeight());
+            boolean changed = nx != x || ny != y || nw != width || nh != height;
+            x = nx;
+            y = ny;
+            width = nw;
+            height = nh;
+            return changed;
+        }
+
+        double centerX() {
+            return x + width / 2;
+        }
+
+        double centerY() {
+            return y + height / 2;
+        }
+
+        boolean intersects(double minX, double minY, double maxX, double maxY) {
+            // Inclusive, so zero-height lines are found by point queries
+            return x <= maxX && x + width >= minX && y <= maxY && y + height >= minY;
+        }
+    }
+
+    private static final class QuadNode {
+        final double minX;
+        final double minY;
+        final double size;
+        QuadNode parent;
+        List<Entry> items = new ArrayList<>();
+        QuadNode[] children;
+        double maxHalfWidth;
+        double maxHalfHeight;
+
+        QuadNode(QuadNode parent, double minX, double minY, double size) {
+            this.parent = parent;
+            this.minX = minX;
+            this.minY = minY;
+            this.size = size;
+        }
+
+        boolean containsCenter(double cx, double cy) {
+            return cx >= minX && cx < minX + size && cy >= minY && cy < minY + size;
+        }
+
+        int childIndex(double cx, double cy) {
+            double half = size / 2;
+            return (cx >= minX + half ? 1 : 0) + (cy >= minY + half ? 2 : 0);
+        }
+
+        void extend(Entry e) {
+            maxHalfWidth = Math.max(maxHalfWidth, e.width / 2);
+            maxHalfHeight = Math.max(maxHalfHeight, e.height / 2);
+        }
+
+        /**
+         * Recomputes the extents from the items and children, dropping the
+         * children once they are all empty leaves.
+         *
+         * @return whether the extents changed
+         */
+        boolean recomputeExtent() {
+            double halfWidth = 0;
+            double halfHeight = 0;
+            for (Entry e : items) {
+                halfWidth = Math.max(halfWidth, e.width / 2);
+                halfHeight = Math.max(halfHeight, e.height / 2);
+            }
+            if (children != null) {
+                boolean empty = true;
+                for (QuadNode child : children) {
+                    halfWidth = Math.max(halfWidth, child.maxHalfWidth);
+                    halfHeight = Math.max(halfHeight, child.maxHalfHeight);
+                    empty &= child.children == null && child.items.isEmpty();
+                }
+                if (empty) {
+                    children = null;
+                }
+            }
+            boolean changed = halfWidth != maxHalfWidth || halfHeight != maxHalfHeight;
+            maxHalfWidth = halfWidth;
+            maxHalfHeight = halfHeight;
+            return changed;
+        }
+
+        boolean mayIntersect(double qMinX, double qMinY, double qMaxX, double qMaxY) {
+            return minX - maxHalfWidth <= qMaxX && minX + size + maxHalfWidth >= qMinX
+                    && minY - maxHalfHeight <= qMaxY && minY + size + maxHalfHeight >= qMinY;
+        }
+    }
+
+    private QuadNode root = new QuadNode(null, 0, 0, INITIAL_SIZE);
+    private final Map<ElementModel, Entry> entries = new IdentityHashMap<>();
+    private final Map<ElementModel, Integer> order = new IdentityHashMap<>();
+    private final Comparator<Entry> paintOrder = Comparator.comparingInt(e -> order.getOrDefault(e.model, -1));
+
+    public void add(ElementModel model) {
+        if (entries.containsKey(model)) {
+            update(model);
+            return;
+        }
+        Entry entry = new Entry(model);
+        entries.put(model, entry);
+        insert(entry);
+    }
+
+    public void remove(ElementModel model) {
+        Entry entry = entries.remove(model);
+        if (entry != null) {
+            detach(entry, entry.width / 2, entry.height / 2);
+        }
+        order.remove(model);
+    }
+
+    /**
+     * Re-files an element after its position or size changed.
+     */
+    public void update(ElementModel model) {
+        Entry entry = entries.get(model);
+        if (entry == null) {
+            return;
+        }
+        double halfWidth = entry.width / 2;
+        double halfHeight = entry.height / 2;
+        if (!entry.capture()) {
+            return;
+        }
+        detach(entry, halfWidth, halfHeight);
+        insert(entry);
+    }
+
+    /**
+     * Sets the paint order used to sort query results, normally the band's
+     * element list.
+     */
+    public void setOrder(List<ElementModel> elements) {
+        order.clear();
+        updateOrder(elements, 0);
+    }
+
+    /**
+     * Renumbers the paint order from {@code from} on, after the list changed
+     * only there; earlier positions are kept. Appending an element therefore
+     * costs one entry rather than a pass over the whole band.
+     */
+    public void updateOrder(List<ElementModel> elements, int from) {
+        for (int i = Math.max(0, from); i < elements.size(); i++) {
+            order.put(elements.get(i), i);
+        }
+    }
+
+    public boolean contains(ElementModel model) {
+        return entries.containsKey(model);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        order.clear();
+        root = new QuadNode(null, 0, 0, INITIAL_SIZE);
+    }
+
+    /**
+     * @return elements overlapping the rectangle, edges included, in paint
+     *         order
+     */
+    public List<ElementModel> query(double x, double y, double width, double height) {
+        List<Entry> found = new ArrayList<>();
+        collect(root, x, y, x + width, y + height, found);
+        found.sort(paintOrder);
+        List<ElementModel> result = new ArrayList<>(found.size());
+        for (Entry e : found) {
+            result.add(e.model);
+        }
+        return result;
+    }
+
+    /**
+     * @return the topmost element containing the point, or {@code null}
+     */
+    public ElementModel topmostAt(double x, double y) {
+        List<Entry> found = new ArrayList<>();
+        collect(root, x, y, x, y, found);
+        Entry top = null;
+        for (Entry e : found) {
+            if (top == null || paintOrder.compare(e, top) > 0) {
+                top = e;
+            }
+        }
+        return top != null ? top.model : null;
+    }
+
+    private void collect(QuadNode node, double minX, double minY, double maxX, double maxY, List<Entry> out) {
+        if (!node.mayIntersect(minX, minY, maxX, maxY)) {
+            return;
+        }
+        for (Entry e : node.items) {
+            if (e.intersects(minX, minY, maxX, maxY)) {
+                out.add(e);
+            }
+        }
+        if (node.children != null) {
+            for (QuadNode child : node.children) {
+                collect(child, minX, minY, maxX, maxY, out);
+            }
+        }
+    }
+
+    /**
+     * Widest half-width and half-height stored in the tree, i.e. how far a
+     * query reaches beyond a node's bounds.
+     */
+    double[] getReach() {
+        return new double[] { root.maxHalfWidth, root.maxHalfHeight };
+    }
+
+    /**
+     * Takes an entry out of its node and shrinks the extents of the nodes
+     * above it that it set, given its half-extents when it was filed.
+     */
+    private static void detach(Entry entry, double halfWidth, double halfHeight) {
+        QuadNode node = entry.owner;
+        node.items.remove(entry);
+        entry.owner = null;
+        // Ancestors' extents are at least their descendants', so once the entry set neither
+        // extent of a node, or removing it left them unchanged, nothing above changes either
+        while (node != null && (halfWidth >= node.maxHalfWidth || halfHeight >= node.maxHalfHeight)
+                && node.recomputeExtent()) {
+            node = node.parent;
+        }
+    }
+
+    private void insert(Entry entry) {
+        // A non-finite coordinate would grow the root forever
+        double cx = Double.isFinite(entry.centerX()) ? entry.centerX() : 0;
+        double cy = Double.isFinite(entry.centerY()) ? entry.centerY() : 0;
+        while (!root.containsCenter(cx, cy)) {
+            grow(cx, cy);
+        }
+
+        QuadNode node = root;
+        node.extend(entry);
+        while (node.children != null) {
+            node = node.children[node.childIndex(cx, cy)];
+            node.extend(entry);
+        }
+        node.items.add(entry);
+        entry.owner = node;
+
+        if (node.items.size() > NODE_CAPACITY && node.size > MIN_NODE_SIZE) {
+            split(node);
+        }
+    }
+
+    private void split(QuadNode node) {
+        double half = node.size / 2;
+        node.children = new QuadNode[4];
+        for (int i = 0; i < 4; i++) {
+            node.children[i] = new QuadNode(node, node.minX + (i & 1) * half, node.minY + (i >> 1) * half, half);
+        }
+        List<Entry> items = node.items;
+        node.items = new ArrayList<>();
+        for (Entry e : items) {
+            QuadNode child = node.children[node.childIndex(e.centerX(), e.centerY())];
+            child.items.add(e);
+            child.extend(e);
+            e.owner = child;
+        }
+        // Identical centres can all land in one child; keep splitting that one
+        for (QuadNode child : node.children) {
+            if (child.items.size() > NODE_CAPACITY && child.size > MIN_NODE_SIZE) {
+                split(child);
+            }
+        }
+    }
+
+    /**
+     * Doubles the root towards the point, keeping the old root as a quadrant.
+     */
+    private void grow(double cx, double cy) {
+        double size = root.size;
+        boolean left = cx < root.minX;
+        boolean up = cy < root.minY;
+        QuadNode grown = new QuadNode(null, left ? root.minX - size : root.minX, up ? root.minY - size : root.minY,
+                size * 2);
+        grown.children = new QuadNode[4];
+        int oldIndex = (left ? 1 : 0) + (up ? 2 : 0);
+        for (int i = 0; i < 4; i++) {
+            grown.children[i] = i == oldIndex ? root
+                    : new QuadNode(grown, grown.minX + (i & 1) * size, grown.minY + (i >> 1) * size, size);
+        }
+        root.parent = grown;
+        grown.maxHalfWidth = root.maxHalfWidth;
+        grown.maxHalfHeight = root.maxHalfHeight;
+        root = grown;
+    }
+}
@@ -0,0 +1,133 @@
+package com.jasperstudio.model;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import net.sf.jasperreports.engine.JRChild;
+import net.sf.jasperreports.engine.JRElementGroup;
+import net.sf.jasperreports.engine.design.JRDesignElement;
+import net.sf.jasperreports.engine.design.JRDesignFrame;
+
+/**
+ * Wrapper for a {@link JRDesignFrame} that keeps one model per child element.
+ * <p>
+ * Children are wrapped once, when the frame model is created, and then kept
+ * in step through {@link #addElement} and {@link #removeElement}, so views
+ * that render a frame again get the same child models, with the same
+ * properties and listeners, instead of fresh wrappers around the same
+ * design elements.
+ */
+public class FrameModel extends ElementModel {
+
+    private final ObservableList<ElementModel> children = FXCollections.observableArrayList();
+    private final ObservableList<ElementModel> readOnlyChildren = FXCollections.unmodifiableObservableList(children);
+    private ElementParentIndex index;
+    private BandModel band;
+
+    public FrameModel(JRDesignFrame frame) {
+        super(frame);
+        syncChildren();
+        children.addListener(this::updateIndex);
+    }
+
+    @Override
+    void refresh() {
+        super.refresh();
+        syncChildren();
+    }
+
+    /**
+     * Matches the child models to the frame's children by identity, keeping
+     * the models of children that are still there.
+     */
+    private void syncChildren() {
+        java.util.Map<JRDesignElement, ElementModel> existing = new java.util.IdentityHashMap<>();
+        for (ElementModel child : children) {
+            existing.put(child.getElement(), child);
+        }
+        java.util.List<ElementModel> target = new java.util.ArrayList<>();
+        for (JRChild child : getFrame().getChildren()) {
+            if (child instanceof JRDesignElement) {
+                ElementModel model = existing.get(child);
+                if (model != null) {
+                    model.refresh();
+                } else {
+                    model = ElementModel.of((JRDesignElement) child);
+                }
+                target.add(model);
+            }
+        }
+        ListDiff.apply(children, target);
+    }
+
+    /**
+     * Index the children are kept in while this frame is part of a design,
+     * and the band it is in; set by {@link ElementParentIndex}.
+     */
+    void setIndex(ElementParentIndex index, BandModel band) {
+        this.index = index;
+        this.band = band;
+    }
+
+    private void updateIndex(javafx.collections.ListChangeListener.Change<? extends ElementModel> c) {
+        if (index == null)
+            return;
+        while (c.next()) {
+            for (ElementModel removed : c.getRemoved()) {
+                index.remove(getFrame(), removed);
+            }
+            for (ElementModel added : c.getAddedSubList()) {
+                index.add(band, getFrame(), added);
+            }
+        }
+    }
+
+    public JRDesignFrame getFrame() {
+        return (JRDesignFrame) getElement();
+    }
+
+    /**
+     * Child models in paint order; change them through {@link #addElement}
+     * and {@link #removeElement}.
+     */
+    public ObservableList<ElementModel> getChildren() {
+        return readOnlyChildren;
+    }
+
+    public void addElement(ElementModel model) {
+        getFrame().addElement(model.getElement());
+        children.add(model);
+    }
+
+    public void removeElement(ElementModel model) {
+        getFrame().removeElement(model.getElement());
+        children.removeIf(child -> child.getElement() == model.getElement());
+    }
+
+    /**
+     * @return the cached model of a direct child, or {@code null}
+     */
+    public ElementModel getChild(JRDesignElement element) {
+        for (ElementModel child : children) {
+            if (child.getElement() == element)
+                return child;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the model of a frame at any depth below this one, or this frame
+     * itself.
+     */
+    public FrameModel findFrame(JRElementGroup frame) {
+        if (getElement() == frame)
+            return this;
+        for (ElementModel child : children) {
+            if (child instanceof FrameModel) {
+                FrameModel found = ((FrameModel) child).findFrame(frame);
+                if (found != null)
+                    return found;
+            }
+        }
+        return null;
+    }
+}
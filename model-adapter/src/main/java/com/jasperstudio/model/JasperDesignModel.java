@@ -48,31 +48,104 @@ public class JasperDesignModel {
             this.queryString.set("");
         }
 
-        // Sync Bands
-        this.bands.clear();
-        addBandToModel("Title", design.getTitle());
-        addBandToModel("Page Header", design.getPageHeader());
-        addBandToModel("Column Header", design.getColumnHeader());
+        // Frame children are not in the band lists; remember them to report what changed
+        java.util.Map<FrameModel, java.util.List<ElementModel>> frameChildren = new java.util.LinkedHashMap<>();
+        for (BandModel band : bands) {
+            collectFrameChildren(band.getElements(), frameChildren);
+        }
 
-        // Detail
-        net.sf.jasperreports.engine.JRBand detail = null;
-        if (design.getDetailSection() != null && design.getDetailSection().getBands() != null
-                && design.getDetailSection().getBands().length > 0) {
-            detail = design.getDetailSection().getBands()[0];
+        // Sync Bands: keep the models of bands that are still there and diff their elements
+        beginUpdate();
+        try {
+            for (String type : BAND_TYPES) {
+                net.sf.jasperreports.engine.JRBand jrBand = bandFor(type);
+                BandModel existing = getBand(type);
+                if (existing != null && existing.getBand() == jrBand) {
+                    existing.syncFromBand();
+                } else {
+                    replaceBand(type, existing, jrBand);
+                }
+            }
+            for (java.util.Map.Entry<FrameModel, java.util.List<ElementModel>> entry : frameChildren.entrySet()) {
+                fireFrameChanges(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            endUpdate();
         }
-        addBandToModel("Detail", detail);
+    }
 
-        addBandToModel("Column Footer", design.getColumnFooter());
-        addBandToModel("Page Footer", design.getPageFooter());
-        addBandToModel("Last Page Footer", design.getLastPageFooter());
-        addBandToModel("Summary", design.getSummary());
-        addBandToModel("No Data", design.getNoData());
-        addBandToModel("Background", design.getBackground());
+    private static void collectFrameChildren(java.util.List<ElementModel> elements,
+            java.util.Map<FrameModel, java.util.List<ElementModel>> frameChildren) {
+        for (ElementModel em : elements) {
+            if (em instanceof FrameModel) {
+                FrameModel frame = (FrameModel) em;
+                frameChildren.put(frame, java.util.List.copyOf(frame.getChildren()));
+                collectFrameChildren(frame.getChildren(), frameChildren);
+            }
+        }
+    }
+
+    /**
+     * Reports the children a sync removed from or added to a frame that is
+     * still in the design. A frame that left the design is covered by the
+     * change to its own container.
+     */
+    private void fireFrameChanges(FrameModel frame, java.util.List<ElementModel> before) {
+        ElementLocation location = parentIndex.locate(frame.getElement());
+        if (location == null || location.model() != frame)
+            return;
+        java.util.Set<ElementModel> after = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+        after.addAll(frame.getChildren());
+        java.util.Set<ElementModel> kept = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+        for (ElementModel child : before) {
+            if (after.contains(child)) {
+                kept.add(child);
+            } else {
+                fireDesignChange(DesignChangeEvent.elementRemoved(location.band(), frame.getFrame(), child));
+            }
+        }
+        for (ElementModel child : frame.getChildren()) {
+            if (!kept.contains(child)) {
+                fireDesignChange(DesignChangeEvent.elementAdded(location.band(), frame.getFrame(), child));
+            }
+        }
     }
 
-    private void addBandToModel(String type, net.sf.jasperreports.engine.JRBand band) {
-        if (band instanceof net.sf.jasperreports.engine.design.JRDesignBand) {
-            this.bands.add(new BandModel(type, (net.sf.jasperreports.engine.design.JRDesignBand) band));
+    /**
+     * Band types in display order.
+     */
+    private static final java.util.List<String> BAND_TYPES = java.util.List.of("Title", "Page Header",
+            "Column Header", "Detail", "Column Footer", "Page Footer", "Last Page Footer", "Summary", "No Data",
+            "Background");
+
+    private net.sf.jasperreports.engine.JRBand bandFor(String type) {
+        switch (type) {
+            case "Title":
+                return design.getTitle();
+            case "Page Header":
+                return design.getPageHeader();
+            case "Column Header":
+                return design.getColumnHeader();
+            case "Detail":
+                if (design.getDetailSection() != null && design.getDetailSection().getBands() != null
+                        && design.getDetailSection().getBands().length > 0) {
+                    return design.getDetailSection().getBands()[0];
+                }
+                return null;
+            case "Column Footer":
+                return design.getColumnFooter();
+            case "Page Footer":
+                return design.getPageFooter();
+            case "Last Page Footer":
+                return design.getLastPageFooter();
+            case "Summary":
+                return design.getSummary();
+            case "No Data":
+                return design.getNoData();
+            case "Background":
+                return design.getBackground();
+            default:
+                return null;
         }
     }
 
@@ -111,7 +184,199 @@ public class JasperDesignModel {
         // Default to Title if used directly
         BandModel title = getBand("Title");
         if (title != null)
-            title.addElement(element);
+            addElement(title, title.getBand(), element);
+    }
+
+    // Structural Changes
+    private final ElementParentIndex parentIndex = new ElementParentIndex();
+    private final java.util.List<DesignChangeListener> changeListeners = new java.util.concurrent.CopyOnWriteArrayList<>();
+
+    public void addDesignChangeListener(DesignChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeDesignChangeListener(DesignChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    // Changes held back until the outermost endUpdate()
+    private final java.util.List<DesignChangeEvent> pendingChanges = new java.util.ArrayList<>();
+    private final java.util.Set<BandModel> heldBands = new java.util.LinkedHashSet<>();
+    private int updateDepth;
+
+    /**
+     * Starts a batch of changes: design change listeners are not called until
+     * the matching {@link #endUpdate()}, which passes them all the changes at
+     * once. Batches nest; only the outermost one delivers.
+     * <p>
+     * The band element lists are still updated as each change is made, but
+     * notify their own listeners (views, spatial and parent index) once per
+     * band, with all of the batch's changes, right before the design change
+     * listeners are called.
+     */
+    public void beginUpdate() {
+        updateDepth++;
+    }
+
+    /**
+     * Ends the batch started by {@link #beginUpdate()}.
+     */
+    public void endUpdate() {
+        if (updateDepth == 0)
+            throw new IllegalStateException("endUpdate() without beginUpdate()");
+        if (--updateDepth > 0)
+            return;
+        if (!heldBands.isEmpty()) {
+            java.util.List<BandModel> held = java.util.List.copyOf(heldBands);
+            heldBands.clear();
+            for (BandModel band : held) {
+                band.endBatch();
+            }
+        }
+        if (pendingChanges.isEmpty())
+            return;
+        java.util.List<DesignChangeEvent> changes = java.util.List.copyOf(pendingChanges);
+        pendingChanges.clear();
+        for (DesignChangeListener listener : changeListeners) {
+            listener.designChanged(changes);
+        }
+    }
+
+    public boolean isUpdating() {
+        return updateDepth > 0;
+    }
+
+    private void fireDesignChange(DesignChangeEvent event) {
+        if (updateDepth > 0) {
+            pendingChanges.add(event);
+            return;
+        }
+        for (DesignChangeListener listener : changeListeners) {
+            listener.designChanged(event);
+        }
+    }
+
+    /**
+     * Adds an element to a band or to a frame inside it.
+     *
+     * @param container the band's {@code JRDesignBand} or a frame within it
+     */
+    public void addElement(BandModel band, net.sf.jasperreports.engine.JRElementGroup container, ElementModel model) {
+        attach(band, container, model);
+        fireDesignChange(DesignChangeEvent.elementAdded(band, container, model));
+    }
+
+    /**
+     * Removes an element from a band or from a frame inside it.
+     */
+    public void removeElement(BandModel band, net.sf.jasperreports.engine.JRElementGroup container,
+            ElementModel model) {
+        detach(band, container, model);
+        fireDesignChange(DesignChangeEvent.elementRemoved(band, container, model));
+    }
+
+    /**
+     * Moves an element between containers, e.g. from one band to another or
+     * into a frame, as a single change.
+     */
+    public void moveElement(ElementModel model, BandModel fromBand,
+            net.sf.jasperreports.engine.JRElementGroup from, BandModel toBand,
+            net.sf.jasperreports.engine.JRElementGroup to) {
+        detach(fromBand, from, model);
+        attach(toBand, to, model);
+        fireDesignChange(DesignChangeEvent.elementReparented(fromBand, from, toBand, to, model));
+    }
+
+    /**
+     * Re-reads one band slot after the band was created or deleted in the
+     * underlying design, leaving the other bands and their elements untouched.
+     */
+    public void refreshBand(String type) {
+        net.sf.jasperreports.engine.JRBand jrBand = bandFor(type);
+        BandModel existing = getBand(type);
+        if (existing != null && existing.getBand() == jrBand)
+            return;
+        replaceBand(type, existing, jrBand);
+    }
+
+    private void replaceBand(String type, BandModel existing, net.sf.jasperreports.engine.JRBand jrBand) {
+        if (existing != null) {
+            bands.remove(existing);
+            parentIndex.removeBand(existing);
+        }
+
+        BandModel created = null;
+        if (jrBand instanceof net.sf.jasperreports.engine.design.JRDesignBand) {
+            created = new BandModel(type, (net.sf.jasperreports.engine.design.JRDesignBand) jrBand);
+            int order = BAND_TYPES.indexOf(type);
+            int index = 0;
+            while (index < bands.size() && BAND_TYPES.indexOf(bands.get(index).getType()) < order) {
+                index++;
+            }
+            bands.add(index, created);
+            parentIndex.addBand(created);
+        }
+        if (existing != null || created != null) {
+            fireDesignChange(DesignChangeEvent.bandChanged(type, existing, created));
+        }
+    }
+
+    /**
+     * Index of every element's model, band and direct container, by identity
+     * and by UUID.
+     */
+    public ElementParentIndex getParentIndex() {
+        return parentIndex;
+    }
+
+    /**
+     * @return the model of the element with the given UUID, or {@code null}
+     */
+    public ElementModel findElement(String uuid) {
+        return parentIndex.findModel(uuid);
+    }
+
+    /**
+     * @return where the element sits in this design, or {@code null}
+     */
+    public ElementLocation locate(net.sf.jasperreports.engine.design.JRDesignElement element) {
+        return parentIndex.locate(element);
+    }
+
+    private void attach(BandModel band, net.sf.jasperreports.engine.JRElementGroup container,
+            ElementModel model) {
+        FrameModel frame;
+        if (container == band.getBand()) {
+            holdListChanges(band);
+            band.addElement(model);
+        } else if ((frame = band.findFrame(container)) != null) {
+            frame.addElement(model);
+        } else if (container instanceof net.sf.jasperreports.engine.design.JRDesignFrame) {
+            ((net.sf.jasperreports.engine.design.JRDesignFrame) container).addElement(model.getElement());
+        } else if (container instanceof net.sf.jasperreports.engine.design.JRDesignElementGroup) {
+            ((net.sf.jasperreports.engine.design.JRDesignElementGroup) container).addElement(model.getElement());
+        }
+    }
+
+    private void detach(BandModel band, net.sf.jasperreports.engine.JRElementGroup container,
+            ElementModel model) {
+        FrameModel frame;
+        if (container == band.getBand()) {
+            holdListChanges(band);
+            band.removeElement(model);
+        } else if ((frame = band.findFrame(container)) != null) {
+            frame.removeElement(model);
+        } else if (container instanceof net.sf.jasperreports.engine.design.JRDesignFrame) {
+            ((net.sf.jasperreports.engine.design.JRDesignFrame) container).removeElement(model.getElement());
+        } else if (container instanceof net.sf.jasperreports.engine.design.JRDesignElementGroup) {
+            ((net.sf.jasperreports.engine.design.JRDesignElementGroup) container).removeElement(model.getElement());
+        }
+    }
+
+    private void holdListChanges(BandModel band) {
+        if (updateDepth > 0 && heldBands.add(band)) {
+            band.beginBatch();
+        }
     }
 
     public BandModel getBand(String type) {
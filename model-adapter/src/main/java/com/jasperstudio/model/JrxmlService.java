@@ -47,19 +47,28 @@ public class JrxmlService {
      * Serializes a single element by wrapping it in a dummy design.
      */
     public String serializeElement(net.sf.jasperreports.engine.design.JRDesignElement element) throws JRException {
+        return serializeElements(java.util.List.of(element));
+    }
+
+    /**
+     * Serializes several elements into one dummy design, so copying a large
+     * selection writes a single document.
+     */
+    public String serializeElements(java.util.List<net.sf.jasperreports.engine.design.JRDesignElement> elements)
+            throws JRException {
         net.sf.jasperreports.engine.design.JasperDesign dummy = new net.sf.jasperreports.engine.design.JasperDesign();
         dummy.setName("ClipboardWrapper");
         net.sf.jasperreports.engine.design.JRDesignBand band = new net.sf.jasperreports.engine.design.JRDesignBand();
-        band.setHeight(element.getHeight() + element.getY() + 100);
+        int height = 0;
 
-        // Clone element to safely add to dummy?
-        // JRDesignElement is mutable. Clone it to avoid detaching from original parent
-        // if we were to just add it.
-        // Actually, for serialization, adding it temporarily is fine if we are careful,
-        // but cloning is safer to avoid parent-check side effects.
-        net.sf.jasperreports.engine.design.JRDesignElement clone = (net.sf.jasperreports.engine.design.JRDesignElement) element
-                .clone();
-        band.addElement(clone);
+        for (net.sf.jasperreports.engine.design.JRDesignElement element : elements) {
+            // Clone element to avoid detaching it from its original parent
+            net.sf.jasperreports.engine.design.JRDesignElement clone = (net.sf.jasperreports.engine.design.JRDesignElement) element
+                    .clone();
+            band.addElement(clone);
+            height = Math.max(height, element.getHeight() + element.getY());
+        }
+        band.setHeight(height + 100);
         dummy.setTitle(band);
 
         java.io.ByteArrayOutputStream os = new java.io.ByteArrayOutputStream();
@@ -71,14 +80,25 @@ public class JrxmlService {
      * Deserializes a single element from a dummy design wrapper.
      */
     public net.sf.jasperreports.engine.design.JRDesignElement deserializeElement(String xml) throws JRException {
+        java.util.List<net.sf.jasperreports.engine.design.JRDesignElement> elements = deserializeElements(xml);
+        return elements.isEmpty() ? null : elements.get(0);
+    }
+
+    /**
+     * Deserializes every element of a dummy design wrapper, in order.
+     */
+    public java.util.List<net.sf.jasperreports.engine.design.JRDesignElement> deserializeElements(String xml)
+            throws JRException {
         try (java.io.ByteArrayInputStream is = new java.io.ByteArrayInputStream(
                 xml.getBytes(java.nio.charset.StandardCharsets.UTF_8))) {
             net.sf.jasperreports.engine.design.JasperDesign dummy = JRXmlLoader.load(is);
-            if (dummy.getTitle() != null && dummy.getTitle().getElements() != null
-                    && dummy.getTitle().getElements().length > 0) {
-                return (net.sf.jasperreports.engine.design.JRDesignElement) dummy.getTitle().getElements()[0];
+            java.util.List<net.sf.jasperreports.engine.design.JRDesignElement> elements = new java.util.ArrayList<>();
+            if (dummy.getTitle() != null && dummy.getTitle().getElements() != null) {
+                for (net.sf.jasperreports.engine.JRElement element : dummy.getTitle().getElements()) {
+                    elements.add((net.sf.jasperreports.engine.design.JRDesignElement) element);
+                }
             }
-            return null;
+            return elements;
         } catch (Exception e) {
             throw new JRException("Failed to deserialize element", e);
         }
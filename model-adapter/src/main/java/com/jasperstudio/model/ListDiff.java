@@ -0,0 +1,64 @@
+package com.jasperstudio.model;
+
+import javafx.collections.ObservableList;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Brings an observable model list into a target order with as few list
+ * changes as possible, comparing entries by identity.
+ */
+final class ListDiff {
+
+    private ListDiff() {
+    }
+
+    static <T> void apply(ObservableList<T> list, List<T> target) {
+        if (list.isEmpty()) {
+            if (!target.isEmpty())
+                list.setAll(target);
+            return;
+        }
+
+        Set<T> wanted = Collections.newSetFromMap(new IdentityHashMap<>());
+        wanted.addAll(target);
+        Set<T> present = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        // Drop what is gone, a contiguous run at a time
+        int end = list.size();
+        while (end > 0) {
+            if (wanted.contains(list.get(end - 1))) {
+                present.add(list.get(end - 1));
+                end--;
+                continue;
+            }
+            int start = end - 1;
+            while (start > 0 && !wanted.contains(list.get(start - 1))) {
+                start--;
+            }
+            list.remove(start, end);
+            end = start;
+        }
+
+        // Insert new entries and move reordered ones into place
+        for (int i = 0; i < target.size(); i++) {
+            T item = target.get(i);
+            if (i < list.size() && list.get(i) == item)
+                continue;
+            if (present.contains(item)) {
+                for (int j = i + 1; j < list.size(); j++) {
+                    if (list.get(j) == item) {
+                        list.remove(j);
+                        break;
+                    }
+                }
+            } else {
+                present.add(item);
+            }
+            list.add(i, item);
+        }
+    }
+}
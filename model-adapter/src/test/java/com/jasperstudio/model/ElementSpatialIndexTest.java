@@ -0,0 +1,113 @@
+package com.jasperstudio.model;
+
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JRDesignStaticText;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ElementSpatialIndexTest {
+
+    private ElementModel element(int x, int y, int width, int height) {
+        JRDesignStaticText text = new JRDesignStaticText();
+        text.setX(x);
+        text.setY(y);
+        text.setWidth(width);
+        text.setHeight(height);
+        return new ElementModel(text);
+    }
+
+    @Test
+    public void testQueriesFollowBandEdits() {
+        BandModel band = new BandModel("Detail", new JRDesignBand());
+        ElementModel wide = element(0, 0, 555, 20);
+        band.addElement(wide);
+        ElementModel last = null;
+        // Enough cells to force splits, plus one far outside the initial extent
+        for (int row = 0; row < 40; row++) {
+            for (int col = 0; col < 5; col++) {
+                last = element(col * 100, 20 + row * 20, 100, 20);
+                band.addElement(last);
+            }
+        }
+        ElementModel far = element(-3000, 5000, 10, 10);
+        band.addElement(far);
+
+        ElementSpatialIndex index = band.getSpatialIndex();
+        assertEquals(202, index.size());
+        assertSame(wide, index.topmostAt(500, 10));
+        assertSame(far, index.topmostAt(-2995, 5005));
+        assertEquals(3, index.query(100, 30, 100, 0).size());
+
+        // Moves are picked up from the model properties
+        last.setX(2000);
+        assertNull(index.topmostAt(450, 20 + 39 * 20 + 10));
+        assertSame(last, index.topmostAt(2050, 20 + 39 * 20 + 10));
+
+        band.removeElement(wide);
+        assertNull(index.topmostAt(500, 10));
+        assertFalse(index.contains(wide));
+    }
+
+    @Test
+    public void testOverlapsResolveToTopmost() {
+        BandModel band = new BandModel("Title", new JRDesignBand());
+        ElementModel bottom = element(0, 0, 100, 100);
+        ElementModel top = element(50, 50, 100, 100);
+        band.addElement(bottom);
+        band.addElement(top);
+
+        assertSame(top, band.getSpatialIndex().topmostAt(75, 75));
+        List<ElementModel> both = band.getSpatialIndex().query(60, 60, 10, 10);
+        assertEquals(List.of(bottom, top), both);
+    }
+
+    @Test
+    public void testQueryReachShrinksWhenWideElementShrinksOrLeaves() {
+        BandModel band = new BandModel("Title", new JRDesignBand());
+        for (int i = 0; i < 40; i++) {
+            band.addElement(element(i * 20, i * 20, 10, 10));
+        }
+        ElementModel wide = element(0, 500, 2000, 10);
+        band.addElement(wide);
+        ElementSpatialIndex index = band.getSpatialIndex();
+        assertEquals(1000, index.getReach()[0]);
+
+        wide.setWidth(40);
+        assertEquals(20, index.getReach()[0]);
+        assertSame(wide, index.topmostAt(30, 505));
+
+        wide.setWidth(3000);
+        band.removeElement(wide);
+        assertEquals(5, index.getReach()[0]);
+        assertEquals(5, index.getReach()[1]);
+        assertNull(index.topmostAt(1500, 505));
+        assertEquals(40, index.size());
+    }
+
+    @Test
+    public void testPaintOrderFollowsListChanges() {
+        BandModel band = new BandModel("Title", new JRDesignBand());
+        ElementModel a = element(0, 0, 100, 100);
+        ElementModel b = element(10, 10, 100, 100);
+        ElementModel c = element(20, 20, 100, 100);
+        band.addElement(a);
+        band.addElement(b);
+        band.addElement(c);
+        ElementSpatialIndex index = band.getSpatialIndex();
+        assertEquals(List.of(a, b, c), index.query(50, 50, 1, 1));
+
+        // Sending the top element to the back renumbers everything after it
+        band.getElements().remove(c);
+        band.getElements().add(0, c);
+        assertEquals(List.of(c, a, b), index.query(50, 50, 1, 1));
+        assertSame(b, index.topmostAt(50, 50));
+
+        band.removeElement(a);
+        ElementModel d = element(30, 30, 100, 100);
+        band.addElement(d);
+        assertEquals(List.of(c, b, d), index.query(50, 50, 1, 1));
+    }
+}
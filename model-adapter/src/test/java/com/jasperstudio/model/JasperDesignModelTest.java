@@ -1,7 +1,13 @@
 package com.jasperstudio.model;
 
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JRDesignFrame;
+import net.sf.jasperreports.engine.design.JRDesignStaticText;
 import net.sf.jasperreports.engine.design.JasperDesign;
 import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class JasperDesignModelTest {
@@ -26,4 +32,363 @@ public class JasperDesignModelTest {
         assertEquals("NewReport", mockDesign.getName());
         assertEquals(800, mockDesign.getPageWidth());
     }
+
+    @Test
+    public void testFrameChildrenAreCachedAcrossMoves() {
+        JasperDesign jd = new JasperDesign();
+        JRDesignBand title = new JRDesignBand();
+        JRDesignFrame frame = new JRDesignFrame();
+        JRDesignStaticText nested = new JRDesignStaticText();
+        frame.addElement(nested);
+        title.addElement(frame);
+        jd.setTitle(title);
+
+        JasperDesignModel model = new JasperDesignModel(jd);
+        List<DesignChangeEvent> events = new ArrayList<>();
+        model.addDesignChangeListener(events::add);
+
+        BandModel band = model.getBand("Title");
+        FrameModel frameModel = (FrameModel) band.getElements().get(0);
+        ElementModel nestedModel = frameModel.getChildren().get(0);
+        assertSame(nestedModel, frameModel.getChild(nested));
+
+        // Out of the frame into the band and back keeps the same model
+        model.moveElement(nestedModel, band, frame, band, title);
+        assertTrue(frameModel.getChildren().isEmpty());
+        assertSame(nestedModel, band.getElements().get(1));
+
+        model.moveElement(nestedModel, band, title, band, frame);
+        assertSame(nestedModel, frameModel.getChildren().get(0));
+        assertSame(nested, frame.getElements()[0]);
+
+        assertEquals(2, events.size());
+        assertEquals(DesignChangeEvent.Type.ELEMENT_REPARENTED, events.get(1).getType());
+        assertTrue(events.get(1).isInFrame());
+        assertSame(nestedModel, events.get(1).getModel());
+    }
+
+    @Test
+    public void testParentIndexFollowsStructuralChanges() {
+        JasperDesign jd = new JasperDesign();
+        JRDesignBand title = new JRDesignBand();
+        JRDesignFrame outer = new JRDesignFrame();
+        JRDesignFrame inner = new JRDesignFrame();
+        JRDesignStaticText deep = new JRDesignStaticText();
+        inner.addElement(deep);
+        outer.addElement(inner);
+        title.addElement(outer);
+        jd.setTitle(title);
+
+        JasperDesignModel model = new JasperDesignModel(jd);
+        BandModel band = model.getBand("Title");
+        assertSame(inner, model.locate(deep).container());
+        assertSame(band, model.locate(deep).band());
+        assertTrue(model.locate(deep).inFrame());
+        assertSame(deep, model.getParentIndex().findElement(deep.getUUID().toString()));
+
+        // Moving the inner frame to the band moves its subtree with it
+        ElementModel innerModel = ((FrameModel) band.getElements().get(0)).getChildren().get(0);
+        model.moveElement(innerModel, band, outer, band, title);
+        assertSame(title, model.locate(inner).container());
+        assertSame(inner, model.locate(deep).container());
+
+        model.removeElement(band, title, innerModel);
+        assertNull(model.locate(inner));
+        assertNull(model.locate(deep));
+        assertNull(model.getParentIndex().findElement(deep.getUUID().toString()));
+        assertEquals(1, model.getParentIndex().size());
+    }
+
+    @Test
+    public void testIndexResolvesUuidsAtAnyDepth() {
+        JasperDesign jd = new JasperDesign();
+        JRDesignBand title = new JRDesignBand();
+        JRDesignFrame frame = new JRDesignFrame();
+        JRDesignStaticText nested = new JRDesignStaticText();
+        frame.addElement(nested);
+        title.addElement(frame);
+        jd.setTitle(title);
+
+        JasperDesignModel model = new JasperDesignModel(jd);
+        BandModel band = model.getBand("Title");
+        FrameModel frameModel = (FrameModel) band.getElements().get(0);
+        ElementModel nestedModel = frameModel.getChildren().get(0);
+        assertSame(frameModel, model.findElement(frame.getUUID().toString()));
+        assertSame(nestedModel, model.findElement(nested.getUUID().toString()));
+
+        ElementModel added = ElementModel.of(new JRDesignStaticText());
+        frameModel.addElement(added);
+        assertSame(added, model.getParentIndex().findModel(added.getElement()));
+        assertSame(frame, model.locate(added.getElement()).container());
+        assertSame(added, model.getParentIndex().locate(added.getId()).model());
+
+        // Removing the frame drops its subtree
+        band.removeElement(frameModel);
+        assertNull(model.findElement(nested.getUUID().toString()));
+        assertNull(model.findElement(added.getId()));
+        assertEquals(0, model.getParentIndex().size());
+    }
+
+    @Test
+    public void testSyncKeepsModelsAndFiresMinimalChanges() {
+        JasperDesign jd = new JasperDesign();
+        JRDesignBand title = new JRDesignBand();
+        JRDesignStaticText first = new JRDesignStaticText();
+        JRDesignStaticText second = new JRDesignStaticText();
+        title.addElement(first);
+        title.addElement(second);
+        jd.setTitle(title);
+
+        JasperDesignModel model = new JasperDesignModel(jd);
+        BandModel band = model.getBand("Title");
+        ElementModel firstModel = band.getElements().get(0);
+        ElementModel secondModel = band.getElements().get(1);
+
+        List<String> changes = new ArrayList<>();
+        band.getElements().addListener((javafx.collections.ListChangeListener<ElementModel>) c -> {
+            while (c.next()) {
+                changes.add((c.wasAdded() ? "+" : "") + c.getAddedSize() + (c.wasRemoved() ? "-" : "")
+                        + c.getRemovedSize());
+            }
+        });
+
+        // Edited outside the models: one element moved, one removed, one added
+        first.setX(42);
+        title.removeElement(second);
+        JRDesignStaticText third = new JRDesignStaticText();
+        title.addElement(third);
+        model.sync();
+
+        assertSame(band, model.getBand("Title"));
+        assertEquals(2, band.getElements().size());
+        assertSame(firstModel, band.getElements().get(0));
+        assertEquals(42, firstModel.getX());
+        assertSame(third, band.getElements().get(1).getElement());
+        assertEquals(List.of("0-1", "+10"), changes);
+        assertNull(model.findElement(secondModel.getId()));
+        assertSame(band, model.locate(third).band());
+
+        // Nothing changed, nothing fired
+        changes.clear();
+        model.sync();
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void testUpdateBatchNotifiesBandListOnce() {
+        JasperDesign jd = new JasperDesign();
+        JRDesignBand title = new JRDesignBand();
+        JRDesignStaticText existing = new JRDesignStaticText();
+        title.addElement(existing);
+        JRDesignFrame frame = new JRDesignFrame();
+        title.addElement(frame);
+        jd.setTitle(title);
+
+        JasperDesignModel model = new JasperDesignModel(jd);
+        BandModel band = model.getBand("Title");
+        ElementModel existingModel = band.getElements().get(0);
+        FrameModel frameModel = (FrameModel) band.getElements().get(1);
+        List<Integer> notifications = new ArrayList<>();
+        band.getElements().addListener((javafx.collections.ListChangeListener<ElementModel>) c -> {
+            int subChanges = 0;
+            while (c.next()) {
+                subChanges++;
+            }
+            notifications.add(subChanges);
+        });
+
+        model.beginUpdate();
+        model.removeElement(band, title, existingModel);
+        for (int i = 0; i < 3; i++) {
+            model.addElement(band, title, new ElementModel(new JRDesignStaticText()));
+        }
+        // Removed and re-added in the same batch: the index must keep the element
+        model.moveElement(frameModel, band, title, band, title);
+        assertEquals(4, band.getElements().size());
+        assertTrue(notifications.isEmpty());
+
+        model.endUpdate();
+        assertEquals(1, notifications.size());
+        assertNull(model.locate(existing));
+        assertSame(band, model.locate(band.getElements().get(0).getElement()).band());
+        assertSame(frameModel, model.getParentIndex().findModel(frame));
+        assertEquals(4, band.getSpatialIndex().size());
+    }
+
+    @Test
+    public void testSyncReportsFrameContentChanges() {
+        JasperDesign jd = new JasperDesign();
+        JRDesignBand title = new JRDesignBand();
+        JRDesignFrame frame = new JRDesignFrame();
+        JRDesignStaticText kept = new JRDesignStaticText();
+        JRDesignStaticText dropped = new JRDesignStaticText();
+        frame.addElement(kept);
+        frame.addElement(dropped);
+        title.addElement(frame);
+        jd.setTitle(title);
+
+        JasperDesignModel model = new JasperDesignModel(jd);
+        BandModel band = model.getBand("Title");
+        FrameModel frameModel = (FrameModel) band.getElements().get(0);
+        ElementModel droppedModel = frameModel.getChildren().get(1);
+        List<DesignChangeEvent> events = new ArrayList<>();
+        model.addDesignChangeListener(events::add);
+
+        // Edited outside the models
+        frame.removeElement(dropped);
+        JRDesignStaticText added = new JRDesignStaticText();
+        frame.addElement(added);
+        model.sync();
+
+        assertEquals(2, events.size());
+        DesignChangeEvent removed = events.get(0);
+        assertEquals(DesignChangeEvent.Type.ELEMENT_REMOVED, removed.getType());
+        assertSame(droppedModel, removed.getModel());
+        assertSame(frame, removed.getContainer());
+        assertSame(band, removed.getBand());
+        assertTrue(removed.isInFrame());
+        DesignChangeEvent addedEvent = events.get(1);
+        assertEquals(DesignChangeEvent.Type.ELEMENT_ADDED, addedEvent.getType());
+        assertSame(added, addedEvent.getElement());
+        assertSame(frameModel.getChildren().get(1), addedEvent.getModel());
+        assertSame(frame, model.locate(added).container());
+
+        // Nothing changed, nothing fired
+        events.clear();
+        model.sync();
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testUpdateBatchDeliversChangesOnce() {
+        JasperDesign jd = new JasperDesign();
+        JRDesignBand title = new JRDesignBand();
+        JRDesignFrame frame = new JRDesignFrame();
+        title.addElement(frame);
+        jd.setTitle(title);
+
+        JasperDesignModel model = new JasperDesignModel(jd);
+        BandModel band = model.getBand("Title");
+        List<List<DesignChangeEvent>> batches = new ArrayList<>();
+        model.addDesignChangeListener(new DesignChangeListener() {
+            @Override
+            public void designChanged(DesignChangeEvent event) {
+                batches.add(List.of(event));
+            }
+
+            @Override
+            public void designChanged(List<DesignChangeEvent> events) {
+                batches.add(events);
+            }
+        });
+
+        model.beginUpdate();
+        ElementModel first = new ElementModel(new JRDesignStaticText());
+        model.addElement(band, frame, first);
+        model.beginUpdate();
+        model.addElement(band, title, new ElementModel(new JRDesignStaticText()));
+        model.endUpdate();
+        model.removeElement(band, frame, first);
+        // The models are current; only the listeners wait
+        assertEquals(2, band.getElements().size());
+        assertTrue(batches.isEmpty());
+
+        model.endUpdate();
+        assertEquals(1, batches.size());
+        List<DesignChangeEvent.Type> types = batches.get(0).stream().map(DesignChangeEvent::getType).toList();
+        assertEquals(List.of(DesignChangeEvent.Type.ELEMENT_ADDED, DesignChangeEvent.Type.ELEMENT_ADDED,
+                DesignChangeEvent.Type.ELEMENT_REMOVED), types);
+        assertThrows(IllegalStateException.class, model::endUpdate);
+    }
+
+    @Test
+    public void testRefreshBandKeepsDisplayOrderAndFiresBandChanged() {
+        JasperDesign jd = new JasperDesign();
+        JRDesignBand title = new JRDesignBand();
+        JRDesignStaticText text = new JRDesignStaticText();
+        title.addElement(text);
+        jd.setTitle(title);
+        jd.setSummary(new JRDesignBand());
+
+        JasperDesignModel model = new JasperDesignModel(jd);
+        BandModel titleModel = model.getBand("Title");
+        List<DesignChangeEvent> events = new ArrayList<>();
+        model.addDesignChangeListener(events::add);
+
+        // Created between the existing bands, not appended
+        jd.setPageFooter(new JRDesignBand());
+        model.refreshBand("Page Footer");
+        assertEquals(List.of("Title", "Page Footer", "Summary"),
+                model.getBands().stream().map(BandModel::getType).toList());
+        assertEquals(1, events.size());
+        DesignChangeEvent created = events.get(0);
+        assertEquals(DesignChangeEvent.Type.BAND_CHANGED, created.getType());
+        assertEquals("Page Footer", created.getBandType());
+        assertNull(created.getOldBand());
+        assertSame(model.getBand("Page Footer"), created.getBand());
+        assertSame(jd.getPageFooter(), created.getBand().getBand());
+
+        // An unchanged slot is left alone
+        model.refreshBand("Summary");
+        assertEquals(1, events.size());
+
+        jd.setTitle(null);
+        model.refreshBand("Title");
+        assertEquals(List.of("Page Footer", "Summary"), model.getBands().stream().map(BandModel::getType).toList());
+        assertEquals(2, events.size());
+        DesignChangeEvent deleted = events.get(1);
+        assertEquals("Title", deleted.getBandType());
+        assertSame(titleModel, deleted.getOldBand());
+        assertNull(deleted.getBand());
+        assertNull(model.locate(text));
+        assertNull(model.findElement(text.getUUID().toString()));
+    }
+
+    @Test
+    public void testEventsDescribeContainersAndBands() {
+        JasperDesign jd = new JasperDesign();
+        JRDesignBand title = new JRDesignBand();
+        JRDesignFrame frame = new JRDesignFrame();
+        title.addElement(frame);
+        jd.setTitle(title);
+        JRDesignBand summary = new JRDesignBand();
+        jd.setSummary(summary);
+
+        JasperDesignModel model = new JasperDesignModel(jd);
+        BandModel titleModel = model.getBand("Title");
+        BandModel summaryModel = model.getBand("Summary");
+        List<DesignChangeEvent> events = new ArrayList<>();
+        model.addDesignChangeListener(events::add);
+
+        ElementModel element = new ElementModel(new JRDesignStaticText());
+        model.addElement(titleModel, frame, element);
+        DesignChangeEvent added = events.get(0);
+        assertEquals(DesignChangeEvent.Type.ELEMENT_ADDED, added.getType());
+        assertSame(element.getElement(), added.getElement());
+        assertSame(element, added.getModel());
+        assertSame(titleModel, added.getBand());
+        assertSame(frame, added.getContainer());
+        assertEquals("Title", added.getBandType());
+        assertTrue(added.isInFrame());
+        assertNull(added.getOldBand());
+        assertNull(added.getOldContainer());
+
+        model.moveElement(element, titleModel, frame, summaryModel, summary);
+        DesignChangeEvent moved = events.get(1);
+        assertEquals(DesignChangeEvent.Type.ELEMENT_REPARENTED, moved.getType());
+        assertSame(titleModel, moved.getOldBand());
+        assertSame(frame, moved.getOldContainer());
+        assertSame(summaryModel, moved.getBand());
+        assertSame(summary, moved.getContainer());
+        assertEquals("Summary", moved.getBandType());
+        assertFalse(moved.isInFrame());
+
+        model.removeElement(summaryModel, summary, element);
+        DesignChangeEvent removed = events.get(2);
+        assertEquals(DesignChangeEvent.Type.ELEMENT_REMOVED, removed.getType());
+        assertSame(summaryModel, removed.getBand());
+        assertSame(summary, removed.getContainer());
+        assertFalse(removed.isInFrame());
+        assertEquals(3, events.size());
+    }
 }
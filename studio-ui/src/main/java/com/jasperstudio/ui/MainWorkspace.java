@@ -112,6 +112,10 @@ public class MainWorkspace extends BorderPane {
     @FXML
     private CheckMenuItem menuShowErrorsForElements;
     @FXML
+    private CheckMenuItem menuVirtualizedCanvas;
+    @FXML
+    private CheckMenuItem menuImmediateCanvas;
+    @FXML
     private MenuItem menuGridSize;
 
     @FXML
@@ -271,6 +275,8 @@ public class MainWorkspace extends BorderPane {
         unbindProp(menuHighlightRenderGrid, engine.highlightRenderGridProperty());
         unbindProp(menuShowPDF508Tags, engine.showPDF508TagsProperty());
         unbindProp(menuShowErrorsForElements, engine.showErrorsForElementsProperty());
+        unbindProp(menuVirtualizedCanvas, engine.virtualizedCanvasProperty());
+        unbindProp(menuImmediateCanvas, engine.immediateCanvasProperty());
 
         // Actions are typically set via setOnAction calling a lambda capturing
         // 'currentEngine' (which is this.currentEngine field?),
@@ -302,6 +308,8 @@ public class MainWorkspace extends BorderPane {
         bindBidirectional(menuHighlightRenderGrid, engine.highlightRenderGridProperty());
         bindBidirectional(menuShowPDF508Tags, engine.showPDF508TagsProperty());
         bindBidirectional(menuShowErrorsForElements, engine.showErrorsForElementsProperty());
+        bindBidirectional(menuVirtualizedCanvas, engine.virtualizedCanvasProperty());
+        bindBidirectional(menuImmediateCanvas, engine.immediateCanvasProperty());
 
         // History bindings
         menuUndo.disableProperty().bind(engine.getHistoryManager().canUndoProperty().not());
@@ -611,6 +619,35 @@ public class MainWorkspace extends BorderPane {
         });
     }
 
+    @FXML
+    private void onLevelOfDetail() {
+        if (currentEngine == null)
+            return;
+
+        // Zoom levels below which the canvas simplifies elements
+        java.util.Map<String, Double> thresholds = new java.util.LinkedHashMap<>();
+        thresholds.put("Always full detail", 0.0);
+        thresholds.put("Below 30%", 0.3);
+        thresholds.put("Below 50%", 0.5);
+        thresholds.put("Below 75%", 0.75);
+        thresholds.put("Below 100%", 1.0);
+
+        double current = currentEngine.levelOfDetailZoomProperty().get();
+        String selected = thresholds.entrySet().stream()
+                .filter(entry -> entry.getValue() == current)
+                .map(java.util.Map.Entry::getKey)
+                .findFirst()
+                .orElse("Below 50%");
+
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(selected, thresholds.keySet());
+        dialog.setTitle("Level Of Detail");
+        dialog.setHeaderText("Simplify elements when zoomed out");
+        dialog.setContentText("Simplify:");
+        Optional<String> result = dialog.showAndWait();
+
+        result.ifPresent(choice -> currentEngine.levelOfDetailZoomProperty().set(thresholds.get(choice)));
+    }
+
     @FXML
     private void onZoomIn() {
         if (currentEngine != null)
@@ -623,6 +660,59 @@ public class MainWorkspace extends BorderPane {
             currentEngine.zoomOut();
     }
 
+    @FXML
+    private void onAlignLeft() {
+        alignSelection(com.jasperstudio.designer.DesignerEngine.Alignment.LEFT);
+    }
+
+    @FXML
+    private void onAlignCenter() {
+        alignSelection(com.jasperstudio.designer.DesignerEngine.Alignment.CENTER);
+    }
+
+    @FXML
+    private void onAlignRight() {
+        alignSelection(com.jasperstudio.designer.DesignerEngine.Alignment.RIGHT);
+    }
+
+    @FXML
+    private void onAlignTop() {
+        alignSelection(com.jasperstudio.designer.DesignerEngine.Alignment.TOP);
+    }
+
+    @FXML
+    private void onAlignMiddle() {
+        alignSelection(com.jasperstudio.designer.DesignerEngine.Alignment.MIDDLE);
+    }
+
+    @FXML
+    private void onAlignBottom() {
+        alignSelection(com.jasperstudio.designer.DesignerEngine.Alignment.BOTTOM);
+    }
+
+    private void alignSelection(com.jasperstudio.designer.DesignerEngine.Alignment alignment) {
+        if (currentEngine != null)
+            currentEngine.alignSelection(alignment);
+    }
+
+    @FXML
+    private void onMatchWidth() {
+        if (currentEngine != null)
+            currentEngine.matchSelectionSize(true, false);
+    }
+
+    @FXML
+    private void onMatchHeight() {
+        if (currentEngine != null)
+            currentEngine.matchSelectionSize(false, true);
+    }
+
+    @FXML
+    private void onMatchSize() {
+        if (currentEngine != null)
+            currentEngine.matchSelectionSize(true, true);
+    }
+
     // Define Actions for Menus using currentEngine wrapper
     private void setupActions() {
         // This is a correction to setupBindings.
@@ -631,12 +721,12 @@ public class MainWorkspace extends BorderPane {
         if (menuUndo != null)
             menuUndo.setOnAction(e -> {
                 if (currentEngine != null)
-                    currentEngine.getHistoryManager().undo();
+                    currentEngine.undo();
             });
         if (menuRedo != null)
             menuRedo.setOnAction(e -> {
                 if (currentEngine != null)
-                    currentEngine.getHistoryManager().redo();
+                    currentEngine.redo();
             });
 
         if (menuDelete != null)
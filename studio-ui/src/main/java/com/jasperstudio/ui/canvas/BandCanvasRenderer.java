@@ -0,0 +1,403 @@
+package com.jasperstudio.ui.canvas;
+
+import com.jasperstudio.model.BandModel;
+import com.jasperstudio.model.ElementModel;
+import com.jasperstudio.model.ElementSpatialIndex;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+import javafx.scene.transform.Scale;
+import net.sf.jasperreports.crosstabs.design.JRDesignCrosstab;
+import net.sf.jasperreports.engine.JRElement;
+import net.sf.jasperreports.engine.design.JRDesignBreak;
+import net.sf.jasperreports.engine.design.JRDesignChart;
+import net.sf.jasperreports.engine.design.JRDesignElement;
+import net.sf.jasperreports.engine.design.JRDesignEllipse;
+import net.sf.jasperreports.engine.design.JRDesignFrame;
+import net.sf.jasperreports.engine.design.JRDesignImage;
+import net.sf.jasperreports.engine.design.JRDesignLine;
+import net.sf.jasperreports.engine.design.JRDesignRectangle;
+import net.sf.jasperreports.engine.design.JRDesignStaticText;
+import net.sf.jasperreports.engine.design.JRDesignSubreport;
+import net.sf.jasperreports.engine.design.JRDesignTextField;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Draws a band's elements onto a single {@link Canvas} instead of creating a
+ * node per element.
+ * <p>
+ * The canvas only covers the part of the band inside the visible area and is
+ * sized in device pixels, so its texture is bounded by the viewport rather
+ * than by the band and zoom. Element edits repaint just the union of the old
+ * and new bounds, once per pulse, and only the elements the band's
+ * {@link ElementSpatialIndex} finds in that area are redrawn. The canvas is
+ * mouse transparent; callers
+ * hit-test with {@link #elementAt(double, double)} and keep selection handles
+ * on their own overlay.
+ */
+public class BandCanvasRenderer {
+
+    private static final String COMPONENT_TYPE = "com.jasperstudio.component.type";
+    private static final double TEXT_PADDING = 2;
+
+    private final Pane bandPane;
+    private final ObservableList<ElementModel> elements;
+    private final ElementSpatialIndex index;
+    private final Canvas canvas = new Canvas();
+    private final Scale canvasScale = new Scale(1, 1, 0, 0);
+
+    // Last painted bounds, so a move can clear where the element was
+    private final Map<ElementModel, Rectangle2D> painted = new IdentityHashMap<>();
+    private final Map<ElementModel, InvalidationListener> geometryListeners = new IdentityHashMap<>();
+    private final ListChangeListener<ElementModel> elementsListener = this::onElementsChanged;
+
+    // Band-local area the canvas covers and its device pixels per unit
+    private Rectangle2D region = Rectangle2D.EMPTY;
+    private double scale = 1;
+    private Rectangle2D dirty;
+    private boolean repaintScheduled;
+    private boolean lowDetail;
+
+    public BandCanvasRenderer(Pane bandPane, BandModel band) {
+        this.bandPane = bandPane;
+        this.elements = band.getElements();
+        this.index = band.getSpatialIndex();
+        canvas.setMouseTransparent(true);
+        canvas.getTransforms().add(canvasScale);
+        bandPane.getChildren().add(canvas);
+        for (ElementModel model : elements) {
+            watch(model);
+        }
+        elements.addListener(elementsListener);
+    }
+
+    /**
+     * Moves the canvas over the visible part of the band and repaints it.
+     *
+     * @param visibleBounds visible area in band-local coordinates
+     * @param scale         device pixels per band unit (zoom times output
+     *                      scale)
+     */
+    public void setVisibleBounds(Bounds visibleBounds, double scale) {
+        double minX = Math.max(0, visibleBounds.getMinX());
+        double minY = Math.max(0, visibleBounds.getMinY());
+        double maxX = Math.min(bandPane.getWidth(), visibleBounds.getMaxX());
+        double maxY = Math.min(bandPane.getHeight(), visibleBounds.getMaxY());
+        Rectangle2D newRegion = maxX > minX && maxY > minY
+                ? new Rectangle2D(minX, minY, maxX - minX, maxY - minY)
+                : Rectangle2D.EMPTY;
+        if (newRegion.equals(region) && scale == this.scale) {
+            return;
+        }
+        region = newRegion;
+        this.scale = scale;
+
+        canvas.setLayoutX(region.getMinX());
+        canvas.setLayoutY(region.getMinY());
+        canvas.setWidth(Math.ceil(region.getWidth() * scale));
+        canvas.setHeight(Math.ceil(region.getHeight() * scale));
+        canvasScale.setX(1 / scale);
+        canvasScale.setY(1 / scale);
+        dirty = null;
+        paint(region);
+    }
+
+    /**
+     * Draws text as plain boxes, components as bare placeholders and frames
+     * as outlines, for zoom levels where the detail would not be legible.
+     */
+    public void setLowDetail(boolean lowDetail) {
+        if (this.lowDetail != lowDetail) {
+            this.lowDetail = lowDetail;
+            markDirty(region);
+        }
+    }
+
+    /**
+     * @return the topmost element containing the band-local point, or
+     *         {@code null}
+     */
+    public ElementModel elementAt(double x, double y) {
+        return index.topmostAt(x, y);
+    }
+
+    public boolean isRendering(ElementModel model) {
+        return geometryListeners.containsKey(model);
+    }
+
+    /**
+     * Marks an element for repaint, e.g. after a change the renderer cannot
+     * observe such as a text edit.
+     */
+    public void invalidate(ElementModel model) {
+        markDirty(painted.get(model));
+        markDirty(boundsOf(model));
+    }
+
+    public void dispose() {
+        elements.removeListener(elementsListener);
+        for (Map.Entry<ElementModel, InvalidationListener> entry : geometryListeners.entrySet()) {
+            unwatch(entry.getKey(), entry.getValue());
+        }
+        geometryListeners.clear();
+        painted.clear();
+        bandPane.getChildren().remove(canvas);
+    }
+
+    private void onElementsChanged(ListChangeListener.Change<? extends ElementModel> c) {
+        boolean reordered = false;
+        while (c.next()) {
+            if (c.wasPermutated()) {
+                reordered = true;
+            }
+            for (ElementModel removed : c.getRemoved()) {
+                InvalidationListener listener = geometryListeners.remove(removed);
+                if (listener != null) {
+                    unwatch(removed, listener);
+                }
+                markDirty(painted.remove(removed));
+            }
+        }
+        // Additions second: a batched change may list an element's re-add before its removal
+        c.reset();
+        while (c.next()) {
+            for (ElementModel added : c.getAddedSubList()) {
+                watch(added);
+                markDirty(boundsOf(added));
+            }
+        }
+        if (reordered) {
+            markDirty(region);
+        }
+    }
+
+    private void watch(ElementModel model) {
+        InvalidationListener listener = o -> invalidate(model);
+        geometryListeners.put(model, listener);
+        model.xProperty().addListener(listener);
+        model.yProperty().addListener(listener);
+        model.widthProperty().addListener(listener);
+        model.heightProperty().addListener(listener);
+        model.textProperty().addListener(listener);
+    }
+
+    private void unwatch(ElementModel model, InvalidationListener listener) {
+        model.xProperty().removeListener(listener);
+        model.yProperty().removeListener(listener);
+        model.widthProperty().removeListener(listener);
+        model.heightProperty().removeListener(listener);
+        model.textProperty().removeListener(listener);
+    }
+
+    private void markDirty(Rectangle2D area) {
+        if (area == null) {
+            return;
+        }
+        // Grow by a unit so strokes on the edge and zero-height lines are covered
+        area = new Rectangle2D(area.getMinX() - 1, area.getMinY() - 1, area.getWidth() + 2, area.getHeight() + 2);
+        dirty = dirty == null ? area : union(dirty, area);
+        if (!repaintScheduled) {
+            repaintScheduled = true;
+            Platform.runLater(() -> {
+                repaintScheduled = false;
+                Rectangle2D pending = dirty;
+                dirty = null;
+                if (pending != null) {
+                    paint(pending);
+                }
+            });
+        }
+    }
+
+    /**
+     * Repaints the part of the canvas inside the band-local area.
+     */
+    private void paint(Rectangle2D area) {
+        if (region.getWidth() <= 0 || region.getHeight() <= 0 || !area.intersects(region)) {
+            return;
+        }
+        double minX = Math.max(region.getMinX(), area.getMinX());
+        double minY = Math.max(region.getMinY(), area.getMinY());
+        double maxX = Math.min(region.getMaxX(), area.getMaxX());
+        double maxY = Math.min(region.getMaxY(), area.getMaxY());
+        Rectangle2D clip = new Rectangle2D(minX, minY, maxX - minX, maxY - minY);
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.save();
+        gc.setTransform(scale, 0, 0, scale, -region.getMinX() * scale, -region.getMinY() * scale);
+        gc.clearRect(minX, minY, clip.getWidth(), clip.getHeight());
+        gc.beginPath();
+        gc.rect(minX, minY, clip.getWidth(), clip.getHeight());
+        gc.clip();
+
+        for (ElementModel model : index.query(minX, minY, clip.getWidth(), clip.getHeight())) {
+            painted.put(model, boundsOf(model));
+            paintElement(gc, model.getElement(), model.getX(), model.getY(), model.getWidth(), model.getHeight());
+        }
+        gc.restore();
+    }
+
+    private void paintElement(GraphicsContext gc, JRDesignElement jr, double x, double y, double w, double h) {
+        gc.setLineWidth(1);
+        gc.setLineDashes();
+        if (lowDetail && paintLowDetail(gc, jr, x, y, w, h)) {
+            return;
+        }
+        switch (jr) {
+            case JRDesignStaticText text -> {
+                strokeBox(gc, x, y, w, h, Color.web("#ddd"));
+                drawText(gc, text.getText(), x, y, w, h, Color.BLACK, false);
+            }
+            case JRDesignTextField field -> {
+                gc.setFill(Color.web("#f0f8ff"));
+                gc.fillRect(x, y, w, h);
+                strokeBox(gc, x, y, w, h, Color.web("#ccc"));
+                String expression = field.getExpression() != null ? field.getExpression().getText() : "$F{...}";
+                drawText(gc, expression, x, y, w, h, Color.web("#0066cc"), false);
+            }
+            case JRDesignFrame frame -> {
+                gc.setFill(Color.rgb(0, 0, 0, 0.05));
+                gc.fillRect(x, y, w, h);
+                strokeBox(gc, x, y, w, h, Color.BLACK);
+                JRElement[] children = frame.getElements();
+                if (children != null) {
+                    for (JRElement child : children) {
+                        if (child instanceof JRDesignElement childElement) {
+                            paintElement(gc, childElement, x + child.getX(), y + child.getY(), child.getWidth(),
+                                    child.getHeight());
+                        }
+                    }
+                }
+            }
+            case JRDesignRectangle ignored -> {
+                if ("CHART".equals(jr.getPropertiesMap().getProperty(COMPONENT_TYPE))) {
+                    placeholder(gc, x, y, w, h, "#fce8b2", "#f1c40f", "CHART (Placeholder)");
+                } else {
+                    gc.setFill(Color.WHITE);
+                    gc.fillRect(x, y, w, h);
+                    strokeBox(gc, x, y, w, h, Color.BLACK);
+                }
+            }
+            case JRDesignEllipse ignored -> {
+                gc.setFill(Color.WHITE);
+                gc.fillOval(x, y, w, h);
+                gc.setStroke(Color.BLACK);
+                gc.strokeOval(x, y, w, h);
+            }
+            case JRDesignLine ignored -> {
+                gc.setStroke(Color.BLACK);
+                gc.strokeLine(x, y, x + w, y + h);
+            }
+            case JRDesignBreak ignored -> {
+                gc.setStroke(Color.RED);
+                gc.setLineDashes(5, 5);
+                gc.strokeLine(x, y, x + w, y);
+            }
+            case JRDesignImage ignored -> {
+                if ("BARCODE".equals(jr.getPropertiesMap().getProperty(COMPONENT_TYPE))) {
+                    placeholder(gc, x, y, w, h, "#fff", "#000", "BARCODE");
+                } else {
+                    placeholder(gc, x, y, w, h, "#eee", "#666", "IMG");
+                }
+            }
+            case JRDesignSubreport ignored -> {
+                gc.setLineDashes(4, 4);
+                placeholder(gc, x, y, w, h, "#e0e0e0", "#666", "SUBREPORT");
+            }
+            case JRDesignChart ignored -> placeholder(gc, x, y, w, h, "#fce8b2", "#f1c40f", "CHART (Pie)");
+            case JRDesignCrosstab ignored -> {
+                gc.setLineDashes(1, 2);
+                placeholder(gc, x, y, w, h, "#d1c4e9", "#673ab7", "CROSSTAB");
+            }
+            default -> {
+                gc.setFill(Color.GRAY);
+                gc.fillRect(x, y, w, h);
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} for elements that have no simpler form
+     */
+    private static boolean paintLowDetail(GraphicsContext gc, JRDesignElement jr, double x, double y, double w,
+            double h) {
+        Color fill;
+        switch (jr) {
+            case JRDesignStaticText ignored -> fill = Color.web("#e6e6e6");
+            case JRDesignTextField ignored -> fill = Color.web("#cfe3f7");
+            case JRDesignImage ignored -> fill = Color.web("#dddddd");
+            case JRDesignSubreport ignored -> fill = Color.web("#e0e0e0");
+            case JRDesignChart ignored -> fill = Color.web("#fce8b2");
+            case JRDesignCrosstab ignored -> fill = Color.web("#d1c4e9");
+            case JRDesignFrame ignored -> fill = null;
+            default -> {
+                return false;
+            }
+        }
+        if (fill != null) {
+            gc.setFill(fill);
+            gc.fillRect(x, y, w, h);
+        } else {
+            strokeBox(gc, x, y, w, h, Color.BLACK);
+        }
+        return true;
+    }
+
+    private static void placeholder(GraphicsContext gc, double x, double y, double w, double h, String fill,
+            String stroke, String label) {
+        gc.setFill(Color.web(fill));
+        gc.fillRect(x, y, w, h);
+        strokeBox(gc, x, y, w, h, Color.web(stroke));
+        gc.setLineDashes();
+        drawText(gc, label, x, y, w, h, Color.BLACK, true);
+    }
+
+    private static void strokeBox(GraphicsContext gc, double x, double y, double w, double h, Color color) {
+        gc.setStroke(color);
+        gc.strokeRect(x + 0.5, y + 0.5, Math.max(0, w - 1), Math.max(0, h - 1));
+    }
+
+    private static void drawText(GraphicsContext gc, String text, double x, double y, double w, double h,
+            Color color, boolean centered) {
+        if (text == null || text.isEmpty() || w <= TEXT_PADDING * 2) {
+            return;
+        }
+        gc.save();
+        gc.beginPath();
+        gc.rect(x, y, w, h);
+        gc.clip();
+        gc.setFill(color);
+        gc.setTextBaseline(VPos.CENTER);
+        if (centered) {
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.fillText(text, x + w / 2, y + h / 2);
+        } else {
+            gc.setTextAlign(TextAlignment.LEFT);
+            gc.fillText(text, x + TEXT_PADDING, y + h / 2);
+        }
+        gc.restore();
+    }
+
+    private static Rectangle2D boundsOf(ElementModel model) {
+        return new Rectangle2D(model.getX(), model.getY(), Math.max(0, model.getWidth()),
+                Math.max(0, model.getHeight()));
+    }
+
+    private static Rectangle2D union(Rectangle2D a, Rectangle2D b) {
+        double minX = Math.min(a.getMinX(), b.getMinX());
+        double minY = Math.min(a.getMinY(), b.getMinY());
+        return new Rectangle2D(minX, minY, Math.max(a.getMaxX(), b.getMaxX()) - minX,
+                Math.max(a.getMaxY(), b.getMaxY()) - minY);
+    }
+}
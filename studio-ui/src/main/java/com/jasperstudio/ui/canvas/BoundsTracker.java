@@ -0,0 +1,95 @@
+package com.jasperstudio.ui.canvas;
+
+import com.jasperstudio.model.ElementModel;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.WeakInvalidationListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Follows the bounds of the elements an adorner is drawn around and runs the
+ * adorner's update once, on the next pulse, however many of them changed.
+ * <p>
+ * It observes only the current targets' bounds, through a weak listener that
+ * is detached again when the targets are replaced, plus one weak listener per
+ * observable passed to the constructor (e.g. the zoom). The number of
+ * listeners therefore stays the same however many selections are made, and
+ * neither the adorner nor a former target keeps the other alive.
+ */
+final class BoundsTracker {
+
+    private final Runnable update;
+
+    private final InvalidationListener boundsListener = o -> scheduleUpdate();
+    private final WeakInvalidationListener weakBoundsListener = new WeakInvalidationListener(boundsListener);
+
+    private final List<ElementModel> targets = new ArrayList<>();
+    private final List<ElementModel> readOnlyTargets = Collections.unmodifiableList(targets);
+    private boolean updateScheduled;
+
+    /**
+     * @param update    lays the adorner out again from its targets
+     * @param viewState further observables that move every element on
+     *                  screen, such as the zoom factor
+     */
+    BoundsTracker(Runnable update, Observable... viewState) {
+        this.update = update;
+        for (Observable o : viewState) {
+            o.addListener(weakBoundsListener);
+        }
+    }
+
+    List<ElementModel> getTargets() {
+        return readOnlyTargets;
+    }
+
+    /**
+     * Follows the given elements instead of the current ones, and schedules
+     * an update even if there are none, so the adorner can clear itself.
+     */
+    void setTargets(List<ElementModel> elements) {
+        for (ElementModel target : targets) {
+            target.xProperty().removeListener(weakBoundsListener);
+            target.yProperty().removeListener(weakBoundsListener);
+            target.widthProperty().removeListener(weakBoundsListener);
+            target.heightProperty().removeListener(weakBoundsListener);
+        }
+        targets.clear();
+        targets.addAll(elements);
+        for (ElementModel target : targets) {
+            target.xProperty().addListener(weakBoundsListener);
+            target.yProperty().addListener(weakBoundsListener);
+            target.widthProperty().addListener(weakBoundsListener);
+            target.heightProperty().addListener(weakBoundsListener);
+        }
+        schedule();
+    }
+
+    /**
+     * Schedules an update without changing the targets, e.g. because the
+     * node a target is drawn with changed.
+     */
+    void invalidate() {
+        scheduleUpdate();
+    }
+
+    private void scheduleUpdate() {
+        if (!targets.isEmpty())
+            schedule();
+    }
+
+    // Scene coordinates are only valid after layout, so read them on the next pulse
+    private void schedule() {
+        if (updateScheduled)
+            return;
+        updateScheduled = true;
+        Platform.runLater(() -> {
+            updateScheduled = false;
+            update.run();
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package com.jasperstudio.ui.canvas;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.input.MouseEvent;
+
+/**
+ * Coalesces the mouse events of one drag gesture so the model is updated at
+ * most once per JavaFX pulse.
+ * <p>
+ * High-frequency mice deliver several drag events per frame; each one used to
+ * move the element, re-run the model listeners and re-layout the bound nodes.
+ * Here events only record the latest pointer position, and an
+ * {@link AnimationTimer} hands the accumulated offset to the {@link Mover} on
+ * the next pulse. {@link #finish()} applies whatever is still pending, so the
+ * caller can commit the final position as a single command.
+ */
+public class DragSession extends AnimationTimer {
+
+    /** Applies a drag offset, in design units, from the gesture's start. */
+    @FunctionalInterface
+    public interface Mover {
+        void moveBy(double deltaX, double deltaY);
+    }
+
+    private final double startSceneX;
+    private final double startSceneY;
+    private final double zoom;
+    private final Mover mover;
+
+    private double sceneX;
+    private double sceneY;
+    private boolean pending;
+
+    public DragSession(MouseEvent press, double zoom, Mover mover) {
+        this.startSceneX = press.getSceneX();
+        this.startSceneY = press.getSceneY();
+        this.sceneX = startSceneX;
+        this.sceneY = startSceneY;
+        this.zoom = zoom;
+        this.mover = mover;
+        start();
+    }
+
+    public void pointerMoved(MouseEvent event) {
+        sceneX = event.getSceneX();
+        sceneY = event.getSceneY();
+        pending = true;
+    }
+
+    @Override
+    public void handle(long now) {
+        flush();
+    }
+
+    /**
+     * Stops the timer and applies the last pointer position.
+     */
+    public void finish() {
+        stop();
+        flush();
+    }
+
+    private void flush() {
+        if (pending) {
+            pending = false;
+            mover.moveBy((sceneX - startSceneX) / zoom, (sceneY - startSceneY) / zoom);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.jasperstudio.ui.canvas;
+
+import javafx.scene.Node;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Recycles element visuals by kind so scrolling a virtualized band does not
+ * allocate a new node for every element that comes into view.
+ * <p>
+ * Nodes are returned already unbound; the caller rebinds them to the next
+ * model it acquires them for.
+ */
+public class ElementNodePool {
+
+    private final int maxPerKind;
+    private final Map<Object, ArrayDeque<Node>> free = new HashMap<>();
+
+    public ElementNodePool(int maxPerKind) {
+        this.maxPerKind = maxPerKind;
+    }
+
+    /**
+     * @return a previously released node of the given kind, or {@code null}
+     */
+    public Node acquire(Object kind) {
+        ArrayDeque<Node> nodes = free.get(kind);
+        return nodes != null ? nodes.pollLast() : null;
+    }
+
+    public void release(Object kind, Node node) {
+        ArrayDeque<Node> nodes = free.computeIfAbsent(kind, k -> new ArrayDeque<>());
+        if (nodes.size() < maxPerKind) {
+            nodes.addLast(node);
+        }
+    }
+
+    public void clear() {
+        free.clear();
+    }
+}
@@ -0,0 +1,145 @@
+package com.jasperstudio.ui.canvas;
+
+import javafx.scene.image.Image;
+import net.sf.jasperreports.engine.JasperPrint;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LRU cache of rasterized preview pages, bounded by the total number of pixels
+ * held rather than by entry count, so high-zoom rasters count for what they
+ * cost.
+ * <p>
+ * Entries are keyed by print identity, page index and a quantized render scale.
+ * A page that is being rendered by one thread is awaited by any other thread
+ * asking for it, so prefetching never duplicates work with an explicit
+ * request.
+ */
+public class PageImageCache {
+
+    /**
+     * Produces the image for a page on a cache miss.
+     */
+    @FunctionalInterface
+    public interface PageRasterizer {
+        Image rasterize() throws Exception;
+    }
+
+    // Scales are bucketed in quarter steps so tiny zoom drifts still hit
+    private static final float BUCKETS_PER_UNIT = 4f;
+
+    // JasperPrint does not override equals/hashCode, so records compare prints by identity
+    private record Key(JasperPrint print, int pageIndex, int scaleBucket) {
+    }
+
+    private final long maxPixels;
+    private long totalPixels;
+    private final LinkedHashMap<Key, Image> images = new LinkedHashMap<>(64, 0.75f, true);
+    private final ConcurrentHashMap<Key, CompletableFuture<Image>> inFlight = new ConcurrentHashMap<>();
+
+    public PageImageCache(long maxPixels) {
+        this.maxPixels = maxPixels;
+    }
+
+    public static int scaleBucket(float scale) {
+        return Math.max(1, Math.round(scale * BUCKETS_PER_UNIT));
+    }
+
+    /**
+     * Returns the cached image or {@code null}, without rendering.
+     */
+    public synchronized Image get(JasperPrint print, int pageIndex, float scale) {
+        return images.get(new Key(print, pageIndex, scaleBucket(scale)));
+    }
+
+    public synchronized boolean contains(JasperPrint print, int pageIndex, float scale) {
+        return images.containsKey(new Key(print, pageIndex, scaleBucket(scale)));
+    }
+
+    /**
+     * Returns the cached image, rendering it with the rasterizer on a miss. If
+     * another thread is already rendering the same page the call waits for that
+     * result instead.
+     */
+    public Image getOrRender(JasperPrint print, int pageIndex, float scale, PageRasterizer rasterizer)
+            throws Exception {
+        Key key = new Key(print, pageIndex, scaleBucket(scale));
+        synchronized (this) {
+            Image cached = images.get(key);
+            if (cached != null)
+                return cached;
+        }
+
+        CompletableFuture<Image> pending = new CompletableFuture<>();
+        CompletableFuture<Image> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception ex ? ex : e;
+            }
+        }
+
+        try {
+            Image image = rasterizer.rasterize();
+            if (image != null)
+                put(key, image);
+            pending.complete(image);
+            return image;
+        } catch (Exception e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    /**
+     * Drops every scale of one page, e.g. after the filler updated it.
+     */
+    public synchronized void invalidate(JasperPrint print, int pageIndex) {
+        Iterator<Map.Entry<Key, Image>> it = images.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Image> e = it.next();
+            if (e.getKey().print() == print && e.getKey().pageIndex() == pageIndex) {
+                totalPixels -= pixels(e.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        images.clear();
+        totalPixels = 0;
+    }
+
+    public synchronized long getTotalPixels() {
+        return totalPixels;
+    }
+
+    private synchronized void put(Key key, Image image) {
+        Image previous = images.put(key, image);
+        if (previous != null)
+            totalPixels -= pixels(previous);
+        totalPixels += pixels(image);
+
+        // Evict eldest, but always keep the entry just added
+        Iterator<Map.Entry<Key, Image>> it = images.entrySet().iterator();
+        while (totalPixels > maxPixels && images.size() > 1 && it.hasNext()) {
+            Map.Entry<Key, Image> eldest = it.next();
+            if (eldest.getKey().equals(key))
+                continue;
+            totalPixels -= pixels(eldest.getValue());
+            it.remove();
+        }
+    }
+
+    private static long pixels(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight();
+    }
+}
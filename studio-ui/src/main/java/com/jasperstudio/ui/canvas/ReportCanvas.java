@@ -3,10 +3,23 @@ package com.jasperstudio.ui.canvas;
 import com.jasperstudio.descriptor.MoveElementCommand;
 import com.jasperstudio.descriptor.ResizeElementCommand;
 import com.jasperstudio.designer.DesignerEngine;
+import com.jasperstudio.designer.SnapEngine;
+import com.jasperstudio.integration.DataSampler;
+import com.jasperstudio.integration.ExportFormat;
+import com.jasperstudio.integration.FillSession;
+import com.jasperstudio.integration.ReportExporter;
+import com.jasperstudio.integration.VirtualizerFactory;
 import com.jasperstudio.model.BandModel;
+import com.jasperstudio.model.DesignChangeEvent;
+import com.jasperstudio.model.DesignChangeListener;
+import com.jasperstudio.model.ElementLocation;
 import com.jasperstudio.model.ElementModel;
+import com.jasperstudio.model.FrameModel;
 import com.jasperstudio.model.JasperDesignModel;
 import com.jasperstudio.model.JrxmlService;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.value.ChangeListener;
@@ -24,8 +37,12 @@ import javafx.scene.Parent;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.SpinnerValueFactory;
 import javafx.scene.control.TextArea;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -40,15 +57,31 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Ellipse;
 import javafx.scene.shape.Line;
 import javafx.scene.shape.Rectangle;
+import javafx.stage.FileChooser;
+import javafx.stage.Window;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.design.*;
 import net.sf.jasperreports.crosstabs.design.JRDesignCrosstab;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * The visualization of the Report Page.
@@ -95,11 +128,80 @@ public class ReportCanvas extends BorderPane {
     private Label lblPageStatus;
     @FXML
     private Label lblPreviewZoom;
+    @FXML
+    private CheckBox chkVirtualize;
+    @FXML
+    private Spinner<Integer> spnPageBudget;
+    @FXML
+    private ComboBox<DataSampler.Mode> cmbSampleMode;
+    @FXML
+    private Spinner<Integer> spnRowLimit;
+    @FXML
+    private Button btnExport;
+    @FXML
+    private Label lblExportStatus;
 
     // Pagination State
-    private JasperPrint currentJasperPrint;
-    private int currentPageIndex = 0;
-    private double previewZoomFactor = 1.0;
+    private volatile JasperPrint currentJasperPrint;
+    private volatile int currentPageIndex = 0;
+    private volatile double previewZoomFactor = 1.0;
+
+    // Async fill state. The generation counter discards callbacks from
+    // fills that were cancelled or superseded.
+    private FillSession currentFill;
+    private volatile int previewGeneration = 0;
+    private Timeline fillProgressTimer;
+    // Swap file backing the current print in virtualized mode; the print is
+    // unusable once it is cleaned up
+    private JRSwapFileVirtualizer currentVirtualizer;
+    // The preview, export and prefetch threads are shared by all canvases, so
+    // closing or replacing an editor leaves no threads behind
+    private static final ExecutorService previewExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "preview-render");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Rendered page cache (~128 MB of ARGB pixels) and neighbour prefetching
+    private static final int[] PREFETCH_OFFSETS = { 1, -1, 2 };
+    private static final int PREFETCH_DISTANCE = 2;
+    private final PageImageCache pageImageCache = new PageImageCache(32_000_000L);
+
+    // Whole-page raster scale follows zoom x output scale. Upscaling renders
+    // with headroom and downscaling waits until the raster is 2x too large, so
+    // small zoom changes reuse the current raster instead of re-rendering.
+    private static final float MAX_WHOLE_PAGE_SCALE = 3.0f;
+    private static final float MIN_RASTER_SCALE = 0.5f;
+    private static final float UPSCALE_HEADROOM = 1.25f;
+    private static final float DOWNSCALE_THRESHOLD = 2.0f;
+    private volatile float previewRasterScale = 1.0f;
+
+    // One listener on the current window's output scale, moved along with scene and window
+    private final ChangeListener<Number> outputScaleListener = (o, oldScale, scale) -> {
+        if (previewView.isVisible())
+            requestRender();
+    };
+    private final ChangeListener<Window> windowListener = (o, oldWindow, window) -> {
+        if (oldWindow != null)
+            oldWindow.outputScaleXProperty().removeListener(outputScaleListener);
+        if (window != null)
+            window.outputScaleXProperty().addListener(outputScaleListener);
+    };
+
+    // Deep zoom is served by viewport tiles (~64 MB of cached tiles)
+    private static final double MAX_PREVIEW_ZOOM = 8.0;
+    private TiledPageView tiledPageView;
+    private static final ExecutorService exportExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "preview-export");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "preview-prefetch");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
 
     @FXML
     private ImageView previewImage;
@@ -223,11 +325,90 @@ public class ReportCanvas extends BorderPane {
             Platform.runLater(this::updateRulers);
         });
 
+        // Virtualized bands follow the viewport
+        javafx.beans.InvalidationListener cullListener = o -> scheduleVisibleElementsUpdate();
+        internalScrollPane.hvalueProperty().addListener(cullListener);
+        internalScrollPane.vvalueProperty().addListener(cullListener);
+        internalScrollPane.viewportBoundsProperty().addListener(cullListener);
+        engine.zoomFactorProperty().addListener(cullListener);
+        pagePane.heightProperty().addListener(cullListener);
+        engine.virtualizedCanvasProperty().addListener((o, old, v) -> {
+            rebuildBands();
+            if (!v)
+                elementNodePool.clear();
+        });
+        engine.immediateCanvasProperty().addListener((o, old, v) -> rebuildBands());
+
+        // Level of detail follows the zoom; bands are only re-rendered when it flips
+        lowDetail = engine.levelOfDetailZoomProperty().get() > 0
+                && engine.zoomFactorProperty().get() < engine.levelOfDetailZoomProperty().get();
+        engine.zoomFactorProperty().addListener(o -> updateLevelOfDetail());
+        engine.levelOfDetailZoomProperty().addListener(o -> updateLevelOfDetail());
+
         // CSS Classes
         internalScrollPane.getStyleClass().add("canvas-background");
         workspaceArea.getStyleClass().add("canvas-background");
         pagePane.getStyleClass().add("page-shadow");
 
+        // Tiled surface for high zoom, stacked with the whole-page image
+        tiledPageView = new TiledPageView(previewExecutor, 16_000_000L);
+        tiledPageView.setVisible(false);
+        tiledPageView.setManaged(false);
+        ((Pane) previewImage.getParent()).getChildren().add(tiledPageView);
+        ChangeListener<Object> viewportListener = (o, old, v) -> updateTiledViewport();
+        previewScroll.hvalueProperty().addListener(viewportListener);
+        previewScroll.vvalueProperty().addListener(viewportListener);
+        previewScroll.viewportBoundsProperty().addListener(viewportListener);
+
+        // Virtualized fill: page budget applies to the next preview, the toggle refills now
+        chkVirtualize.selectedProperty().bindBidirectional(engine.previewVirtualizedProperty());
+        spnPageBudget.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(10, 10_000,
+                engine.previewPageBudgetProperty().get(), 10));
+        spnPageBudget.valueProperty().addListener((o, old, v) -> {
+            if (v != null)
+                engine.previewPageBudgetProperty().set(v);
+        });
+        spnPageBudget.disableProperty().bind(chkVirtualize.selectedProperty().not());
+        chkVirtualize.selectedProperty().addListener((o, old, v) -> {
+            if (previewView.isVisible())
+                startPreviewFill();
+        });
+
+        // Row limit and sampling for adapter data (0 rows = no limit); applied on Refresh
+        cmbSampleMode.getItems().setAll(DataSampler.Mode.values());
+        cmbSampleMode.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(DataSampler.Mode mode) {
+                if (mode == null)
+                    return "";
+                return mode == DataSampler.Mode.RANDOM_SAMPLE ? "Random sample" : "First rows";
+            }
+
+            @Override
+            public DataSampler.Mode fromString(String string) {
+                return null; // Not editable
+            }
+        });
+        cmbSampleMode.valueProperty().bindBidirectional(engine.previewSampleModeProperty());
+        spnRowLimit.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 1_000_000,
+                engine.previewRowLimitProperty().get(), 100));
+        spnRowLimit.valueProperty().addListener((o, old, v) -> {
+            if (v != null)
+                engine.previewRowLimitProperty().set(v);
+        });
+
+        // Moving the window to a screen with another pixel ratio changes the raster scale
+        sceneProperty().addListener((o, oldScene, scene) -> {
+            if (oldScene != null) {
+                oldScene.windowProperty().removeListener(windowListener);
+                windowListener.changed(oldScene.windowProperty(), oldScene.getWindow(), null);
+            }
+            if (scene != null) {
+                scene.windowProperty().addListener(windowListener);
+                windowListener.changed(scene.windowProperty(), null, scene.getWindow());
+            }
+        });
+
         // Setup keyboard shortcuts for preview zoom
         previewView.setOnKeyPressed(event -> {
             if (event.isControlDown()) {
@@ -258,6 +439,8 @@ public class ReportCanvas extends BorderPane {
         if (workspaceArea.isVisible())
             return; // Already in design
 
+        cancelPreviewFill();
+
         try {
             // Only update design from Source if we are coming from Source View
             if (sourceContainer.isVisible()) {
@@ -299,6 +482,8 @@ public class ReportCanvas extends BorderPane {
         if (sourceContainer.isVisible())
             return;
 
+        cancelPreviewFill();
+
         if (engine.getDesign() != null) {
             try {
                 JrxmlService service = new JrxmlService();
@@ -403,55 +588,343 @@ public class ReportCanvas extends BorderPane {
 
         engine.setViewMode(DesignerEngine.ViewMode.PREVIEW);
 
-        // Run Preview Logic (Async)
-        new Thread(() -> {
+        startPreviewFill();
+    }
+
+    /**
+     * Compiles (through the engine's cache) and starts an asynchronous fill.
+     * Pages are shown as soon as the filler produces them; any fill still
+     * running from an earlier preview is cancelled first.
+     */
+    private void startPreviewFill() {
+        cancelPreviewFill();
+        final int generation = previewGeneration;
+        final JasperDesign jd = engine.getDesign().getDesign();
+        final JRSwapFileVirtualizer virtualizer = engine.previewVirtualizedProperty().get()
+                ? VirtualizerFactory.createSwapFileVirtualizer(engine.previewPageBudgetProperty().get())
+                : null;
+        currentVirtualizer = virtualizer;
+
+        currentJasperPrint = null;
+        currentPageIndex = 0;
+        pageImageCache.clear();
+        tiledPageView.clear();
+        previewImage.setImage(null);
+        lblPageStatus.setText("Compiling...");
+
+        previewExecutor.execute(() -> {
             try {
-                JasperDesign jd = engine.getDesign().getDesign();
-                JasperReport jr = JasperCompileManager.compileReport(jd);
-                currentJasperPrint = JasperFillManager.fillReport(jr, new HashMap<>(), new JREmptyDataSource());
-                currentPageIndex = 0;
+                JasperReport jr = engine.compileReport(jd);
+                if (generation != previewGeneration)
+                    return;
+
+                HashMap<String, Object> params = new HashMap<>();
+                if (virtualizer != null)
+                    params.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+
+                FillSession session = engine.startPreviewFill(jr, params,
+                        new FillSession.Listener() {
+                            @Override
+                            public void pageGenerated(JasperPrint print, int pageIndex) {
+                                if (pageIndex == 0) {
+                                    Platform.runLater(() -> {
+                                        if (generation != previewGeneration)
+                                            return;
+                                        currentJasperPrint = print;
+                                        requestRender();
+                                    });
+                                }
+                            }
 
-                renderCurrentPage();
+                            @Override
+                            public void pageUpdated(JasperPrint print, int pageIndex) {
+                                pageImageCache.invalidate(print, pageIndex);
+                                if (generation == previewGeneration && pageIndex == currentPageIndex) {
+                                    Platform.runLater(() -> {
+                                        tiledPageView.invalidatePage(pageIndex);
+                                        requestRender();
+                                    });
+                                }
+                            }
 
+                            @Override
+                            public void finished(JasperPrint print) {
+                                // No more pages will be added; swapped pages are now only read back
+                                if (virtualizer != null)
+                                    virtualizer.setReadOnly(true);
+                                Platform.runLater(() -> {
+                                    if (generation != previewGeneration)
+                                        return;
+                                    stopFillProgress();
+                                    boolean firstPage = currentJasperPrint == null;
+                                    currentJasperPrint = print;
+                                    if (firstPage)
+                                        requestRender(); // Empty report or single callback missed
+                                    else
+                                        updatePageStatus();
+                                });
+                            }
+
+                            @Override
+                            public void cancelled() {
+                                logger.debug("Preview fill cancelled");
+                            }
+
+                            @Override
+                            public void failed(Throwable error) {
+                                Platform.runLater(() -> {
+                                    if (generation == previewGeneration) {
+                                        stopFillProgress();
+                                        lblPageStatus.setText("Preview failed");
+                                    }
+                                });
+                                engine.logError("Preview Generation Failed", error);
+                            }
+                        });
+
+                Platform.runLater(() -> {
+                    if (generation != previewGeneration) {
+                        session.cancel();
+                        return;
+                    }
+                    currentFill = session;
+                    startFillProgress();
+                });
             } catch (Exception ex) {
+                // Compilation errors, or the data adapter could not be opened
+                Platform.runLater(() -> {
+                    if (generation == previewGeneration)
+                        lblPageStatus.setText("Preview failed");
+                });
                 engine.logError("Preview Generation Failed", ex);
             }
-        }).start();
+        });
+    }
+
+    /**
+     * Stops the running fill (if any) and invalidates callbacks from it.
+     */
+    private void cancelPreviewFill() {
+        previewGeneration++;
+        stopFillProgress();
+        if (currentFill != null) {
+            currentFill.cancel();
+            currentFill = null;
+        }
+        releaseVirtualizer();
+    }
+
+    /**
+     * Drops the virtualized print and deletes its swap file. Cleanup waits for
+     * the renders already submitted for the old print and then for the
+     * prefetches they and earlier pages queued, since both read from the swap
+     * file.
+     */
+    private void releaseVirtualizer() {
+        JRSwapFileVirtualizer virtualizer = currentVirtualizer;
+        if (virtualizer == null)
+            return;
+        currentVirtualizer = null;
+        currentJasperPrint = null;
+        pageImageCache.clear();
+        tiledPageView.clear();
+        // Prefetches are only queued by renders and the FX thread, so none for the old print can follow
+        previewExecutor.execute(() -> prefetchExecutor.execute(virtualizer::cleanup));
+    }
+
+    private void startFillProgress() {
+        stopFillProgress();
+        fillProgressTimer = new Timeline(new KeyFrame(Duration.millis(250), e -> updatePageStatus()));
+        fillProgressTimer.setCycleCount(Animation.INDEFINITE);
+        fillProgressTimer.play();
+        updatePageStatus();
+    }
+
+    private void stopFillProgress() {
+        if (fillProgressTimer != null) {
+            fillProgressTimer.stop();
+            fillProgressTimer = null;
+        }
+    }
+
+    private void updatePageStatus() {
+        JasperPrint print = currentJasperPrint;
+        FillSession fill = currentFill;
+        boolean filling = fill != null && !fill.isDone();
+
+        if (print == null || print.getPages().isEmpty()) {
+            if (filling) {
+                lblPageStatus.setText(String.format("Filling... (%.1f s)", fill.getElapsed().toMillis() / 1000.0));
+            } else if (print != null) {
+                lblPageStatus.setText("No Pages");
+            }
+            return;
+        }
+
+        int totalPages = print.getPages().size();
+        String status = "Page " + (currentPageIndex + 1) + " of " + totalPages;
+        if (filling) {
+            status += String.format("+  (filling: %d pages, %.1f s)", fill.getPagesFilled(),
+                    fill.getElapsed().toMillis() / 1000.0);
+        }
+        lblPageStatus.setText(status);
+    }
+
+    private void requestRender() {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(this::requestRender);
+            return;
+        }
+        JasperPrint print = currentJasperPrint;
+        if (print != null && useTiledPreview()) {
+            showTiledPage(print);
+            return;
+        }
+        tiledPageView.setVisible(false);
+        tiledPageView.setManaged(false);
+        previewImage.setVisible(true);
+        previewImage.setManaged(true);
+
+        float scale = updateRasterScale();
+
+        // Already rasterized pages are shown synchronously, without a thread hop
+        if (print != null) {
+            Image cached = pageImageCache.get(print, currentPageIndex, scale);
+            if (cached != null) {
+                showPageImage(print, currentPageIndex, cached);
+                prefetchNeighbours(print, currentPageIndex, scale);
+                return;
+            }
+        }
+        previewExecutor.execute(this::renderCurrentPage);
+    }
+
+    /**
+     * Whole-page rasters are capped at {@link #MAX_WHOLE_PAGE_SCALE}; once the
+     * zoom asks for more device pixels than that, switch to viewport tiles so
+     * the page stays sharp.
+     */
+    private boolean useTiledPreview() {
+        return previewZoomFactor * currentOutputScale() > MAX_WHOLE_PAGE_SCALE;
+    }
+
+    /**
+     * Picks the raster scale for whole-page images from the current zoom and
+     * the window's output scale, keeping the previous scale while it is
+     * neither too small (blurry) nor more than {@link #DOWNSCALE_THRESHOLD}
+     * times too large.
+     */
+    private float updateRasterScale() {
+        float required = (float) (previewZoomFactor * currentOutputScale());
+        float current = previewRasterScale;
+        if (current < required || current > required * DOWNSCALE_THRESHOLD) {
+            float target = current < required ? required * UPSCALE_HEADROOM : required;
+            // Quarter steps, matching the page cache's scale buckets
+            target = (float) Math.ceil(target * 4) / 4f;
+            previewRasterScale = Math.max(MIN_RASTER_SCALE, Math.min(MAX_WHOLE_PAGE_SCALE, target));
+        }
+        return previewRasterScale;
+    }
+
+    private double currentOutputScale() {
+        if (getScene() != null && getScene().getWindow() != null) {
+            return getScene().getWindow().getOutputScaleX();
+        }
+        return 1.0;
+    }
+
+    private void showTiledPage(JasperPrint print) {
+        if (print.getPages().isEmpty() || currentPageIndex >= print.getPages().size()) {
+            updatePageStatus();
+            return;
+        }
+        previewImage.setVisible(false);
+        previewImage.setManaged(false);
+        tiledPageView.setVisible(true);
+        tiledPageView.setManaged(true);
+
+        tiledPageView.show(print, currentPageIndex, previewZoomFactor, currentOutputScale());
+        updatePageStatus();
+        // Layout has to settle before the visible rectangle is meaningful
+        Platform.runLater(this::updateTiledViewport);
+    }
+
+    private void updateTiledViewport() {
+        if (!tiledPageView.isVisible() || tiledPageView.getScene() == null)
+            return;
+        Bounds viewportInScene = previewScroll.localToScene(previewScroll.getLayoutBounds());
+        tiledPageView.updateViewport(tiledPageView.sceneToLocal(viewportInScene));
     }
 
     private void renderCurrentPage() {
-        if (currentJasperPrint == null)
+        JasperPrint print = currentJasperPrint;
+        if (print == null)
             return;
 
-        int totalPages = currentJasperPrint.getPages().size();
+        final int pageIndex = currentPageIndex;
+        int totalPages = print.getPages().size();
         if (totalPages == 0) {
             Platform.runLater(() -> {
                 previewImage.setImage(null);
-                lblPageStatus.setText("No Pages");
+                updatePageStatus();
             });
             return;
         }
+        if (pageIndex >= totalPages)
+            return;
 
         try {
-            // Generate High-DPI image (2x) for quality
-            BufferedImage bim = (BufferedImage) JasperPrintManager.printPageToImage(currentJasperPrint,
-                    currentPageIndex, 2.0f);
-            final Image fimg = SwingFXUtils.toFXImage(bim, null);
+            final float scale = previewRasterScale;
+            final Image fimg = rasterizePage(print, pageIndex, scale);
+            Platform.runLater(() -> showPageImage(print, pageIndex, fimg));
+            prefetchNeighbours(print, pageIndex, scale);
+        } catch (Exception e) {
+            engine.logError("Failed to render page " + pageIndex, e);
+        }
+    }
 
-            Platform.runLater(() -> {
-                previewImage.setImage(fimg);
-                lblPageStatus.setText("Page " + (currentPageIndex + 1) + " of " + totalPages);
-
-                if (fimg != null) {
-                    // Constrain display size to actual Page Size with zoom applied
-                    JasperDesign jdRef = engine.getDesign().getDesign();
-                    previewImage.setFitWidth(jdRef.getPageWidth() * previewZoomFactor);
-                    previewImage.setFitHeight(jdRef.getPageHeight() * previewZoomFactor);
-                    previewImage.setPreserveRatio(true);
+    private Image rasterizePage(JasperPrint print, int pageIndex, float scale) throws Exception {
+        return pageImageCache.getOrRender(print, pageIndex, scale, () -> {
+            BufferedImage bim = (BufferedImage) JasperPrintManager.printPageToImage(print, pageIndex, scale);
+            return SwingFXUtils.toFXImage(bim, null);
+        });
+    }
+
+    private void showPageImage(JasperPrint print, int pageIndex, Image fimg) {
+        if (print != currentJasperPrint || pageIndex != currentPageIndex)
+            return; // Superseded while rendering
+        previewImage.setImage(fimg);
+        updatePageStatus();
+
+        if (fimg != null) {
+            // Constrain display size to actual Page Size with zoom applied
+            previewImage.setFitWidth(print.getPageWidth() * previewZoomFactor);
+            previewImage.setFitHeight(print.getPageHeight() * previewZoomFactor);
+            previewImage.setPreserveRatio(true);
+        }
+    }
+
+    /**
+     * Rasterizes the pages around the current one in the background so that
+     * paging forward or back is served from the cache.
+     */
+    private void prefetchNeighbours(JasperPrint print, int pageIndex, float scale) {
+        for (int offset : PREFETCH_OFFSETS) {
+            int neighbour = pageIndex + offset;
+            if (neighbour < 0 || neighbour >= print.getPages().size()
+                    || pageImageCache.contains(print, neighbour, scale))
+                continue;
+            prefetchExecutor.execute(() -> {
+                // Skip if the user moved on, zoomed, or a new preview started meanwhile
+                if (print != currentJasperPrint || scale != previewRasterScale
+                        || Math.abs(neighbour - currentPageIndex) > PREFETCH_DISTANCE)
+                    return;
+                try {
+                    rasterizePage(print, neighbour, scale);
+                } catch (Exception e) {
+                    logger.debug("Prefetch of page {} failed", neighbour, e);
                 }
             });
-        } catch (JRException e) {
-            engine.logError("Failed to render page " + currentPageIndex, e);
         }
     }
 
@@ -459,7 +932,7 @@ public class ReportCanvas extends BorderPane {
     private void onNextPage() {
         if (currentJasperPrint != null && currentPageIndex < currentJasperPrint.getPages().size() - 1) {
             currentPageIndex++;
-            new Thread(this::renderCurrentPage).start();
+            requestRender();
         }
     }
 
@@ -467,7 +940,7 @@ public class ReportCanvas extends BorderPane {
     private void onPrevPage() {
         if (currentJasperPrint != null && currentPageIndex > 0) {
             currentPageIndex--;
-            new Thread(this::renderCurrentPage).start();
+            requestRender();
         }
     }
 
@@ -475,7 +948,7 @@ public class ReportCanvas extends BorderPane {
     private void onFirstPage() {
         if (currentJasperPrint != null && currentPageIndex > 0) {
             currentPageIndex = 0;
-            new Thread(this::renderCurrentPage).start();
+            requestRender();
         }
     }
 
@@ -485,17 +958,93 @@ public class ReportCanvas extends BorderPane {
             int last = currentJasperPrint.getPages().size() - 1;
             if (currentPageIndex < last) {
                 currentPageIndex = last;
-                new Thread(this::renderCurrentPage).start();
+                requestRender();
             }
         }
     }
 
+    @FXML
+    private void onExport() {
+        if (engine.getDesign() == null)
+            return;
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Report");
+        Map<FileChooser.ExtensionFilter, ExportFormat> formats = new LinkedHashMap<>();
+        formats.put(new FileChooser.ExtensionFilter("Excel Workbook", "*.xlsx"), ExportFormat.XLSX);
+        formats.put(new FileChooser.ExtensionFilter("CSV File", "*.csv"), ExportFormat.CSV);
+        // Only offered where an iText library is on the classpath; the build excludes it
+        if (ExportFormat.PDF.isAvailable()) {
+            formats.put(new FileChooser.ExtensionFilter("PDF Document", "*.pdf"), ExportFormat.PDF);
+        }
+        fileChooser.getExtensionFilters().addAll(formats.keySet());
+        File file = fileChooser.showSaveDialog(getScene().getWindow());
+        if (file == null)
+            return;
+
+        // The chosen filter decides the format; not every platform appends its extension
+        ExportFormat format = formats.getOrDefault(fileChooser.getSelectedExtensionFilter(), ExportFormat.XLSX);
+        String suffix = "." + format.getExtension();
+        if (!file.getName().toLowerCase(Locale.ROOT).endsWith(suffix)) {
+            file = new File(file.getParentFile(), file.getName() + suffix);
+        }
+        startExport(file, format);
+    }
+
+    /**
+     * Fills the whole report again through a swap-file virtualizer and exports
+     * it to the file. Unlike the preview print this never holds more than the
+     * page budget in memory, whatever the report length.
+     */
+    private void startExport(File target, ExportFormat format) {
+        final JasperDesign jd = engine.getDesign().getDesign();
+        final int pageBudget = engine.previewPageBudgetProperty().get();
+        btnExport.setDisable(true);
+        lblExportStatus.setText("Exporting...");
+
+        exportExecutor.execute(() -> {
+            JRSwapFileVirtualizer virtualizer = VirtualizerFactory.createSwapFileVirtualizer(pageBudget);
+            try {
+                JasperReport jr = engine.compileReport(jd);
+                HashMap<String, Object> params = new HashMap<>();
+                params.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+
+                FillSession session = engine.startExportFill(jr, params, new FillSession.Listener() {
+                    @Override
+                    public void pageGenerated(JasperPrint print, int pageIndex) {
+                        if (pageIndex % 50 == 0)
+                            Platform.runLater(() -> lblExportStatus.setText("Filling... " + (pageIndex + 1) + " pages"));
+                    }
+                });
+                JasperPrint print = session.getResult().join();
+                virtualizer.setReadOnly(true);
+
+                Platform.runLater(() -> lblExportStatus.setText("Writing " + target.getName() + "..."));
+                ReportExporter.exportToFile(print, format, target.toPath());
+                int pages = print.getPages().size();
+                Platform.runLater(() -> lblExportStatus.setText("Exported " + pages + " pages"));
+            } catch (Throwable ex) {
+                // Including linkage errors of exporters whose libraries are missing
+                Platform.runLater(() -> lblExportStatus.setText("Export failed"));
+                engine.logError("Export Failed", ex);
+            } finally {
+                virtualizer.cleanup();
+                Platform.runLater(() -> btnExport.setDisable(false));
+            }
+        });
+    }
+
+    @FXML
+    private void onRefreshPreview() {
+        if (previewView.isVisible())
+            startPreviewFill();
+    }
+
     @FXML
     private void onPreviewZoomIn() {
-        if (previewZoomFactor < 3.0) {
+        if (previewZoomFactor < MAX_PREVIEW_ZOOM) {
             previewZoomFactor += 0.25;
             updatePreviewZoomLabel();
-            renderCurrentPage();
+            requestRender();
         }
     }
 
@@ -504,7 +1053,7 @@ public class ReportCanvas extends BorderPane {
         if (previewZoomFactor > 0.25) {
             previewZoomFactor -= 0.25;
             updatePreviewZoomLabel();
-            renderCurrentPage();
+            requestRender();
         }
     }
 
@@ -668,6 +1217,17 @@ public class ReportCanvas extends BorderPane {
     }
 
     private void setupListeners() {
+        selectionOverlay = new SelectionOverlay(adornerLayer, this::elementSceneBounds, engine.zoomFactorProperty());
+        for (Pos pos : new Pos[] { Pos.TOP_LEFT, Pos.TOP_CENTER, Pos.TOP_RIGHT, Pos.CENTER_LEFT, Pos.CENTER_RIGHT,
+                Pos.BOTTOM_LEFT, Pos.BOTTOM_CENTER, Pos.BOTTOM_RIGHT }) {
+            makeHandle(pos);
+        }
+        selectionOutlines = new SelectionOutlines(adornerLayer, this::designSceneBounds,
+                engine.zoomFactorProperty());
+        engine.selectionProperty().addListener((obs, oldVal, newVal) -> updateSelectionVisual(newVal));
+        engine.getSelectionModel().getElements()
+                .addListener((javafx.beans.InvalidationListener) o -> updateSelectionOutlines());
+
         engine.currentDesignProperty().addListener((obs, oldVal, newDesign) -> {
             if (newDesign != null) {
                 bindToDesign(newDesign);
@@ -726,65 +1286,96 @@ public class ReportCanvas extends BorderPane {
 
     // Grid Visuals
     private final Canvas gridCanvas = new Canvas();
+    private final javafx.scene.transform.Scale gridCanvasScale = new javafx.scene.transform.Scale(1, 1, 0, 0);
+    private boolean gridRedrawScheduled;
+
+    // Virtualized design rendering: one culling layer per band, sharing a node pool
+    private final ElementNodePool elementNodePool = new ElementNodePool(512);
+    private final Map<BandModel, VirtualizedElementLayer> elementLayers = new IdentityHashMap<>();
+    // Immediate-mode rendering: bands drawn onto a canvas, hit-tested by model
+    private final Map<BandModel, BandCanvasRenderer> bandCanvases = new IdentityHashMap<>();
+    // Undoes the listeners each rendered band registered
+    private final Map<BandModel, Runnable> bandDisposers = new IdentityHashMap<>();
+    private boolean visibleUpdateScheduled;
+    // Below the level-of-detail zoom elements are drawn simplified
+    private boolean lowDetail;
+    // Design the structural listeners below are registered on
+    private JasperDesignModel boundDesign;
+    private ListChangeListener<BandModel> bandsListener;
+    private final DesignChangeListener designChangeListener = new DesignChangeListener() {
+        @Override
+        public void designChanged(DesignChangeEvent event) {
+            onDesignChanged(List.of(event));
+        }
+
+        @Override
+        public void designChanged(List<DesignChangeEvent> events) {
+            onDesignChanged(events);
+        }
+    };
 
     private void redrawGrid() {
         if (!gridLayer.getChildren().contains(gridCanvas)) {
             gridLayer.getChildren().add(0, gridCanvas);
             gridCanvas.setMouseTransparent(true);
+            gridCanvas.getTransforms().add(gridCanvasScale);
 
-            // Re-bind or listener?
-            // We need to redraw when:
+            // The canvas only covers the visible part of the page, so redraw when:
             // 1. GridLayer size changes
             // 2. Zoom changes (to update resolution)
-            // 3. Grid properties change
-
-            ChangeListener<Number> redrawListener = (o, old, v) -> drawGridLines();
+            // 3. The viewport scrolls or resizes
+            // Grid properties call redrawGrid directly.
+            javafx.beans.InvalidationListener redrawListener = o -> scheduleGridRedraw();
             gridLayer.widthProperty().addListener(redrawListener);
             gridLayer.heightProperty().addListener(redrawListener);
             engine.zoomFactorProperty().addListener(redrawListener);
+            internalScrollPane.hvalueProperty().addListener(redrawListener);
+            internalScrollPane.vvalueProperty().addListener(redrawListener);
+            internalScrollPane.viewportBoundsProperty().addListener(redrawListener);
         }
         drawGridLines();
     }
 
+    private void scheduleGridRedraw() {
+        if (!gridRedrawScheduled) {
+            gridRedrawScheduled = true;
+            // After layout, so scroll positions and transforms are current
+            Platform.runLater(() -> {
+                gridRedrawScheduled = false;
+                drawGridLines();
+            });
+        }
+    }
+
+    /**
+     * Draws the grid lines that fall inside the viewport. The canvas is sized
+     * to the visible part of the page in screen pixels, so its texture stays
+     * the size of the viewport at any zoom.
+     */
     private void drawGridLines() {
-        if (!engine.showGridProperty().get()) {
-            GraphicsContext gc = gridCanvas.getGraphicsContext2D();
+        GraphicsContext gc = gridCanvas.getGraphicsContext2D();
+        Bounds region = engine.showGridProperty().get() ? visibleGridRegion() : null;
+        if (region == null) {
             gc.clearRect(0, 0, gridCanvas.getWidth(), gridCanvas.getHeight());
+            gridCanvas.setWidth(0);
+            gridCanvas.setHeight(0);
             return;
         }
 
         double zoom = engine.zoomFactorProperty().get();
-        // Determine the logical size of the grid layer (unscaled units)
-        double logicalW = gridLayer.getWidth();
-        double logicalH = gridLayer.getHeight();
-
-        // We want the Canvas to be sized to PHYSICAL pixels (Logic * Zoom)
-        // so that 1px line stroke is actually 1 screen pixel.
-        double physicalW = logicalW * zoom;
-        double physicalH = logicalH * zoom;
-
-        if (physicalW <= 0 || physicalH <= 0)
-            return;
+        // Canvas in PHYSICAL pixels (Logic * Zoom) so a 1px stroke is 1 screen pixel,
+        // inverse scaled to fit the logical region
+        double physicalW = Math.ceil(region.getWidth() * zoom);
+        double physicalH = Math.ceil(region.getHeight() * zoom);
 
+        gridCanvas.setLayoutX(region.getMinX());
+        gridCanvas.setLayoutY(region.getMinY());
         gridCanvas.setWidth(physicalW);
         gridCanvas.setHeight(physicalH);
-
-        // Inverse scale the canvas node so it fits into the logical layout space
-        // We use a Transform to pivot at (0,0) explicitly.
-
-        // Center-based scaling:
-        // We want Top-Left to align.
-        // DeltaX = (PhysicalW - LogicalW) / 2 <- this is how much it moves Right due to
-        // center pivot growth
-        // We want to move it LEFT by this amount to keep Left aligned? No.
-        // Let's use setPivot logic if possible, or just standard transforms.
-
-        gridCanvas.getTransforms().clear();
-        javafx.scene.transform.Scale scale = new javafx.scene.transform.Scale(1.0 / zoom, 1.0 / zoom, 0, 0);
-        gridCanvas.getTransforms().add(scale);
+        gridCanvasScale.setX(1.0 / zoom);
+        gridCanvasScale.setY(1.0 / zoom);
 
         // Now draw
-        GraphicsContext gc = gridCanvas.getGraphicsContext2D();
         gc.clearRect(0, 0, physicalW, physicalH);
 
         gc.setStroke(Color.LIGHTGRAY);
@@ -798,26 +1389,51 @@ public class ReportCanvas extends BorderPane {
         if (stepYLogical < 5)
             stepYLogical = 5;
 
-        // Grid Step in Physical Units
-        double stepXPhysical = stepXLogical * zoom;
-        double stepYPhysical = stepYLogical * zoom;
-
-        for (double x = 0; x < physicalW; x += stepXPhysical) {
+        // First visible line on each axis, in page units, mapped to canvas pixels
+        double firstX = Math.ceil(region.getMinX() / stepXLogical) * stepXLogical;
+        for (double x = firstX; x <= region.getMaxX(); x += stepXLogical) {
             // Snap to pixel
-            double val = Math.round(x) + 0.5;
+            double val = Math.round((x - region.getMinX()) * zoom) + 0.5;
             gc.strokeLine(val, 0, val, physicalH);
         }
 
-        for (double y = 0; y < physicalH; y += stepYPhysical) {
-            double val = Math.round(y) + 0.5;
+        double firstY = Math.ceil(region.getMinY() / stepYLogical) * stepYLogical;
+        for (double y = firstY; y <= region.getMaxY(); y += stepYLogical) {
+            double val = Math.round((y - region.getMinY()) * zoom) + 0.5;
             gc.strokeLine(0, val, physicalW, val);
         }
     }
 
+    /**
+     * @return the part of the grid layer inside the scroll viewport, in grid
+     *         layer coordinates, or {@code null} if none of it is visible
+     */
+    private Bounds visibleGridRegion() {
+        if (gridLayer.getScene() == null || internalScrollPane.getScene() == null)
+            return null;
+        Bounds viewport = gridLayer.sceneToLocal(
+                internalScrollPane.localToScene(internalScrollPane.getLayoutBounds()));
+        double minX = Math.max(0, viewport.getMinX());
+        double minY = Math.max(0, viewport.getMinY());
+        double maxX = Math.min(gridLayer.getWidth(), viewport.getMaxX());
+        double maxY = Math.min(gridLayer.getHeight(), viewport.getMaxY());
+        if (maxX <= minX || maxY <= minY)
+            return null;
+        return new javafx.geometry.BoundingBox(minX, minY, maxX - minX, maxY - minY);
+    }
+
     // Adorner Group
-    private final Group selectionAdorner = new Group();
+    // Reused for every element selection
+    private SelectionOverlay selectionOverlay;
+    // Secondary elements of a multiple selection
+    private SelectionOutlines selectionOutlines;
+    // Alignment lines shown while dragging
+    private final Group snapGuides = new Group();
+    // Alignment snap distance in screen pixels
+    private static final double SNAP_TOLERANCE = 5;
 
     private void updateSelectionVisual(Object selection) {
+        selectionOverlay.hide();
         adornerLayer.getChildren().clear();
 
         if (selection instanceof ElementModel model) {
@@ -825,6 +1441,52 @@ public class ReportCanvas extends BorderPane {
         } else if (selection instanceof BandModel band) {
             renderBandSelection(band);
         }
+        updateSelectionOutlines();
+    }
+
+    /**
+     * Outlines every selected element but the primary one. Called once per
+     * selection change, however many elements it selected.
+     */
+    private void updateSelectionOutlines() {
+        List<ElementModel> selected = engine.getSelectionModel().getElements();
+        ElementModel primary = engine.getSelectionModel().getPrimary();
+        List<ElementModel> others = new ArrayList<>(selected.size());
+        for (ElementModel element : selected) {
+            if (element != primary)
+                others.add(element);
+        }
+        selectionOutlines.setTargets(others);
+        if (others.isEmpty()) {
+            adornerLayer.getChildren().remove(selectionOutlines);
+        } else if (!adornerLayer.getChildren().contains(selectionOutlines)) {
+            adornerLayer.getChildren().add(0, selectionOutlines);
+        }
+    }
+
+    /**
+     * Scene bounds of an element computed from the design alone: its band's
+     * node plus the offsets of the frames around it. Needs no element node,
+     * so it also works for elements culled by virtualized rendering.
+     */
+    private Bounds designSceneBounds(ElementModel model) {
+        JasperDesignModel design = engine.getDesign();
+        ElementLocation location = design != null ? design.locate(model.getElement()) : null;
+        if (location == null)
+            return null;
+        double x = model.getX();
+        double y = model.getY();
+        JRElementGroup container = location.container();
+        while (container instanceof JRDesignFrame frame) {
+            x += frame.getX();
+            y += frame.getY();
+            ElementLocation outer = design.locate(frame);
+            container = outer != null ? outer.container() : null;
+        }
+        Node bandNode = findNodeForBand(location.band());
+        if (bandNode == null || bandNode.getScene() == null)
+            return null;
+        return bandNode.localToScene(new javafx.geometry.BoundingBox(x, y, model.getWidth(), model.getHeight()));
     }
 
     // Helper to find node for band
@@ -895,26 +1557,411 @@ public class ReportCanvas extends BorderPane {
         Node visual = createVisualForElement(model);
 
         if (visual != null) {
-            visual.setUserData(model);
-            visual.layoutXProperty().bind(model.xProperty());
-            visual.layoutYProperty().bind(model.yProperty());
+            attachVisual(visual, model);
+            parentContainer.getChildren().add(visual);
+        }
+    }
 
-            if (visual instanceof javafx.scene.control.Control) {
-                ((javafx.scene.control.Control) visual).prefWidthProperty().bind(model.widthProperty());
-                ((javafx.scene.control.Control) visual).prefHeightProperty().bind(model.heightProperty());
-            } else if (visual instanceof Pane) {
-                ((Pane) visual).prefWidthProperty().bind(model.widthProperty());
-                ((Pane) visual).prefHeightProperty().bind(model.heightProperty());
+    /**
+     * Adds an element's visual at the element's place among its siblings, so
+     * elements inserted below others (e.g. by undo or a sync from source)
+     * keep the design's stacking order.
+     *
+     * @param index the element's position in {@code siblings}
+     */
+    private void renderElement(ElementModel model, Pane parentContainer, List<ElementModel> siblings, int index) {
+        Node visual = createVisualForElement(model);
+
+        if (visual != null) {
+            attachVisual(visual, model);
+            parentContainer.getChildren().add(visualIndex(parentContainer, siblings, index), visual);
+        }
+    }
+
+    /**
+     * Child index just above the visual of the nearest lower sibling that has
+     * one, or below every element visual (but above decorations such as the
+     * band label) if none has.
+     */
+    private static int visualIndex(Pane parent, List<ElementModel> siblings, int index) {
+        List<Node> children = parent.getChildren();
+        for (int i = Math.min(index, siblings.size()) - 1; i >= 0; i--) {
+            JRDesignElement below = siblings.get(i).getElement();
+            for (int j = children.size() - 1; j >= 0; j--) {
+                if (children.get(j).getUserData() instanceof ElementModel em && em.getElement() == below)
+                    return j + 1;
             }
+        }
+        for (int j = 0; j < children.size(); j++) {
+            if (children.get(j).getUserData() instanceof ElementModel)
+                return j;
+        }
+        return children.size();
+    }
 
-            makeInteractive(visual, model);
-            parentContainer.getChildren().add(visual);
+    private void attachVisual(Node visual, ElementModel model) {
+        visual.setUserData(model);
+        visual.layoutXProperty().bind(model.xProperty());
+        visual.layoutYProperty().bind(model.yProperty());
+
+        if (visual instanceof javafx.scene.control.Control) {
+            ((javafx.scene.control.Control) visual).prefWidthProperty().bind(model.widthProperty());
+            ((javafx.scene.control.Control) visual).prefHeightProperty().bind(model.heightProperty());
+        } else if (visual instanceof Pane) {
+            ((Pane) visual).prefWidthProperty().bind(model.widthProperty());
+            ((Pane) visual).prefHeightProperty().bind(model.heightProperty());
+        }
+
+        makeInteractive(visual, model);
+    }
+
+    // Virtualized rendering: visuals are pooled per kind and rebound on reuse
+
+    private Node acquireVisual(ElementModel model) {
+        Object kind = visualKind(model);
+        Node visual = kind != null ? elementNodePool.acquire(kind) : null;
+        if (visual != null) {
+            rebindVisual(visual, model);
+        } else {
+            visual = createVisualForElement(model);
+        }
+        if (visual != null) {
+            attachVisual(visual, model);
+            if (engine.getSelection() == model) {
+                // Selected element scrolled back into view
+                Platform.runLater(() -> updateSelectionVisual(engine.getSelection()));
+            }
+        }
+        return visual;
+    }
+
+    private void releaseVisual(ElementModel model, Node visual) {
+        visual.setUserData(null);
+        visual.layoutXProperty().unbind();
+        visual.layoutYProperty().unbind();
+        visual.setOnMousePressed(null);
+        visual.setOnMouseDragged(null);
+        visual.setOnMouseReleased(null);
+
+        switch (visual) {
+            case javafx.scene.control.Control control -> {
+                control.prefWidthProperty().unbind();
+                control.prefHeightProperty().unbind();
+            }
+            case Pane pane -> {
+                pane.prefWidthProperty().unbind();
+                pane.prefHeightProperty().unbind();
+            }
+            case Rectangle rect -> {
+                rect.widthProperty().unbind();
+                rect.heightProperty().unbind();
+            }
+            case Ellipse ellipse -> {
+                ellipse.centerXProperty().unbind();
+                ellipse.centerYProperty().unbind();
+                ellipse.radiusXProperty().unbind();
+                ellipse.radiusYProperty().unbind();
+            }
+            case Line line -> {
+                line.endXProperty().unbind();
+                line.endYProperty().unbind();
+            }
+            default -> {
+            }
+        }
+
+        Object kind = visualKind(model);
+        if (kind != null) {
+            elementNodePool.release(kind, visual);
+        }
+    }
+
+    /**
+     * Binds a pooled visual's shape to a new model; everything that depends on
+     * the kind alone was set when the node was created.
+     */
+    private void rebindVisual(Node visual, ElementModel model) {
+        JRDesignElement jr = model.getElement();
+        switch (visual) {
+            case Label label -> label.setText(labelText(jr));
+            case Rectangle rect -> {
+                rect.widthProperty().bind(model.widthProperty());
+                rect.heightProperty().bind(model.heightProperty());
+            }
+            case Ellipse ellipse -> {
+                ellipse.centerXProperty().bind(model.widthProperty().divide(2));
+                ellipse.centerYProperty().bind(model.heightProperty().divide(2));
+                ellipse.radiusXProperty().bind(model.widthProperty().divide(2));
+                ellipse.radiusYProperty().bind(model.heightProperty().divide(2));
+            }
+            case Line line -> {
+                line.endXProperty().bind(model.widthProperty());
+                if (!(jr instanceof JRDesignBreak)) {
+                    line.endYProperty().bind(model.heightProperty());
+                }
+            }
+            default -> {
+            }
         }
     }
 
+    /**
+     * Pool key for an element's visual, or {@code null} for visuals that are
+     * not reusable (frames carry their children).
+     */
+    private Object visualKind(ElementModel model) {
+        JRDesignElement jr = model.getElement();
+        if (jr instanceof JRDesignFrame) {
+            return null;
+        }
+        String componentType = jr.getPropertiesMap().getProperty("com.jasperstudio.component.type");
+        String kind = componentType != null ? jr.getClass().getName() + ":" + componentType : jr.getClass().getName();
+        return lowDetail ? "lod:" + kind : kind;
+    }
+
+    private static String labelText(JRDesignElement jr) {
+        if (jr instanceof JRDesignStaticText staticText) {
+            return staticText.getText();
+        }
+        if (jr instanceof JRDesignTextField textField && textField.getExpression() != null) {
+            return textField.getExpression().getText();
+        }
+        return "$F{...}";
+    }
+
+    private void scheduleVisibleElementsUpdate() {
+        if (!visibleUpdateScheduled && (!elementLayers.isEmpty() || !bandCanvases.isEmpty())) {
+            visibleUpdateScheduled = true;
+            Platform.runLater(this::updateVisibleElements);
+        }
+    }
+
+    /**
+     * Hands each virtualized or canvas-drawn band the part of the scroll
+     * viewport it covers, in band coordinates.
+     */
+    private void updateVisibleElements() {
+        visibleUpdateScheduled = false;
+        if (internalScrollPane.getScene() == null)
+            return;
+        Bounds viewport = internalScrollPane.localToScene(internalScrollPane.getLayoutBounds());
+        for (Map.Entry<BandModel, VirtualizedElementLayer> entry : elementLayers.entrySet()) {
+            Node bandNode = findNodeForBand(entry.getKey());
+            if (bandNode != null) {
+                entry.getValue().setVisibleBounds(bandNode.sceneToLocal(viewport));
+            }
+        }
+        double deviceScale = engine.zoomFactorProperty().get() * designOutputScale();
+        for (Map.Entry<BandModel, BandCanvasRenderer> entry : bandCanvases.entrySet()) {
+            Node bandNode = findNodeForBand(entry.getKey());
+            if (bandNode != null) {
+                entry.getValue().setVisibleBounds(bandNode.sceneToLocal(viewport), deviceScale);
+            }
+        }
+    }
+
+    private double designOutputScale() {
+        if (getScene() == null || getScene().getWindow() == null)
+            return 1.0;
+        return Math.max(1.0, getScene().getWindow().getOutputScaleX());
+    }
+
+    private BandModel findCanvasBand(ElementModel model) {
+        for (Map.Entry<BandModel, BandCanvasRenderer> entry : bandCanvases.entrySet()) {
+            if (entry.getValue().isRendering(model))
+                return entry.getKey();
+        }
+        return null;
+    }
+
+    /**
+     * Scene bounds of an element, from its node or, for canvas-drawn bands,
+     * from the model and its band.
+     */
+    private Bounds elementSceneBounds(ElementModel model, Node node) {
+        if (node != null) {
+            return node.getScene() != null ? node.localToScene(node.getLayoutBounds()) : null;
+        }
+        BandModel band = findCanvasBand(model);
+        Node bandNode = band != null ? findNodeForBand(band) : null;
+        if (bandNode == null || bandNode.getScene() == null)
+            return null;
+        return bandNode.localToScene(new javafx.geometry.BoundingBox(model.getX(), model.getY(),
+                model.getWidth(), model.getHeight()));
+    }
+
+    private void disposeBand(BandModel band) {
+        Runnable disposer = bandDisposers.remove(band);
+        if (disposer != null) {
+            disposer.run();
+        }
+    }
+
+    private void disposeAllBands() {
+        for (Runnable disposer : bandDisposers.values()) {
+            disposer.run();
+        }
+        bandDisposers.clear();
+    }
+
+    /**
+     * Re-renders the bands of the current design, e.g. after switching
+     * between virtualized and full rendering.
+     */
+    private void rebuildBands() {
+        JasperDesignModel design = engine.getDesign();
+        if (design == null || contentLayer.getChildren().isEmpty()
+                || !(contentLayer.getChildren().get(0) instanceof VBox container))
+            return;
+        disposeAllBands();
+        container.getChildren().clear();
+        for (BandModel band : design.getBands()) {
+            renderBand(band, container);
+        }
+        updateSelectionVisual(engine.getSelection());
+    }
+
+    // Structural changes: only the affected frames are patched
+
+    /**
+     * Applies one change, or all changes of a committed transaction. Within a
+     * batch each frame's node is looked up, and each canvas-drawn frame
+     * repainted, only once.
+     */
+    private void onDesignChanged(List<DesignChangeEvent> events) {
+        Map<JRElementGroup, Node> frameNodes = new IdentityHashMap<>();
+        Set<JRElementGroup> repainted = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DesignChangeEvent event : events) {
+            switch (event.getType()) {
+                case ELEMENT_ADDED -> {
+                    if (event.isInFrame())
+                        addToFrame(event.getBand(), event.getContainer(), event, frameNodes, repainted);
+                }
+                case ELEMENT_REMOVED -> {
+                    if (event.isInFrame())
+                        removeFromFrame(event.getBand(), event.getContainer(), event.getElement(), frameNodes,
+                                repainted);
+                }
+                case ELEMENT_REPARENTED -> {
+                    if (event.getOldContainer() != event.getOldBand().getBand())
+                        removeFromFrame(event.getOldBand(), event.getOldContainer(), event.getElement(), frameNodes,
+                                repainted);
+                    if (event.isInFrame())
+                        addToFrame(event.getBand(), event.getContainer(), event, frameNodes, repainted);
+                }
+                case BAND_CHANGED -> {
+                    // Band panes follow the band list
+                }
+            }
+        }
+    }
+
+    private void addToFrame(BandModel band, JRElementGroup frame, DesignChangeEvent event,
+            Map<JRElementGroup, Node> frameNodes, Set<JRElementGroup> repainted) {
+        BandCanvasRenderer renderer = bandCanvases.get(band);
+        if (renderer != null) {
+            if (repainted.add(frame))
+                repaintFrame(renderer, band, frame);
+            return;
+        }
+        // Frames scrolled out of a virtualized band have no node; they are built complete when shown
+        if (frameNode(band, frame, frameNodes) instanceof Pane framePane) {
+            JRDesignElement element = event.getElement();
+            // A frame node built later in the same batch already shows its children
+            boolean shown = framePane.getChildren().stream()
+                    .anyMatch(n -> n.getUserData() instanceof ElementModel em && em.getElement() == element);
+            if (!shown) {
+                ElementModel model = event.getModel() != null ? event.getModel() : ElementModel.of(element);
+                List<ElementModel> siblings = framePane.getUserData() instanceof FrameModel frameModel
+                        ? frameModel.getChildren()
+                        : List.of();
+                int index = 0;
+                while (index < siblings.size() && siblings.get(index).getElement() != element) {
+                    index++;
+                }
+                renderElement(model, framePane, siblings, index);
+            }
+        }
+    }
+
+    private void removeFromFrame(BandModel band, JRElementGroup frame, JRDesignElement element,
+            Map<JRElementGroup, Node> frameNodes, Set<JRElementGroup> repainted) {
+        BandCanvasRenderer renderer = bandCanvases.get(band);
+        if (renderer != null) {
+            if (repainted.add(frame))
+                repaintFrame(renderer, band, frame);
+            return;
+        }
+        if (frameNode(band, frame, frameNodes) instanceof Pane framePane) {
+            framePane.getChildren().removeIf(
+                    n -> n.getUserData() instanceof ElementModel em && em.getElement() == element);
+        }
+    }
+
+    /**
+     * The frame's node, remembered for the rest of the batch while it stays
+     * in the scene and shows that frame.
+     */
+    private Node frameNode(BandModel band, JRElementGroup frame, Map<JRElementGroup, Node> frameNodes) {
+        Node node = frameNodes.get(frame);
+        if (node == null || node.getScene() == null
+                || !(node.getUserData() instanceof ElementModel em && em.getElement() == frame)) {
+            node = findElementNode(band, frame);
+            if (node != null)
+                frameNodes.put(frame, node);
+        }
+        return node;
+    }
+
+    private void repaintFrame(BandCanvasRenderer renderer, BandModel band, JRElementGroup frame) {
+        for (ElementModel em : band.getElements()) {
+            if (em.getElement() == frame
+                    || (em.getElement() instanceof JRDesignFrame outer && containsGroup(outer, frame))) {
+                renderer.invalidate(em);
+                return;
+            }
+        }
+    }
+
+    private static boolean containsGroup(JRDesignFrame outer, JRElementGroup group) {
+        for (JRChild child : outer.getChildren()) {
+            if (child == group || (child instanceof JRDesignFrame inner && containsGroup(inner, group)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Node showing the given element within a band, or {@code null} if it has
+     * none (e.g. culled).
+     */
+    private Node findElementNode(BandModel band, JRElementGroup element) {
+        Node bandNode = findNodeForBand(band);
+        return bandNode instanceof Parent parent ? findElementNodeRecursive(parent, element) : null;
+    }
+
+    private Node findElementNodeRecursive(Parent parent, JRElementGroup element) {
+        for (Node child : parent.getChildrenUnmodifiable()) {
+            if (child.getUserData() instanceof ElementModel em && em.getElement() == element)
+                return child;
+            if (child instanceof Pane pane) {
+                Node found = findElementNodeRecursive(pane, element);
+                if (found != null)
+                    return found;
+            }
+        }
+        return null;
+    }
+
     private Node createVisualForElement(ElementModel model) {
         JRDesignElement jr = model.getElement();
 
+        if (lowDetail) {
+            Node simplified = createLowDetailVisual(model);
+            if (simplified != null)
+                return simplified;
+        }
+
         switch (jr) {
             case JRDesignStaticText jrDesignStaticText -> {
                 Label label = new Label(jrDesignStaticText.getText());
@@ -923,10 +1970,7 @@ public class ReportCanvas extends BorderPane {
                 return label;
             }
             case JRDesignTextField jrDesignTextField -> {
-                Label tf = new Label("$F{...}");
-                JRExpression minExpr = jrDesignTextField.getExpression();
-                if (minExpr != null)
-                    tf.setText(minExpr.getText());
+                Label tf = new Label(labelText(jrDesignTextField));
                 tf.setStyle(
                         "-fx-border-color: #ccc; -fx-background-color: #f0f8ff; -fx-padding: 2; -fx-text-fill: #0066cc;");
                 return tf;
@@ -936,13 +1980,12 @@ public class ReportCanvas extends BorderPane {
                 framePane.setStyle(
                         "-fx-border-color: black; -fx-border-width: 1; -fx-background-color: rgba(0,0,0,0.05);");
                 setupDropTarget(framePane, model);
-                JRElement[] childrenArray = frame.getElements();
-                if (childrenArray != null) {
-                    for (JRElement child : childrenArray) {
-                        if (child instanceof JRDesignElement) {
-                            renderElement(new ElementModel((JRDesignElement) child), framePane, model);
-                        }
-                    }
+                // Child models are cached by the frame model, so re-rendering reuses them. A fresh
+                // FrameModel here would hand out child models the design does not know about.
+                if (!(model instanceof FrameModel frameModel))
+                    throw new IllegalStateException("Frame " + frame.getUUID() + " is not backed by a FrameModel");
+                for (ElementModel child : frameModel.getChildren()) {
+                    renderElement(child, framePane, model);
                 }
                 return framePane;
             }
@@ -1040,6 +2083,50 @@ public class ReportCanvas extends BorderPane {
         }
     }
 
+    /**
+     * Cheap stand-in for elements whose detail is lost when zoomed far out: a
+     * plain box for text, a bare placeholder for images and components, an
+     * outline for frames (children are not rendered). Returns {@code null} for
+     * elements that are already a single shape.
+     */
+    private Node createLowDetailVisual(ElementModel model) {
+        JRDesignElement jr = model.getElement();
+        Rectangle box = new Rectangle();
+        switch (jr) {
+            case JRDesignStaticText ignored -> box.setFill(Color.web("#e6e6e6"));
+            case JRDesignTextField ignored -> box.setFill(Color.web("#cfe3f7"));
+            case JRDesignFrame ignored -> {
+                box.setFill(Color.TRANSPARENT);
+                box.setStroke(Color.BLACK);
+                setupDropTarget(box, model);
+            }
+            case JRDesignImage ignored -> box.setFill(Color.web("#dddddd"));
+            case JRDesignSubreport ignored -> box.setFill(Color.web("#e0e0e0"));
+            case JRDesignChart ignored -> box.setFill(Color.web("#fce8b2"));
+            case JRDesignCrosstab ignored -> box.setFill(Color.web("#d1c4e9"));
+            default -> {
+                return null;
+            }
+        }
+        box.widthProperty().bind(model.widthProperty());
+        box.heightProperty().bind(model.heightProperty());
+        return box;
+    }
+
+    /**
+     * Re-renders the bands when the zoom crosses the level-of-detail threshold.
+     */
+    private void updateLevelOfDetail() {
+        double threshold = engine.levelOfDetailZoomProperty().get();
+        boolean low = threshold > 0 && engine.zoomFactorProperty().get() < threshold;
+        if (low != lowDetail) {
+            lowDetail = low;
+            // Pooled visuals of the other detail level are never reused
+            elementNodePool.clear();
+            rebuildBands();
+        }
+    }
+
     private void bindToDesign(JasperDesignModel design) {
         pagePane.prefWidthProperty().bind(design.pageWidthProperty());
         pagePane.prefHeightProperty().bind(design.pageHeightProperty());
@@ -1071,6 +2158,7 @@ public class ReportCanvas extends BorderPane {
                 .subtract(design.leftMarginProperty())
                 .subtract(design.rightMarginProperty()));
 
+        disposeAllBands();
         contentLayer.getChildren().clear();
         contentLayer.getChildren().add(bandsContainer);
 
@@ -1093,29 +2181,36 @@ public class ReportCanvas extends BorderPane {
             renderBand(band, bandsContainer);
         }
 
-        // Listen for band changes (e.g. optional bands added/removed via sync)
-        design.getBands().addListener((ListChangeListener<BandModel>) c -> {
+        // Listen for band changes (e.g. optional bands added/removed)
+        if (boundDesign != null) {
+            boundDesign.getBands().removeListener(bandsListener);
+            boundDesign.removeDesignChangeListener(designChangeListener);
+        }
+        bandsListener = c -> {
             while (c.next()) {
                 if (c.wasRemoved()) {
                     for (BandModel rem : c.getRemoved()) {
+                        disposeBand(rem);
                         bandsContainer.getChildren().removeIf(n -> n.getUserData() == rem);
                     }
                 }
                 if (c.wasAdded()) {
-                    // For sync() pattern (clear/add-all), append is fine.
-                    // We rely on the order of additions matching the desired display order.
+                    // Band panes are kept in the same order as the band list
+                    int index = c.getFrom();
                     for (BandModel am : c.getAddedSubList()) {
-                        renderBand(am, bandsContainer);
+                        renderBand(am, bandsContainer, Math.min(index++, bandsContainer.getChildren().size()));
                     }
                 }
             }
-        });
+        };
+        design.getBands().addListener(bandsListener);
+        // Changes inside frames are not visible in the band lists
+        design.addDesignChangeListener(designChangeListener);
+        boundDesign = design;
 
         // Listen for new bands? (Usually fixed structure, but if we add dynamic bands
         // later)
 
-        engine.selectionProperty().addListener((obs, oldVal, newVal) -> updateSelectionVisual(newVal));
-
         pagePane.setOnMousePressed(e -> {
             // Clicking on the page background selects the Report
             engine.setSelection(design);
@@ -1127,6 +2222,10 @@ public class ReportCanvas extends BorderPane {
     }
 
     private void renderBand(BandModel band, VBox container) {
+        renderBand(band, container, container.getChildren().size());
+    }
+
+    private void renderBand(BandModel band, VBox container, int index) {
         Pane bandPane = new Pane();
         bandPane.setUserData(band);
         bandPane.getStyleClass().add("band-pane");
@@ -1135,8 +2234,10 @@ public class ReportCanvas extends BorderPane {
         bandPane.setPrefHeight(band.getHeight());
 
         // Bind height
-        band.heightProperty().addListener((o, old, v) -> bandPane.setPrefHeight(v.doubleValue()));
-        container.prefWidthProperty().addListener((o, old, v) -> bandPane.setPrefWidth(v.doubleValue()));
+        ChangeListener<Number> heightListener = (o, old, v) -> bandPane.setPrefHeight(v.doubleValue());
+        ChangeListener<Number> widthListener = (o, old, v) -> bandPane.setPrefWidth(v.doubleValue());
+        band.heightProperty().addListener(heightListener);
+        container.prefWidthProperty().addListener(widthListener);
 
         // Label for Band Name
         Label bandLabel = new Label(band.getType());
@@ -1150,33 +2251,87 @@ public class ReportCanvas extends BorderPane {
 
         bandPane.getChildren().add(bandLabel);
 
-        container.getChildren().add(bandPane);
+        container.getChildren().add(index, bandPane);
 
         // Render Elements in this Band
-        for (ElementModel em : band.getElements()) {
-            renderElement(em, bandPane, null);
-        }
-
-        band.getElements()
-                .addListener((ListChangeListener<ElementModel>) c -> {
-                    while (c.next()) {
-                        if (c.wasAdded()) {
-                            for (ElementModel em : c.getAddedSubList()) {
-                                renderElement(em, bandPane, null);
-                            }
+        if (engine.immediateCanvasProperty().get()) {
+            // One canvas over the visible part of the band; hit-testing is done on the model
+            BandCanvasRenderer renderer = new BandCanvasRenderer(bandPane, band);
+            renderer.setLowDetail(lowDetail);
+            bandCanvases.put(band, renderer);
+            bandPane.layoutYProperty().addListener(o -> scheduleVisibleElementsUpdate());
+            bandPane.widthProperty().addListener(o -> scheduleVisibleElementsUpdate());
+            bandPane.heightProperty().addListener(o -> scheduleVisibleElementsUpdate());
+            bandDisposers.put(band, () -> {
+                bandCanvases.remove(band);
+                renderer.dispose();
+                band.heightProperty().removeListener(heightListener);
+                container.prefWidthProperty().removeListener(widthListener);
+            });
+            scheduleVisibleElementsUpdate();
+        } else if (engine.virtualizedCanvasProperty().get()) {
+            // Only elements near the viewport get nodes; the layer tracks additions and removals
+            VirtualizedElementLayer layer = new VirtualizedElementLayer(bandPane, band,
+                    new VirtualizedElementLayer.VisualProvider() {
+                        @Override
+                        public Node acquire(ElementModel model) {
+                            return acquireVisual(model);
                         }
-                        if (c.wasRemoved()) {
-                            for (ElementModel em : c.getRemoved()) {
-                                bandPane.getChildren().removeIf(n -> n.getUserData() == em);
-                            }
+
+                        @Override
+                        public void release(ElementModel model, Node node) {
+                            releaseVisual(model, node);
                         }
+                    });
+            elementLayers.put(band, layer);
+            // Bands above growing or shrinking move this band under the viewport
+            bandPane.layoutYProperty().addListener(o -> scheduleVisibleElementsUpdate());
+            bandPane.heightProperty().addListener(o -> scheduleVisibleElementsUpdate());
+            bandDisposers.put(band, () -> {
+                elementLayers.remove(band);
+                layer.dispose();
+                band.heightProperty().removeListener(heightListener);
+                container.prefWidthProperty().removeListener(widthListener);
+            });
+            scheduleVisibleElementsUpdate();
+        } else {
+            for (ElementModel em : band.getElements()) {
+                renderElement(em, bandPane, null);
+            }
+
+            ListChangeListener<ElementModel> elementsListener = c -> {
+                // All removals first: a batched change may list an element's re-add before its removal
+                while (c.next()) {
+                    for (ElementModel em : c.getRemoved()) {
+                        bandPane.getChildren().removeIf(n -> n.getUserData() == em);
                     }
-                });
+                }
+                c.reset();
+                while (c.next()) {
+                    List<? extends ElementModel> added = c.getAddedSubList();
+                    for (int i = 0; i < added.size(); i++) {
+                        renderElement(added.get(i), bandPane, band.getElements(), c.getFrom() + i);
+                    }
+                }
+            };
+            band.getElements().addListener(elementsListener);
+            bandDisposers.put(band, () -> {
+                band.getElements().removeListener(elementsListener);
+                band.heightProperty().removeListener(heightListener);
+                container.prefWidthProperty().removeListener(widthListener);
+            });
+        }
 
         // Selection Logic
         bandPane.setOnMousePressed(e -> {
-            engine.setSelection(band);
-            e.consume();
+            BandCanvasRenderer renderer = bandCanvases.get(band);
+            ElementModel hit = renderer != null ? renderer.elementAt(e.getX(), e.getY()) : null;
+            if (hit != null) {
+                beginElementDrag(bandPane, hit, e, () -> bandPane.localToScene(hit.getX(), hit.getY()));
+            } else {
+                engine.setSelection(band);
+                e.consume();
+            }
         });
 
         // Hover Effect
@@ -1251,75 +2406,203 @@ public class ReportCanvas extends BorderPane {
     }
 
     private void makeInteractive(Node node, ElementModel model) {
-        node.setOnMousePressed(e -> {
-            // Only select if not already selected (optimization)
-            if (engine.getSelection() != model) {
-                engine.setSelection(model);
-            }
-            e.consume();
-            final double startX = e.getSceneX();
-            final double startY = e.getSceneY();
-            // Capture start state
-            final int initialX = (int) model.getX();
-            final int initialY = (int) model.getY();
-            // Capture zoom at start of drag
-            final double zoom = engine.zoomFactorProperty().get();
-
-            node.setOnMouseDragged(dragEvent -> {
-                // Adjust delta by zoom factor
-                double deltaX = (dragEvent.getSceneX() - startX) / zoom;
-                double deltaY = (dragEvent.getSceneY() - startY) / zoom;
-
-                double rawX = initialX + deltaX;
-                double rawY = initialY + deltaY;
+        node.setOnMousePressed(e -> beginElementDrag(node, model, e, () -> node.localToScene(0, 0)));
+    }
 
+    /**
+     * Selects the element and drags it with the mouse until release. If it is
+     * part of a multiple selection, the other selected elements move along.
+     * With Shortcut or Shift held the press only adds the element to, or
+     * removes it from, the selection.
+     *
+     * @param source        node receiving the press; the drag handlers are
+     *                      installed on it for this gesture only
+     * @param originInScene the element's current top-left in scene coordinates
+     */
+    private void beginElementDrag(Node source, ElementModel model, MouseEvent e,
+            java.util.function.Supplier<Point2D> originInScene) {
+        e.consume();
+        if (e.isShortcutDown() || e.isShiftDown()) {
+            engine.getSelectionModel().toggle(model);
+            return;
+        }
+        // Keep a multiple selection the element belongs to
+        if (!engine.getSelectionModel().contains(model)) {
+            engine.setSelection(model);
+        }
+        // Capture start state
+        final int initialX = (int) model.getX();
+        final int initialY = (int) model.getY();
+        final List<ElementModel> followers = new ArrayList<>();
+        if (engine.getSelectionModel().size() > 1) {
+            for (ElementModel selected : engine.getSelectedRoots()) {
+                if (selected != model)
+                    followers.add(selected);
+            }
+        }
+        final int[] followerX = new int[followers.size()];
+        final int[] followerY = new int[followers.size()];
+        for (int i = 0; i < followers.size(); i++) {
+            followerX[i] = (int) followers.get(i).getX();
+            followerY[i] = (int) followers.get(i).getY();
+        }
+        // Capture zoom at start of drag
+        final double zoom = engine.zoomFactorProperty().get();
+        // Alignment candidates are sorted once per gesture
+        final BandModel band = findBandOf(model);
+        List<ElementModel> moving = new ArrayList<>(followers);
+        moving.add(model);
+        final SnapEngine snapper = createSnapEngine(band, moving, zoom);
+
+        // Drag events only record the pointer; the model moves once per pulse
+        DragSession drag = new DragSession(e, zoom, (deltaX, deltaY) -> {
+            double rawX = initialX + deltaX;
+            double rawY = initialY + deltaY;
+
+            if (snapper != null) {
+                SnapEngine.Snap aligned = snapper.snap(rawX, rawY, model.getWidth(), model.getHeight());
+                model.setX((int) Math.round(aligned.snappedX() ? aligned.x() : snap(rawX)));
+                model.setY((int) Math.round(aligned.snappedY() ? aligned.y() : snap(rawY)));
+                showSnapGuides(band, aligned.guides());
+            } else {
                 model.setX((int) snap(rawX));
                 model.setY((int) snap(rawY));
-                dragEvent.consume();
-            });
+            }
+            // Followers keep their offset to the dragged element
+            int movedX = (int) model.getX() - initialX;
+            int movedY = (int) model.getY() - initialY;
+            for (int i = 0; i < followers.size(); i++) {
+                followers.get(i).setX(followerX[i] + movedX);
+                followers.get(i).setY(followerY[i] + movedY);
+            }
+        });
 
-            node.setOnMouseReleased(eRelease -> {
-                boolean bandChanged = false;
+        source.setOnMouseDragged(dragEvent -> {
+            drag.pointerMoved(dragEvent);
+            dragEvent.consume();
+        });
 
-                // Find band under mouse to support moving across bands
-                handleElementDrop(node, model, eRelease, initialX, initialY);
-            });
+        source.setOnMouseReleased(eRelease -> {
+            source.setOnMouseDragged(null);
+            source.setOnMouseReleased(null);
+            drag.finish();
+            clearSnapGuides();
+
+            if (!followers.isEmpty()) {
+                commitGroupMove(model, initialX, initialY, followers, followerX, followerY);
+                return;
+            }
+            // Find band under mouse to support moving across bands; commits one command
+            handleElementDrop(originInScene.get(), model, eRelease, initialX, initialY);
         });
     }
 
-    private void handleElementDrop(Node node, ElementModel model, MouseEvent eRelease, int initialX, int initialY) {
+    /**
+     * Records a multiple-selection drag as one undoable step. The elements
+     * were already moved while dragging and stay in their containers.
+     */
+    private void commitGroupMove(ElementModel model, int initialX, int initialY, List<ElementModel> followers,
+            int[] followerX, int[] followerY) {
+        engine.runTransaction("Move Elements", () -> {
+            if (initialX != model.getX() || initialY != model.getY()) {
+                engine.executeCommand(
+                        new MoveElementCommand(model, initialX, initialY, (int) model.getX(), (int) model.getY()));
+            }
+            for (int i = 0; i < followers.size(); i++) {
+                ElementModel follower = followers.get(i);
+                if (followerX[i] != follower.getX() || followerY[i] != follower.getY()) {
+                    engine.executeCommand(new MoveElementCommand(follower, followerX[i], followerY[i],
+                            (int) follower.getX(), (int) follower.getY()));
+                }
+            }
+        });
+    }
+
+    private BandModel findBandOf(ElementModel model) {
+        JasperDesignModel design = engine.getDesign();
+        if (design == null)
+            return null;
+        for (BandModel band : design.getBands()) {
+            if (band.getSpatialIndex().contains(model))
+                return band;
+        }
+        return null;
+    }
+
+    /**
+     * @return a snapper for dragging the element within its band, or
+     *         {@code null} when alignment snapping is off or the element is
+     *         not directly in a band (e.g. inside a frame)
+     */
+    private SnapEngine createSnapEngine(BandModel band, List<ElementModel> moving, double zoom) {
+        boolean toGeometry = engine.snapToGeometryProperty().get();
+        boolean toGuides = engine.snapToGuidesProperty().get();
+        if (band == null || (!toGeometry && !toGuides))
+            return null;
+        Node bandNode = findNodeForBand(band);
+        double bandWidth = bandNode != null ? bandNode.getLayoutBounds().getWidth() : 0;
+        return new SnapEngine(band, moving, bandWidth, toGeometry, toGuides, SNAP_TOLERANCE / zoom);
+    }
+
+    private void showSnapGuides(BandModel band, List<SnapEngine.Guide> guides) {
+        snapGuides.getChildren().clear();
+        Node bandNode = guides.isEmpty() ? null : findNodeForBand(band);
+        if (bandNode == null)
+            return;
+        if (!adornerLayer.getChildren().contains(snapGuides))
+            adornerLayer.getChildren().add(snapGuides);
+        for (SnapEngine.Guide guide : guides) {
+            Point2D from = guide.vertical()
+                    ? new Point2D(guide.position(), guide.start())
+                    : new Point2D(guide.start(), guide.position());
+            Point2D to = guide.vertical()
+                    ? new Point2D(guide.position(), guide.end())
+                    : new Point2D(guide.end(), guide.position());
+            from = adornerLayer.sceneToLocal(bandNode.localToScene(from));
+            to = adornerLayer.sceneToLocal(bandNode.localToScene(to));
+            Line line = new Line(from.getX(), from.getY(), to.getX(), to.getY());
+            line.setStroke(Color.web("#e91e63"));
+            line.setMouseTransparent(true);
+            snapGuides.getChildren().add(line);
+        }
+    }
+
+    private void clearSnapGuides() {
+        snapGuides.getChildren().clear();
+        adornerLayer.getChildren().remove(snapGuides);
+    }
+
+    private void handleElementDrop(Point2D elementOrigin, ElementModel model, MouseEvent eRelease, int initialX,
+            int initialY) {
         boolean bandChanged = false;
         Point2D scenePoint = new Point2D(eRelease.getSceneX(), eRelease.getSceneY());
 
         if (!contentLayer.getChildren().isEmpty() && contentLayer.getChildren().get(0) instanceof VBox container) {
-            for (Node bandNode : container.getChildren()) {
-                Bounds bounds = bandNode.localToScene(bandNode.getBoundsInLocal());
-                if (bounds.contains(scenePoint)) {
-                    // Found target band
-                    if (bandNode.getUserData() instanceof BandModel targetBand) {
-
-                        // Check if we are staying in the same band
-                        if (targetBand.getElements().contains(model)) {
-                            if (initialX != model.getX() || initialY != model.getY()) {
-                                MoveElementCommand cmd = new MoveElementCommand(
-                                        model, initialX, initialY, (int) model.getX(), (int) model.getY());
-                                engine.executeCommand(cmd);
-                            }
-                        } else {
-                            // Changed band
-                            Point2D nodeScene = node.localToScene(0, 0);
-                            Point2D nodeInBand = bandNode.sceneToLocal(nodeScene);
+            Node bandNode = findBandNodeAt(container, scenePoint);
+            if (bandNode != null && bandNode.getUserData() instanceof BandModel targetBand) {
+                // Check if we are staying in the same band
+                if (targetBand.getSpatialIndex().contains(model)) {
+                    if (initialX != model.getX() || initialY != model.getY()) {
+                        MoveElementCommand cmd = new MoveElementCommand(
+                                model, initialX, initialY, (int) model.getX(), (int) model.getY());
+                        engine.executeCommand(cmd);
+                    }
+                } else {
+                    // Changed band
+                    Point2D nodeInBand = bandNode.sceneToLocal(elementOrigin);
 
-                            int newRelY = (int) nodeInBand.getY();
-                            if (newRelY < 0)
-                                newRelY = 0;
+                    int newRelY = Math.max(0, (int) nodeInBand.getY());
 
-                            engine.moveElementToBand(model, targetBand, newRelY);
+                    // The drag offset and the band change are undone together
+                    engine.runTransaction("Move Element", () -> {
+                        if (initialX != model.getX() || initialY != model.getY()) {
+                            engine.executeCommand(new MoveElementCommand(
+                                    model, initialX, initialY, (int) model.getX(), (int) model.getY()));
                         }
-                        bandChanged = true;
-                    }
-                    break;
+                        engine.moveElementToBand(model, targetBand, newRelY);
+                    });
                 }
+                bandChanged = true;
             }
         }
 
@@ -1333,61 +2616,45 @@ public class ReportCanvas extends BorderPane {
         }
     }
 
+    /**
+     * Finds the band under a scene point. Bands are stacked top to bottom, so
+     * the point is converted once and the bands are binary-searched by y.
+     */
+    private Node findBandNodeAt(VBox container, Point2D scenePoint) {
+        Point2D local = container.sceneToLocal(scenePoint);
+        if (local.getX() < 0 || local.getX() > container.getWidth())
+            return null;
+        List<Node> bands = container.getChildren();
+        int low = 0;
+        int high = bands.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Bounds bounds = bands.get(mid).getBoundsInParent();
+            if (local.getY() < bounds.getMinY()) {
+                high = mid - 1;
+            } else if (local.getY() >= bounds.getMaxY()) {
+                low = mid + 1;
+            } else {
+                return bands.get(mid);
+            }
+        }
+        return null;
+    }
+
     private void renderElementSelection(ElementModel model) {
         Node node = findNodeForModel(model);
-        if (node == null)
+        if (node == null && findCanvasBand(model) == null)
             return;
 
-        selectionAdorner.getChildren().clear();
-
-        Rectangle border = new Rectangle();
-        border.setFill(Color.TRANSPARENT);
-        border.setStroke(Color.BLUE);
-        border.setStrokeWidth(1);
-        border.getStrokeDashArray().addAll(5.0, 5.0);
-        border.setMouseTransparent(true);
-
-        selectionAdorner.getChildren().add(border);
-
-        Runnable updateBounds = () -> {
-            if (node.getScene() == null)
-                return;
-            Bounds nodeBounds = node.localToScene(node.getLayoutBounds());
-            Bounds adornerBounds = adornerLayer.sceneToLocal(nodeBounds);
-            if (adornerBounds != null) {
-                border.setX(adornerBounds.getMinX());
-                border.setY(adornerBounds.getMinY());
-                border.setWidth(adornerBounds.getWidth());
-                border.setHeight(adornerBounds.getHeight());
-            }
-        };
-
-        // Update initial
-        Platform.runLater(updateBounds);
-
-        // Listeners
-        ChangeListener<Number> changeListener = (o, old, v) -> Platform.runLater(updateBounds);
-        model.xProperty().addListener(changeListener);
-        model.yProperty().addListener(changeListener);
-        model.widthProperty().addListener(changeListener);
-        model.heightProperty().addListener(changeListener);
-        // Also listen to zoom changes as they affect scene coords
-        engine.zoomFactorProperty().addListener(changeListener);
-
-        // Resize Handles
-        makeHandle(model, border, Pos.TOP_LEFT);
-        makeHandle(model, border, Pos.TOP_CENTER);
-        makeHandle(model, border, Pos.TOP_RIGHT);
-        makeHandle(model, border, Pos.CENTER_LEFT);
-        makeHandle(model, border, Pos.CENTER_RIGHT);
-        makeHandle(model, border, Pos.BOTTOM_LEFT);
-        makeHandle(model, border, Pos.BOTTOM_CENTER);
-        makeHandle(model, border, Pos.BOTTOM_RIGHT);
-
-        adornerLayer.getChildren().add(selectionAdorner);
+        selectionOverlay.show(model, node);
+        adornerLayer.getChildren().add(selectionOverlay);
     }
 
-    private void makeHandle(ElementModel model, Rectangle border, Pos pos) {
+    /**
+     * Creates one resize handle of the selection overlay; it acts on whatever
+     * element the overlay shows when pressed.
+     */
+    private void makeHandle(Pos pos) {
         double msgSize = 8; // Increased size for better hit target
         Rectangle handle = new Rectangle(msgSize, msgSize);
         handle.setStyle("-fx-fill: white; -fx-stroke: #0096C9; -fx-stroke-width: 1;");
@@ -1395,21 +2662,6 @@ public class ReportCanvas extends BorderPane {
         // Ensure handle is always on top and catches events
         handle.setViewOrder(-1);
 
-        // Bind handle position to border
-        handle.xProperty().bind(Bindings.createDoubleBinding(() -> switch (pos) {
-            case TOP_LEFT, CENTER_LEFT, BOTTOM_LEFT -> border.getX() - msgSize / 2;
-            case TOP_CENTER, BOTTOM_CENTER -> border.getX() + border.getWidth() / 2 - msgSize / 2;
-            case TOP_RIGHT, CENTER_RIGHT, BOTTOM_RIGHT -> border.getX() + border.getWidth() - msgSize / 2;
-            default -> 0.0;
-        }, border.xProperty(), border.widthProperty()));
-
-        handle.yProperty().bind(Bindings.createDoubleBinding(() -> switch (pos) {
-            case TOP_LEFT, TOP_CENTER, TOP_RIGHT -> border.getY() - msgSize / 2;
-            case CENTER_LEFT, CENTER_RIGHT -> border.getY() + border.getHeight() / 2 - msgSize / 2;
-            case BOTTOM_LEFT, BOTTOM_CENTER, BOTTOM_RIGHT -> border.getY() + border.getHeight() - msgSize / 2;
-            default -> 0.0;
-        }, border.yProperty(), border.heightProperty()));
-
         // Cursor
         Cursor cursor = switch (pos) {
             case TOP_LEFT -> Cursor.NW_RESIZE;
@@ -1429,6 +2681,9 @@ public class ReportCanvas extends BorderPane {
 
         handle.setOnMousePressed(e -> {
             e.consume();
+            final ElementModel model = selectionOverlay.getTarget();
+            if (model == null)
+                return;
             final double startX = e.getSceneX();
             final double startY = e.getSceneY();
             final double initialX = model.getX();
@@ -1518,7 +2773,7 @@ public class ReportCanvas extends BorderPane {
             });
         });
 
-        selectionAdorner.getChildren().add(handle);
+        selectionOverlay.addHandle(handle, pos);
     }
 
     private void reparentLayer(Node layer, Group targetGroup) {
@@ -0,0 +1,80 @@
+package com.jasperstudio.ui.canvas;
+
+import com.jasperstudio.model.ElementModel;
+import javafx.beans.Observable;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Light outlines around the secondary elements of a multiple selection; the
+ * primary one keeps its {@link SelectionOverlay}.
+ * <p>
+ * Moving hundreds of selected elements changes hundreds of model properties
+ * in one step. Each change only marks the outlines dirty, and they are laid
+ * out again once on the next pulse, reusing their rectangles.
+ */
+public class SelectionOutlines extends Group {
+
+    private final Pane layer;
+    private final Function<ElementModel, Bounds> sceneBounds;
+    private final BoundsTracker tracker;
+
+    /**
+     * @param layer       pane the outlines are shown in
+     * @param sceneBounds where an element currently is on screen, or
+     *                    {@code null} if it is not shown
+     * @param viewState   as for {@link SelectionOverlay}
+     */
+    public SelectionOutlines(Pane layer, Function<ElementModel, Bounds> sceneBounds, Observable... viewState) {
+        this.layer = layer;
+        this.sceneBounds = sceneBounds;
+        this.tracker = new BoundsTracker(this::updateOutlines, viewState);
+        setMouseTransparent(true);
+    }
+
+    /**
+     * Outlines the given elements instead of the current ones.
+     */
+    public void setTargets(List<ElementModel> elements) {
+        tracker.setTargets(elements);
+    }
+
+    private void updateOutlines() {
+        int used = 0;
+        for (ElementModel target : tracker.getTargets()) {
+            Bounds scene = sceneBounds.apply(target);
+            Bounds local = scene != null ? layer.sceneToLocal(scene) : null;
+            if (local == null)
+                continue;
+            Rectangle outline;
+            if (used < getChildren().size()) {
+                outline = (Rectangle) getChildren().get(used);
+            } else {
+                outline = createOutline();
+                getChildren().add(outline);
+            }
+            outline.setX(local.getMinX());
+            outline.setY(local.getMinY());
+            outline.setWidth(local.getWidth());
+            outline.setHeight(local.getHeight());
+            used++;
+        }
+        if (used < getChildren().size()) {
+            getChildren().remove(used, getChildren().size());
+        }
+    }
+
+    private Rectangle createOutline() {
+        Rectangle outline = new Rectangle();
+        outline.setFill(Color.rgb(0, 150, 201, 0.08));
+        outline.setStroke(Color.web("#0096C9"));
+        outline.setStrokeWidth(1);
+        return outline;
+    }
+}
@@ -0,0 +1,124 @@
+package com.jasperstudio.ui.canvas;
+
+import com.jasperstudio.model.ElementModel;
+import javafx.beans.Observable;
+import javafx.beans.binding.Bindings;
+import javafx.geometry.Bounds;
+import javafx.geometry.Pos;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+import java.util.List;
+
+/**
+ * The dashed border and resize handles around the selected element.
+ * <p>
+ * One overlay is created per canvas and moved from selection to selection;
+ * a {@link BoundsTracker} keeps it on its target.
+ */
+public class SelectionOverlay extends Group {
+
+    /** Scene bounds of an element; {@code node} is its live node, if any. */
+    @FunctionalInterface
+    public interface BoundsProvider {
+        Bounds sceneBounds(ElementModel model, Node node);
+    }
+
+    private final Pane layer;
+    private final BoundsProvider boundsProvider;
+    private final Rectangle border = new Rectangle();
+
+    private final BoundsTracker tracker;
+
+    private ElementModel target;
+    private Node targetNode;
+
+    /**
+     * @param layer          pane the overlay is shown in; bounds are
+     *                       converted into its coordinates
+     * @param boundsProvider where the target currently is on screen
+     * @param viewState      further observables that move every element on
+     *                       screen, such as the zoom factor
+     */
+    public SelectionOverlay(Pane layer, BoundsProvider boundsProvider, Observable... viewState) {
+        this.layer = layer;
+        this.boundsProvider = boundsProvider;
+
+        border.setFill(Color.TRANSPARENT);
+        border.setStroke(Color.BLUE);
+        border.setStrokeWidth(1);
+        border.getStrokeDashArray().addAll(5.0, 5.0);
+        border.setMouseTransparent(true);
+        getChildren().add(border);
+
+        tracker = new BoundsTracker(this::updateBounds, viewState);
+        setVisible(false);
+    }
+
+    /**
+     * Adds a handle whose centre follows the given point of the border.
+     */
+    public void addHandle(Rectangle handle, Pos pos) {
+        handle.xProperty().bind(Bindings.createDoubleBinding(() -> switch (pos.getHpos()) {
+            case LEFT -> border.getX() - handle.getWidth() / 2;
+            case CENTER -> border.getX() + border.getWidth() / 2 - handle.getWidth() / 2;
+            case RIGHT -> border.getX() + border.getWidth() - handle.getWidth() / 2;
+        }, border.xProperty(), border.widthProperty(), handle.widthProperty()));
+
+        handle.yProperty().bind(Bindings.createDoubleBinding(() -> switch (pos.getVpos()) {
+            case TOP -> border.getY() - handle.getHeight() / 2;
+            case CENTER, BASELINE -> border.getY() + border.getHeight() / 2 - handle.getHeight() / 2;
+            case BOTTOM -> border.getY() + border.getHeight() - handle.getHeight() / 2;
+        }, border.yProperty(), border.heightProperty(), handle.heightProperty()));
+
+        getChildren().add(handle);
+    }
+
+    /**
+     * Moves the overlay to an element.
+     *
+     * @param node the element's node, or {@code null} if it is drawn on a
+     *             band canvas
+     */
+    public void show(ElementModel model, Node node) {
+        targetNode = node;
+        if (model != target) {
+            target = model;
+            tracker.setTargets(List.of(model));
+        } else {
+            tracker.invalidate();
+        }
+        setVisible(true);
+    }
+
+    public void hide() {
+        target = null;
+        targetNode = null;
+        tracker.setTargets(List.of());
+        setVisible(false);
+    }
+
+    public ElementModel getTarget() {
+        return target;
+    }
+
+    private void updateBounds() {
+        if (target == null)
+            return;
+        // A pooled node may have been handed to another element since
+        Node node = targetNode != null && targetNode.getUserData() == target ? targetNode : null;
+        Bounds sceneBounds = boundsProvider.sceneBounds(target, node);
+        if (sceneBounds == null)
+            return;
+        Bounds local = layer.sceneToLocal(sceneBounds);
+        if (local != null) {
+            border.setX(local.getMinX());
+            border.setY(local.getMinY());
+            border.setWidth(local.getWidth());
+            border.setHeight(local.getHeight());
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.jasperstudio.ui.canvas;
+
+import javafx.application.Platform;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.geometry.Bounds;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Pane;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.export.JRGraphics2DExporter;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleGraphics2DExporterOutput;
+import net.sf.jasperreports.export.SimpleGraphics2DReportConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Preview surface for high zoom levels. Instead of rasterizing the whole page,
+ * only the fixed-size tiles intersecting the viewport are rendered, at the
+ * exact device scale (zoom times window output scale), so deep zoom stays
+ * sharp without allocating a raster for the full page.
+ * <p>
+ * Rendered tiles are cached per scale, bounded by total pixel count.
+ */
+public class TiledPageView extends Pane {
+
+    private static final Logger logger = LoggerFactory.getLogger(TiledPageView.class);
+
+    /** Tile edge in device pixels. */
+    private static final int TILE_SIZE = 512;
+
+    private record TileKey(int pageIndex, int scaleKey, int tileX, int tileY) {
+    }
+
+    private final ExecutorService renderExecutor;
+    private final long maxCachedPixels;
+
+    private final LinkedHashMap<TileKey, Image> tileCache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedPixels;
+
+    // Tiles currently attached to the scene graph, and tiles queued for rendering
+    private final Map<TileKey, ImageView> liveTiles = new HashMap<>();
+    private final Set<TileKey> pending = new HashSet<>();
+    // Replaced wholesale (never mutated) so the render thread can read it
+    private volatile Set<TileKey> wanted = new HashSet<>();
+
+    private volatile JasperPrint print;
+    private int pageIndex;
+    private double zoom = 1.0;
+    private double outputScale = 1.0;
+
+    public TiledPageView(ExecutorService renderExecutor, long maxCachedPixels) {
+        this.renderExecutor = renderExecutor;
+        this.maxCachedPixels = maxCachedPixels;
+        setStyle("-fx-background-color: white;");
+    }
+
+    /**
+     * Shows a page at the given zoom. Call {@link #updateViewport(Bounds)}
+     * afterwards to request the visible tiles.
+     */
+    public void show(JasperPrint print, int pageIndex, double zoom, double outputScale) {
+        if (print != this.print) {
+            clear();
+        }
+        this.print = print;
+        this.pageIndex = pageIndex;
+        this.zoom = zoom;
+        this.outputScale = outputScale;
+
+        double w = print.getPageWidth() * zoom;
+        double h = print.getPageHeight() * zoom;
+        setMinSize(w, h);
+        setPrefSize(w, h);
+        setMaxSize(w, h);
+
+        // Tiles of another page or scale are detached but stay in the cache
+        liveTiles.entrySet().removeIf(e -> {
+            if (!matchesCurrent(e.getKey())) {
+                getChildren().remove(e.getValue());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Attaches cached tiles and schedules rendering for missing ones inside the
+     * visible rectangle (in this node's local coordinates).
+     */
+    public void updateViewport(Bounds visible) {
+        if (print == null || visible == null)
+            return;
+
+        double deviceScale = zoom * outputScale;
+        int pageDeviceW = (int) Math.ceil(print.getPageWidth() * deviceScale);
+        int pageDeviceH = (int) Math.ceil(print.getPageHeight() * deviceScale);
+        int maxTileX = (pageDeviceW - 1) / TILE_SIZE;
+        int maxTileY = (pageDeviceH - 1) / TILE_SIZE;
+
+        int fromX = clamp((int) Math.floor(visible.getMinX() * outputScale / TILE_SIZE), 0, maxTileX);
+        int toX = clamp((int) Math.floor(visible.getMaxX() * outputScale / TILE_SIZE), 0, maxTileX);
+        int fromY = clamp((int) Math.floor(visible.getMinY() * outputScale / TILE_SIZE), 0, maxTileY);
+        int toY = clamp((int) Math.floor(visible.getMaxY() * outputScale / TILE_SIZE), 0, maxTileY);
+
+        int scaleKey = scaleKey(deviceScale);
+        Set<TileKey> nowWanted = new HashSet<>();
+        for (int ty = fromY; ty <= toY; ty++) {
+            for (int tx = fromX; tx <= toX; tx++) {
+                nowWanted.add(new TileKey(pageIndex, scaleKey, tx, ty));
+            }
+        }
+        wanted = nowWanted;
+
+        // Detach tiles that scrolled out of view
+        liveTiles.entrySet().removeIf(e -> {
+            if (!nowWanted.contains(e.getKey())) {
+                getChildren().remove(e.getValue());
+                return true;
+            }
+            return false;
+        });
+
+        for (TileKey key : nowWanted) {
+            if (liveTiles.containsKey(key))
+                continue;
+            Image cached = tileCache.get(key);
+            if (cached != null) {
+                attachTile(key, cached);
+            } else if (pending.add(key)) {
+                scheduleRender(key, print, deviceScale, pageDeviceW, pageDeviceH);
+            }
+        }
+    }
+
+    /**
+     * Drops cached tiles of a page whose content changed.
+     */
+    public void invalidatePage(int index) {
+        Iterator<Map.Entry<TileKey, Image>> it = tileCache.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<TileKey, Image> e = it.next();
+            if (e.getKey().pageIndex() == index) {
+                cachedPixels -= pixels(e.getValue());
+                it.remove();
+            }
+        }
+        liveTiles.entrySet().removeIf(e -> {
+            if (e.getKey().pageIndex() == index) {
+                getChildren().remove(e.getValue());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public void clear() {
+        getChildren().clear();
+        liveTiles.clear();
+        pending.clear();
+        wanted = new HashSet<>();
+        tileCache.clear();
+        cachedPixels = 0;
+        print = null;
+    }
+
+    private void scheduleRender(TileKey key, JasperPrint targetPrint, double deviceScale, int pageDeviceW,
+            int pageDeviceH) {
+        renderExecutor.execute(() -> {
+            // Scrolled away before the executor got to it
+            if (targetPrint != print || !wanted.contains(key)) {
+                Platform.runLater(() -> pending.remove(key));
+                return;
+            }
+            try {
+                Image tile = renderTile(targetPrint, key, deviceScale, pageDeviceW, pageDeviceH);
+                Platform.runLater(() -> {
+                    pending.remove(key);
+                    if (targetPrint != print)
+                        return;
+                    cacheTile(key, tile);
+                    if (wanted.contains(key) && !liveTiles.containsKey(key))
+                        attachTile(key, tile);
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> pending.remove(key));
+                logger.warn("Failed to render preview tile {}", key, e);
+            }
+        });
+    }
+
+    private static Image renderTile(JasperPrint print, TileKey key, double deviceScale, int pageDeviceW,
+            int pageDeviceH) throws Exception {
+        int originX = key.tileX() * TILE_SIZE;
+        int originY = key.tileY() * TILE_SIZE;
+        int w = Math.min(TILE_SIZE, pageDeviceW - originX);
+        int h = Math.min(TILE_SIZE, pageDeviceH - originY);
+
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, w, h);
+            // The exporter draws the whole page; the tile bounds clip everything else
+            g.translate(-originX, -originY);
+
+            JRGraphics2DExporter exporter = new JRGraphics2DExporter();
+            exporter.setExporterInput(new SimpleExporterInput(print));
+            SimpleGraphics2DExporterOutput output = new SimpleGraphics2DExporterOutput();
+            output.setGraphics2D(g);
+            exporter.setExporterOutput(output);
+            SimpleGraphics2DReportConfiguration configuration = new SimpleGraphics2DReportConfiguration();
+            configuration.setPageIndex(key.pageIndex());
+            configuration.setZoomRatio((float) deviceScale);
+            exporter.setConfiguration(configuration);
+            exporter.exportReport();
+        } finally {
+            g.dispose();
+        }
+        return SwingFXUtils.toFXImage(image, null);
+    }
+
+    private void attachTile(TileKey key, Image tile) {
+        ImageView view = new ImageView(tile);
+        view.setSmooth(false); // Drawn 1:1 with device pixels
+        view.setLayoutX(key.tileX() * TILE_SIZE / outputScale);
+        view.setLayoutY(key.tileY() * TILE_SIZE / outputScale);
+        view.setFitWidth(tile.getWidth() / outputScale);
+        view.setFitHeight(tile.getHeight() / outputScale);
+        liveTiles.put(key, view);
+        getChildren().add(view);
+    }
+
+    private void cacheTile(TileKey key, Image tile) {
+        Image previous = tileCache.put(key, tile);
+        if (previous != null)
+            cachedPixels -= pixels(previous);
+        cachedPixels += pixels(tile);
+
+        Iterator<Map.Entry<TileKey, Image>> it = tileCache.entrySet().iterator();
+        while (cachedPixels > maxCachedPixels && it.hasNext()) {
+            Map.Entry<TileKey, Image> eldest = it.next();
+            // Never evict what is on screen
+            if (liveTiles.containsKey(eldest.getKey()) || eldest.getKey().equals(key))
+                continue;
+            cachedPixels -= pixels(eldest.getValue());
+            it.remove();
+        }
+    }
+
+    private boolean matchesCurrent(TileKey key) {
+        return key.pageIndex() == pageIndex && key.scaleKey() == scaleKey(zoom * outputScale);
+    }
+
+    private static int scaleKey(double deviceScale) {
+        return (int) Math.round(deviceScale * 100);
+    }
+
+    private static int clamp(int v, int min, int max) {
+        return Math.max(min, Math.min(max, v));
+    }
+
+    private static long pixels(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight();
+    }
+}
@@ -0,0 +1,207 @@
+package com.jasperstudio.ui.canvas;
+
+import com.jasperstudio.model.BandModel;
+import com.jasperstudio.model.ElementModel;
+import com.jasperstudio.model.ElementSpatialIndex;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps nodes in a band pane only for the elements that intersect the visible
+ * area, plus a margin so short scrolls do not show empty space. Elements that
+ * leave the area hand their node back to the {@link VisualProvider}, which is
+ * expected to pool it.
+ * <p>
+ * Visible elements are looked up in the band's {@link ElementSpatialIndex},
+ * so a scroll costs in proportion to what is on screen, not to the band.
+ * Geometry changes are coalesced into one pass per pulse, so a drag or a
+ * property edit never rescans the band more than once a frame.
+ */
+public class VirtualizedElementLayer {
+
+    /** Creates and recycles the visual for an element. */
+    public interface VisualProvider {
+        /** @return a bound, interactive node for the model, or {@code null} */
+        Node acquire(ElementModel model);
+
+        void release(ElementModel model, Node node);
+    }
+
+    /** Extra band-local distance materialized around the viewport. */
+    public static final double DEFAULT_MARGIN = 200;
+
+    private final Pane bandPane;
+    private final ObservableList<ElementModel> elements;
+    private final ElementSpatialIndex index;
+    private final VisualProvider provider;
+    private final Map<ElementModel, Node> live = new IdentityHashMap<>();
+
+    private final InvalidationListener geometryListener = o -> scheduleUpdate();
+    private final ListChangeListener<ElementModel> elementsListener = this::onElementsChanged;
+
+    private Bounds visibleBounds;
+    private double margin = DEFAULT_MARGIN;
+    private boolean updateScheduled;
+    private boolean orderChanged;
+
+    public VirtualizedElementLayer(Pane bandPane, BandModel band, VisualProvider provider) {
+        this.bandPane = bandPane;
+        this.elements = band.getElements();
+        this.index = band.getSpatialIndex();
+        this.provider = provider;
+        for (ElementModel model : elements) {
+            watch(model);
+        }
+        elements.addListener(elementsListener);
+    }
+
+    public void setMargin(double margin) {
+        this.margin = margin;
+    }
+
+    /**
+     * Sets the visible area in band-local coordinates and updates the nodes.
+     * Until this has been called the layer shows nothing.
+     */
+    public void setVisibleBounds(Bounds visibleBounds) {
+        this.visibleBounds = visibleBounds;
+        update();
+    }
+
+    public Node getNode(ElementModel model) {
+        return live.get(model);
+    }
+
+    public int getLiveCount() {
+        return live.size();
+    }
+
+    public void update() {
+        updateScheduled = false;
+        if (visibleBounds == null) {
+            return;
+        }
+        List<ElementModel> visible = index.query(visibleBounds.getMinX() - margin,
+                visibleBounds.getMinY() - margin, visibleBounds.getWidth() + 2 * margin,
+                visibleBounds.getHeight() + 2 * margin);
+        Set<ElementModel> visibleSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        visibleSet.addAll(visible);
+
+        for (Iterator<Map.Entry<ElementModel, Node>> it = live.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<ElementModel, Node> entry = it.next();
+            if (!visibleSet.contains(entry.getKey())) {
+                it.remove();
+                bandPane.getChildren().remove(entry.getValue());
+                provider.release(entry.getKey(), entry.getValue());
+            }
+        }
+
+        boolean attached = false;
+        for (ElementModel model : visible) {
+            if (!live.containsKey(model)) {
+                Node node = provider.acquire(model);
+                if (node != null) {
+                    live.put(model, node);
+                    attached = true;
+                }
+            }
+        }
+
+        if (attached || orderChanged) {
+            orderChanged = false;
+            restack(visible);
+        }
+    }
+
+    /**
+     * Releases every node and stops listening to the band.
+     */
+    public void dispose() {
+        elements.removeListener(elementsListener);
+        for (ElementModel model : elements) {
+            unwatch(model);
+        }
+        for (Map.Entry<ElementModel, Node> entry : live.entrySet()) {
+            bandPane.getChildren().remove(entry.getValue());
+            provider.release(entry.getKey(), entry.getValue());
+        }
+        live.clear();
+        visibleBounds = null;
+    }
+
+    private void scheduleUpdate() {
+        if (!updateScheduled) {
+            updateScheduled = true;
+            Platform.runLater(this::update);
+        }
+    }
+
+    private void onElementsChanged(ListChangeListener.Change<? extends ElementModel> c) {
+        while (c.next()) {
+            for (ElementModel removed : c.getRemoved()) {
+                unwatch(removed);
+                Node node = live.remove(removed);
+                if (node != null) {
+                    bandPane.getChildren().remove(node);
+                    provider.release(removed, node);
+                }
+            }
+            for (ElementModel added : c.getAddedSubList()) {
+                watch(added);
+            }
+        }
+        // Permutations and additions change z-order as well as visibility
+        orderChanged = true;
+        scheduleUpdate();
+    }
+
+    /**
+     * Puts live nodes in element order after the non-element children, so
+     * paint order and hit-testing match the band. Nodes already in place are
+     * left alone; removing a node mid-drag would end the gesture.
+     */
+    private void restack(List<ElementModel> inPaintOrder) {
+        ObservableList<Node> children = bandPane.getChildren();
+        int index = 0;
+        while (index < children.size() && !(children.get(index).getUserData() instanceof ElementModel)) {
+            index++;
+        }
+        for (ElementModel model : inPaintOrder) {
+            Node node = live.get(model);
+            if (node == null) {
+                continue;
+            }
+            if (index >= children.size() || children.get(index) != node) {
+                children.remove(node);
+                children.add(index, node);
+            }
+            index++;
+        }
+    }
+
+    private void watch(ElementModel model) {
+        model.xProperty().addListener(geometryListener);
+        model.yProperty().addListener(geometryListener);
+        model.widthProperty().addListener(geometryListener);
+        model.heightProperty().addListener(geometryListener);
+    }
+
+    private void unwatch(ElementModel model) {
+        model.xProperty().removeListener(geometryListener);
+        model.yProperty().removeListener(geometryListener);
+        model.widthProperty().removeListener(geometryListener);
+        model.heightProperty().removeListener(geometryListener);
+    }
+}
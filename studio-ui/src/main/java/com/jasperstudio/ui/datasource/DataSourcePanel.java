@@ -71,6 +71,9 @@ public class DataSourcePanel extends VBox {
 
         comboAdapters.getSelectionModel().selectedItemProperty().addListener((obs, old, newVal) -> {
             loadMetaData(newVal);
+            // Preview fills from the selected adapter
+            if (engine != null)
+                engine.previewDataAdapterProperty().set(newVal);
         });
     }
 
@@ -97,7 +100,8 @@ public class DataSourcePanel extends VBox {
 
     public void setDesignerEngine(com.jasperstudio.designer.DesignerEngine engine) {
         this.engine = engine;
-        // Optionally bind things
+        if (engine != null)
+            engine.previewDataAdapterProperty().set(comboAdapters.getValue());
     }
 
     @FXML
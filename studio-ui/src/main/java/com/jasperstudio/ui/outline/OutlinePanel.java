@@ -1,6 +1,8 @@
 package com.jasperstudio.ui.outline;
 
 import com.jasperstudio.designer.DesignerEngine;
+import com.jasperstudio.model.DesignChangeEvent;
+import com.jasperstudio.model.DesignChangeListener;
 import com.jasperstudio.model.ElementModel;
 import com.jasperstudio.model.JasperDesignModel;
 
@@ -44,16 +46,24 @@ public class OutlinePanel extends VBox {
     private javafx.beans.value.ChangeListener<JasperDesignModel> designListener;
     private javafx.beans.value.ChangeListener<Object> selectionListener;
     private javafx.beans.value.ChangeListener<TreeItem<Object>> treeSelectionListener;
+    private final DesignChangeListener designChangeListener = this::onDesignChanged;
+    // Element list listeners of the bands shown in the tree, removed when a band item is replaced
+    private final java.util.Map<com.jasperstudio.model.BandModel, javafx.collections.ListChangeListener<ElementModel>> elementListeners = new java.util.IdentityHashMap<>();
+    // Tree item of every element model shown, so selection sync needs no tree walk
+    private final java.util.Map<ElementModel, TreeItem<Object>> itemsByModel = new java.util.IdentityHashMap<>();
 
     public OutlinePanel(DesignerEngine engine) {
         loadFXML();
 
-        // Initialize band listener (depended on by bindDesign)
+        // Initialize band listener (depended on by bindDesign); only the changed band slots are replaced
         this.bandsListener = c -> {
-            if (this.engine != null) {
-                // Capture the design current at time of event
-                JasperDesignModel d = this.engine.getDesign();
-                javafx.application.Platform.runLater(() -> rebuildTree(d));
+            while (c.next()) {
+                for (com.jasperstudio.model.BandModel removed : c.getRemoved()) {
+                    setBandSlot(removed.getType(), null);
+                }
+                for (com.jasperstudio.model.BandModel added : c.getAddedSubList()) {
+                    setBandSlot(added.getType(), added);
+                }
             }
         };
 
@@ -155,6 +165,7 @@ public class OutlinePanel extends VBox {
             }
             if (this.engine.getDesign() != null) {
                 this.engine.getDesign().getBands().removeListener(bandsListener);
+                this.engine.getDesign().removeDesignChangeListener(designChangeListener);
             }
         }
 
@@ -183,8 +194,7 @@ public class OutlinePanel extends VBox {
                 if (newVal == null) {
                     treeView.getSelectionModel().clearSelection();
                 } else if (newVal instanceof com.jasperstudio.model.ElementModel) {
-                    selectItemForElement(treeView.getRoot(),
-                            ((com.jasperstudio.model.ElementModel) newVal).getElement());
+                    selectItemForElement((com.jasperstudio.model.ElementModel) newVal);
                 } else if (newVal instanceof com.jasperstudio.model.BandModel) {
                     selectItemForBand(treeView.getRoot(), (com.jasperstudio.model.BandModel) newVal);
                 } else if (newVal instanceof com.jasperstudio.model.JasperDesignModel) {
@@ -225,6 +235,8 @@ public class OutlinePanel extends VBox {
             rebuildTree(design);
             design.getBands().removeListener(bandsListener); // avoid double add?
             design.getBands().addListener(bandsListener);
+            design.removeDesignChangeListener(designChangeListener);
+            design.addDesignChangeListener(designChangeListener);
         }
     }
 
@@ -360,9 +372,11 @@ public class OutlinePanel extends VBox {
     private void bindDesign(JasperDesignModel oldDesign, JasperDesignModel newDesign) {
         if (oldDesign != null) {
             oldDesign.getBands().removeListener(bandsListener);
+            oldDesign.removeDesignChangeListener(designChangeListener);
         }
         if (newDesign != null) {
             newDesign.getBands().addListener(bandsListener);
+            newDesign.addDesignChangeListener(designChangeListener);
             rebuildTree(newDesign);
         } else {
             rebuildTree(null);
@@ -370,6 +384,7 @@ public class OutlinePanel extends VBox {
     }
 
     private void rebuildTree(JasperDesignModel design) {
+        clearElementListeners();
         if (design == null) {
             treeView.setRoot(null);
             return;
@@ -379,26 +394,7 @@ public class OutlinePanel extends VBox {
         root.setExpanded(true);
 
         for (String type : ALL_BANDS) {
-            com.jasperstudio.model.BandModel band = design.getBand(type);
-
-            if (band != null) {
-                // Existing Band
-                TreeItem<Object> bandItem = new TreeItem<>(band);
-                bandItem.setExpanded(true);
-                root.getChildren().add(bandItem);
-
-                refreshBandItem(bandItem, band);
-
-                // Live updates for elements
-                band.getElements()
-                        .addListener((javafx.collections.ListChangeListener<com.jasperstudio.model.ElementModel>) c -> {
-                            refreshBandItem(bandItem, band);
-                        });
-            } else {
-                // Placeholder for optional/missing band
-                TreeItem<Object> placeholder = new TreeItem<>(new BandPlaceholder(type));
-                root.getChildren().add(placeholder);
-            }
+            root.getChildren().add(createBandSlot(type, design.getBand(type)));
         }
 
         treeView.setRoot(root);
@@ -454,14 +450,187 @@ public class OutlinePanel extends VBox {
         }
     }
 
+    private TreeItem<Object> createBandSlot(String type, com.jasperstudio.model.BandModel band) {
+        if (band == null) {
+            // Placeholder for optional/missing band
+            return new TreeItem<>(new BandPlaceholder(type));
+        }
+        TreeItem<Object> bandItem = new TreeItem<>(band);
+        bandItem.setExpanded(true);
+        for (ElementModel em : band.getElements()) {
+            bandItem.getChildren().add(createElementItem(em));
+        }
+
+        // Live updates for elements, patched by position
+        javafx.collections.ListChangeListener<ElementModel> listener = c -> {
+            while (c.next()) {
+                if (c.wasPermutated()) {
+                    refreshBandItem(bandItem, band);
+                    return;
+                }
+                if (c.wasRemoved()) {
+                    java.util.List<TreeItem<Object>> removed = bandItem.getChildren().subList(c.getFrom(),
+                            c.getFrom() + c.getRemovedSize());
+                    removed.forEach(this::forgetItem);
+                    removed.clear();
+                }
+                if (c.wasAdded()) {
+                    java.util.List<TreeItem<Object>> items = new java.util.ArrayList<>();
+                    for (ElementModel em : c.getAddedSubList()) {
+                        items.add(createElementItem(em));
+                    }
+                    bandItem.getChildren().addAll(c.getFrom(), items);
+                }
+            }
+        };
+        band.getElements().addListener(listener);
+        elementListeners.put(band, listener);
+        return bandItem;
+    }
+
+    /**
+     * Replaces the tree item of one band slot, leaving the others as they are.
+     */
+    private void setBandSlot(String type, com.jasperstudio.model.BandModel band) {
+        TreeItem<Object> root = treeView.getRoot();
+        int index = ALL_BANDS.indexOf(type);
+        if (root == null || index < 0 || index >= root.getChildren().size()
+                || !(root.getValue() instanceof JasperDesignModel))
+            return;
+        Object current = root.getChildren().get(index).getValue();
+        if (current == band)
+            return;
+        if (current instanceof com.jasperstudio.model.BandModel) {
+            removeElementListener((com.jasperstudio.model.BandModel) current);
+        }
+        forgetItem(root.getChildren().get(index));
+        root.getChildren().set(index, createBandSlot(type, band));
+    }
+
+    private void removeElementListener(com.jasperstudio.model.BandModel band) {
+        javafx.collections.ListChangeListener<ElementModel> listener = elementListeners.remove(band);
+        if (listener != null) {
+            band.getElements().removeListener(listener);
+        }
+    }
+
+    private void clearElementListeners() {
+        for (var entry : elementListeners.entrySet()) {
+            entry.getKey().getElements().removeListener(entry.getValue());
+        }
+        elementListeners.clear();
+        itemsByModel.clear();
+    }
+
+    /**
+     * Tree item for an element, with items for the cached children of frames.
+     */
+    private TreeItem<Object> createElementItem(ElementModel model) {
+        TreeItem<Object> item = new TreeItem<>(model);
+        itemsByModel.put(model, item);
+        if (model instanceof com.jasperstudio.model.FrameModel) {
+            for (ElementModel child : ((com.jasperstudio.model.FrameModel) model).getChildren()) {
+                item.getChildren().add(createElementItem(child));
+            }
+        }
+        return item;
+    }
+
+    /**
+     * Drops the index entries of an item that leaves the tree, and of its
+     * children.
+     */
+    private void forgetItem(TreeItem<Object> item) {
+        if (item.getValue() instanceof ElementModel) {
+            itemsByModel.remove(item.getValue(), item);
+        }
+        for (TreeItem<Object> child : item.getChildren()) {
+            forgetItem(child);
+        }
+    }
+
     private void refreshBandItem(TreeItem<Object> bandItem, com.jasperstudio.model.BandModel band) {
+        bandItem.getChildren().forEach(this::forgetItem);
         bandItem.getChildren().clear();
         for (com.jasperstudio.model.ElementModel em : band.getElements()) {
-            TreeItem<Object> item = new TreeItem<>(em);
-            bandItem.getChildren().add(item);
+            bandItem.getChildren().add(createElementItem(em));
         }
     }
 
+    // Frame contents are not in the band lists; patch the frame's item from the design events
+
+    private void onDesignChanged(DesignChangeEvent event) {
+        if (this.engine == null || this.engine.getViewMode() == DesignerEngine.ViewMode.SOURCE)
+            return;
+        switch (event.getType()) {
+            case ELEMENT_ADDED:
+                if (event.isInFrame())
+                    addFrameChild(event.getContainer(), event.getModel());
+                break;
+            case ELEMENT_REMOVED:
+                if (event.isInFrame())
+                    removeFrameChild(event.getContainer(), event.getElement());
+                break;
+            case ELEMENT_REPARENTED:
+                if (event.getOldContainer() != event.getOldBand().getBand())
+                    removeFrameChild(event.getOldContainer(), event.getElement());
+                if (event.isInFrame())
+                    addFrameChild(event.getContainer(), event.getModel());
+                break;
+            default:
+                // Band slots follow the bands list
+                break;
+        }
+    }
+
+    /**
+     * Adds a frame child's item at the child's place in the frame, after the
+     * items of the children below it, so the order follows the design also
+     * when a child is re-inserted below others.
+     */
+    private void addFrameChild(net.sf.jasperreports.engine.JRElementGroup frame, ElementModel model) {
+        TreeItem<Object> frameItem = findItemForElement(frame);
+        if (frameItem == null || !(frameItem.getValue() instanceof com.jasperstudio.model.FrameModel))
+            return;
+        java.util.Set<JRDesignElement> below = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+        for (ElementModel child : ((com.jasperstudio.model.FrameModel) frameItem.getValue()).getChildren()) {
+            if (child.getElement() == model.getElement())
+                break;
+            below.add(child.getElement());
+        }
+        int position = 0;
+        java.util.List<TreeItem<Object>> items = frameItem.getChildren();
+        for (int i = 0; i < items.size(); i++) {
+            Object value = items.get(i).getValue();
+            if (value instanceof ElementModel && below.contains(((ElementModel) value).getElement()))
+                position = i + 1;
+        }
+        items.add(position, createElementItem(model));
+    }
+
+    private void removeFrameChild(net.sf.jasperreports.engine.JRElementGroup frame, JRDesignElement element) {
+        TreeItem<Object> frameItem = findItemForElement(frame);
+        if (frameItem != null) {
+            frameItem.getChildren().removeIf(item -> {
+                boolean match = item.getValue() instanceof ElementModel
+                        && ((ElementModel) item.getValue()).getElement() == element;
+                if (match)
+                    forgetItem(item);
+                return match;
+            });
+        }
+    }
+
+    /**
+     * Resolves an element's tree item through the design's parent index.
+     */
+    private TreeItem<Object> findItemForElement(Object element) {
+        if (!(element instanceof JRDesignElement) || this.engine == null || this.engine.getDesign() == null)
+            return null;
+        ElementModel model = this.engine.getDesign().getParentIndex().findModel((JRDesignElement) element);
+        return model != null ? itemsByModel.get(model) : null;
+    }
+
     private void selectItemForBand(TreeItem<Object> current, com.jasperstudio.model.BandModel target) {
         if (current == null)
             return;
@@ -475,21 +644,24 @@ public class OutlinePanel extends VBox {
         }
     }
 
-    private void selectItemForElement(TreeItem<Object> current, JRDesignElement target) {
-        if (current == null)
-            return;
-        if (current.getValue() == target) {
-            treeView.getSelectionModel().select(current);
-            int row = treeView.getRow(current);
-            treeView.scrollTo(row);
-            return;
+    private void selectItemForElement(ElementModel target) {
+        TreeItem<Object> item = itemsByModel.get(target);
+        if (item == null) {
+            // Another wrapper of the same element, e.g. from the source view
+            item = findItemForElement(target.getElement());
         }
-        for (TreeItem<Object> kid : current.getChildren()) {
-            selectItemForElement(kid, target);
+        if (item == null)
+            return;
+        for (TreeItem<Object> parent = item.getParent(); parent != null; parent = parent.getParent()) {
+            parent.setExpanded(true);
         }
+        treeView.getSelectionModel().select(item);
+        int row = treeView.getRow(item);
+        treeView.scrollTo(row);
     }
 
     private ElementModel findModelForElement(JasperDesignModel design, JRDesignElement target) {
-        return new ElementModel(target);
+        ElementModel model = design != null ? design.getParentIndex().findModel(target) : null;
+        return model != null ? model : ElementModel.of(target);
     }
 }
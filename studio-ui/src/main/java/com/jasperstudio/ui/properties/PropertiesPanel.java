@@ -1,7 +1,10 @@
 package com.jasperstudio.ui.properties;
 
 import com.jasperstudio.designer.DesignerEngine;
+import com.jasperstudio.model.DesignChangeEvent;
+import com.jasperstudio.model.DesignChangeListener;
 import com.jasperstudio.model.ElementModel;
+import com.jasperstudio.model.JasperDesignModel;
 import javafx.scene.control.Label;
 import javafx.scene.control.Spinner;
 import javafx.scene.control.TextField;
@@ -87,6 +90,8 @@ public class PropertiesPanel extends VBox {
     private GridPane grid;
 
     private javafx.beans.value.ChangeListener<Object> selectionListener;
+    private javafx.beans.value.ChangeListener<JasperDesignModel> designListener;
+    private final DesignChangeListener designChangeListener = this::onDesignChanged;
 
     public PropertiesPanel(DesignerEngine engine) {
         loadFXML();
@@ -95,6 +100,12 @@ public class PropertiesPanel extends VBox {
             unbind(oldVal);
             bind(newVal);
         };
+        this.designListener = (obs, oldVal, newVal) -> {
+            if (oldVal != null)
+                oldVal.removeDesignChangeListener(designChangeListener);
+            if (newVal != null)
+                newVal.addDesignChangeListener(designChangeListener);
+        };
 
         setDesignerEngine(engine);
     }
@@ -102,6 +113,9 @@ public class PropertiesPanel extends VBox {
     public void setDesignerEngine(DesignerEngine newEngine) {
         if (this.engine != null) {
             this.engine.selectionProperty().removeListener(selectionListener);
+            this.engine.currentDesignProperty().removeListener(designListener);
+            if (this.engine.getDesign() != null)
+                this.engine.getDesign().removeDesignChangeListener(designChangeListener);
             // Unbind current selection if any
             unbind(this.engine.getSelection());
         }
@@ -110,6 +124,9 @@ public class PropertiesPanel extends VBox {
 
         if (this.engine != null) {
             this.engine.selectionProperty().addListener(selectionListener);
+            this.engine.currentDesignProperty().addListener(designListener);
+            if (this.engine.getDesign() != null)
+                this.engine.getDesign().addDesignChangeListener(designChangeListener);
             // Verify if we should bind current selection immediately
             if (this.engine.getSelection() != null) {
                 bind(this.engine.getSelection());
@@ -124,6 +141,25 @@ public class PropertiesPanel extends VBox {
         }
     }
 
+    /**
+     * Drops the shown object when a structural change takes it out of the
+     * design; other changes leave the bound fields alone.
+     */
+    private void onDesignChanged(DesignChangeEvent event) {
+        Object selection = this.engine != null ? this.engine.getSelection() : null;
+        if (selection == null)
+            return;
+        boolean gone = false;
+        if (event.getType() == DesignChangeEvent.Type.ELEMENT_REMOVED && selection instanceof ElementModel) {
+            gone = ((ElementModel) selection).getElement() == event.getElement();
+        } else if (event.getType() == DesignChangeEvent.Type.BAND_CHANGED) {
+            gone = selection == event.getOldBand();
+        }
+        if (gone) {
+            this.engine.clearSelection();
+        }
+    }
+
     private void loadFXML() {
         javafx.fxml.FXMLLoader loader = new javafx.fxml.FXMLLoader(getClass().getResource("PropertiesPanel.fxml"));
         loader.setRoot(this);